@@ -0,0 +1,92 @@
+package carrent.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result with a baseline result and prints the change of every benchmark,
+ * positive when it got slower. Exits with status 1 when any benchmark got slower by more than
+ * the allowed percentage, so {@code mvn -Pjmh verify} fails on a hot path regression. Without
+ * a baseline file it only prints the results and how to record them as the baseline.
+ */
+public final class BaselineComparison {
+    private static final String THROUGHPUT_MODE = "thrpt";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File result = new File(args[0]);
+        File baseline = new File(args[1]);
+        double maxRegression = Double.parseDouble(args[2]);
+        Map<String, Score> current = readScores(result);
+        if (!baseline.isFile()) {
+            System.out.printf("%n%-76s %14s%n", "benchmark", "score");
+            current.forEach((name, score) -> System.out.printf("%-76s %14.3f %s%n",
+                    name, score.value(), score.unit()));
+            System.out.printf("%nNo baseline at %s, copy %s there to record one%n",
+                    baseline, result);
+            return;
+        }
+        List<String> regressions = compare(current, readScores(baseline), maxRegression);
+        if (!regressions.isEmpty()) {
+            System.out.printf("%nSlower than the baseline by more than %.1f%%: %s%n",
+                    maxRegression, regressions);
+            System.exit(1);
+        }
+    }
+
+    private static List<String> compare(Map<String, Score> current,
+            Map<String, Score> baseline, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%n%-76s %14s %14s %9s%n", "benchmark", "baseline", "score",
+                "change");
+        current.forEach((name, score) -> {
+            Score previous = baseline.get(name);
+            if (previous == null) {
+                System.out.printf("%-76s %14s %14.3f %9s %s%n", name, "-", score.value(),
+                        "new", score.unit());
+                return;
+            }
+            double change = (score.value() - previous.value()) / previous.value() * 100;
+            double slowdown = score.higherIsBetter() ? -change : change;
+            System.out.printf("%-76s %14.3f %14.3f %+8.1f%% %s%n", name, previous.value(),
+                    score.value(), slowdown, score.unit());
+            if (slowdown > maxRegression) {
+                regressions.add(name);
+            }
+        });
+        return regressions;
+    }
+
+    /** Reads the primary score of every benchmark, keyed by its name and parameters. */
+    private static Map<String, Score> readScores(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : OBJECT_MAPPER.readTree(file)) {
+            String benchmark = run.get("benchmark").asText();
+            String className = benchmark.substring(0, benchmark.lastIndexOf('.'));
+            StringBuilder name = new StringBuilder(
+                    benchmark.substring(className.lastIndexOf('.') + 1));
+            JsonNode params = run.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param -> name.append(' ')
+                        .append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            JsonNode metric = run.get("primaryMetric");
+            scores.put(name.toString(), new Score(metric.get("score").asDouble(),
+                    metric.get("scoreUnit").asText(),
+                    THROUGHPUT_MODE.equals(run.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,82 @@
+package carrent.mapper;
+
+import carrent.dto.car.CarDto;
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.RentalDto;
+import carrent.mapper.impl.CarMapperImpl;
+import carrent.mapper.impl.PaymentMapperImpl;
+import carrent.mapper.impl.RentalMapperImpl;
+import carrent.model.Car;
+import carrent.model.Payment;
+import carrent.model.Rental;
+import carrent.model.User;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Maps one car, rental and payment the way every listing maps each of its rows. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+    private CarMapper carMapper;
+    private RentalMapper rentalMapper;
+    private PaymentMapper paymentMapper;
+    private Car car;
+    private Rental rental;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        carMapper = new CarMapperImpl();
+        rentalMapper = new RentalMapperImpl(carMapper);
+        paymentMapper = new PaymentMapperImpl();
+        car = new Car();
+        car.setId(1L);
+        car.setModel("Astra");
+        car.setBrand("Opel");
+        car.setType(Car.Type.HATCHBACK);
+        car.setInventory(3);
+        car.setDailyFee(new BigDecimal("40.99"));
+        User user = new User();
+        user.setId(2L);
+        rental = new Rental();
+        rental.setId(1L);
+        rental.setRentalDate(LocalDate.of(2024, 5, 1));
+        rental.setReturnDate(LocalDate.of(2024, 5, 7));
+        rental.setCar(car);
+        rental.setUser(user);
+        payment = new Payment();
+        payment.setId(1L);
+        payment.setStatus(Payment.Status.PAID);
+        payment.setType(Payment.Type.PAYMENT);
+        payment.setRental(rental);
+        payment.setAmountToPay(new BigDecimal("245.94"));
+        payment.setSessionUrl("https://checkout.stripe.com/c/pay/cs_test_benchmark");
+        payment.setSessionId("cs_test_benchmark");
+        payment.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+    }
+
+    @Benchmark
+    public CarDto carToDto() {
+        return carMapper.toDtoFromModel(car);
+    }
+
+    @Benchmark
+    public RentalDto rentalToDto() {
+        return rentalMapper.toDtoFromModel(rental);
+    }
+
+    @Benchmark
+    public PaymentDto paymentToDto() {
+        return paymentMapper.toDtoFromModel(payment);
+    }
+}
@@ -0,0 +1,56 @@
+package carrent.service.notification;
+
+import carrent.dto.rental.OverdueRentalDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Formats the daily digest of overdue rentals and splits it into Telegram messages. The
+ * dispatcher hands every message to a blackhole instead of queueing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OverdueRentalsDigestBenchmark {
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+    @Param({"10", "1000"})
+    private int overdueRentals;
+    private List<OverdueRentalDto> rentals;
+    private QueuedNotificationService notificationService;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        rentals = LongStream.rangeClosed(1, overdueRentals)
+                .mapToObj(id -> new OverdueRentalDto(id, id % 100, id % 500, TODAY.minusDays(3)))
+                .toList();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(null, 1, 1,
+                Duration.ZERO, 1, Duration.ZERO, Duration.ZERO, new SimpleMeterRegistry(),
+                Tracer.NOOP) {
+            @Override
+            public boolean dispatch(String text) {
+                blackhole.consume(text);
+                return true;
+            }
+        };
+        notificationService = new QueuedNotificationService(null, dispatcher);
+    }
+
+    @Benchmark
+    public int sendOverdueRentalsDigest() {
+        return notificationService.sendOverdueRentalsDigest(TODAY, rentals.iterator());
+    }
+}
@@ -0,0 +1,44 @@
+package carrent.service.payment.impl;
+
+import carrent.model.Car;
+import carrent.model.Payment;
+import carrent.model.Rental;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Prices a rental payment and a fine for returning the car late. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TotalPriceBenchmark {
+    private Rental rental;
+
+    @Setup
+    public void setUp() {
+        Car car = new Car();
+        car.setDailyFee(new BigDecimal("40.99"));
+        rental = new Rental();
+        rental.setCar(car);
+        rental.setRentalDate(LocalDate.of(2024, 5, 1));
+        rental.setReturnDate(LocalDate.of(2024, 5, 7));
+        rental.setActualReturnDate(LocalDate.of(2024, 5, 10));
+    }
+
+    @Benchmark
+    public BigDecimal payment() {
+        return PaymentServiceStripeImpl.calculateTotalPrice(rental, Payment.Type.PAYMENT);
+    }
+
+    @Benchmark
+    public BigDecimal fine() {
+        return PaymentServiceStripeImpl.calculateTotalPrice(rental, Payment.Type.FINE);
+    }
+}
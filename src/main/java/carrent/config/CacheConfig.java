@@ -0,0 +1,39 @@
+package carrent.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+    public static final String CARS_CACHE = "cars";
+    public static final String CAR_PAGES_CACHE = "carPages";
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    /**
+     * Evictions issued inside a transaction are deferred until it commits, so a concurrent
+     * read cannot put the pre-commit state of a car back into the cache.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.cars.spec}") String carsSpec,
+            @Value("${cache.car-pages.spec}") String carPagesSpec,
+            @Value("${cache.user-details.spec}") String userDetailsSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.registerCustomCache(CARS_CACHE, Caffeine.from(carsSpec).build());
+        caffeineCacheManager.registerCustomCache(
+                CAR_PAGES_CACHE, Caffeine.from(carPagesSpec).build());
+        caffeineCacheManager.registerCustomCache(
+                USER_DETAILS_CACHE, Caffeine.from(userDetailsSpec).build());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
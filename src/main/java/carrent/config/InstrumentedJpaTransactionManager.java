@@ -0,0 +1,122 @@
+package carrent.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Opens a span for every transaction it begins, named after the {@code @Transactional} method
+ * or the transaction template that started it, so the SQL statements of the transaction are
+ * grouped under the service call. The span stays current until the transaction completes and
+ * is tagged with its outcome. The connection is taken from the pool when the transaction
+ * begins and returned when it completes, so the same interval is recorded in the
+ * {@code db.connection.hold} timer, tagged with the transaction name. Joined transactions do
+ * not open a span of their own.
+ */
+public class InstrumentedJpaTransactionManager extends JpaTransactionManager {
+    private static final String DEFAULT_NAME = "transaction";
+    private static final String READ_ONLY_TAG = "tx.read-only";
+    private static final String OUTCOME_TAG = "tx.outcome";
+    private static final String HOLD_METRIC = "db.connection.hold";
+    private static final String TRANSACTION_TAG = "transaction";
+    private final Tracer tracer;
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<Deque<ActiveTransaction>> activeTransactions =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
+    public InstrumentedJpaTransactionManager(Tracer tracer, MeterRegistry meterRegistry) {
+        this.tracer = tracer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        String name = transactionName(definition.getName());
+        Span span = tracer.nextSpan()
+                .name(name)
+                .tag(READ_ONLY_TAG, String.valueOf(definition.isReadOnly()))
+                .start();
+        activeTransactions.get().push(new ActiveTransaction(
+                name, span, tracer.withSpan(span), System.nanoTime()));
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            span.error(e);
+            completeTransaction();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        tagOutcome("commit");
+        super.doCommit(status);
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        tagOutcome("rollback");
+        super.doRollback(status);
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            completeTransaction();
+        }
+    }
+
+    private void tagOutcome(String outcome) {
+        ActiveTransaction current = activeTransactions.get().peek();
+        if (current != null) {
+            current.span().tag(OUTCOME_TAG, outcome);
+        }
+    }
+
+    private void completeTransaction() {
+        Deque<ActiveTransaction> transactions = activeTransactions.get();
+        ActiveTransaction current = transactions.poll();
+        if (transactions.isEmpty()) {
+            activeTransactions.remove();
+        }
+        if (current == null) {
+            return;
+        }
+        Timer.builder(HOLD_METRIC)
+                .description("Time a transaction holds its database connection")
+                .tag(TRANSACTION_TAG, current.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - current.startNanos(), TimeUnit.NANOSECONDS);
+        current.scope().close();
+        current.span().end();
+    }
+
+    /**
+     * Shortens a method identifier such as {@code a.b.RentalServiceImpl.createNewRental}.
+     */
+    private static String transactionName(String definitionName) {
+        if (definitionName == null) {
+            return DEFAULT_NAME;
+        }
+        int methodStart = definitionName.lastIndexOf('.');
+        int classStart = definitionName.lastIndexOf('.', methodStart - 1);
+        return definitionName.substring(classStart + 1);
+    }
+
+    private record ActiveTransaction(
+            String name,
+            Span span,
+            Tracer.SpanInScope scope,
+            long startNanos) {
+    }
+}
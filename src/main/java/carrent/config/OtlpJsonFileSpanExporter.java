@@ -0,0 +1,60 @@
+package carrent.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Appends finished spans to a file in the OTLP JSON format, one {@code ResourceSpans} object
+ * per line, so a trace can be analysed offline or replayed into a collector. The spans are
+ * encoded by {@link OtlpJsonLoggingSpanExporter}, whose log output is redirected to the file
+ * instead of the application log.
+ */
+public class OtlpJsonFileSpanExporter implements SpanExporter {
+    private final SpanExporter delegate = OtlpJsonLoggingSpanExporter.create();
+    private final Logger logger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+    private final FileHandler fileHandler;
+
+    public OtlpJsonFileSpanExporter(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.fileHandler = new FileHandler(file.toString(), true);
+        fileHandler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord record) {
+                return record.getMessage() + System.lineSeparator();
+            }
+        });
+        logger.addHandler(fileHandler);
+        logger.setUseParentHandlers(false);
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        return delegate.export(spans);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        fileHandler.flush();
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        CompletableResultCode result = delegate.shutdown();
+        logger.removeHandler(fileHandler);
+        fileHandler.close();
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package carrent.config;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.net.HttpClient;
+import com.stripe.net.HttpContent;
+import com.stripe.net.HttpHeaders;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Sends Stripe API requests through one shared {@link java.net.http.HttpClient}, which keeps
+ * connections alive and reuses them instead of opening a new {@code HttpURLConnection} per
+ * call. Every attempt is recorded in the {@code stripe.client.requests} timer, tagged with
+ * the operation (method and path with object IDs replaced) and the response status, and
+ * traced in a client span of the same operation.
+ */
+public class PooledStripeHttpClient extends HttpClient {
+    private static final String LATENCY_METRIC = "stripe.client.requests";
+    private static final String OPERATION_TAG = "operation";
+    private static final String STATUS_TAG = "status";
+    private static final String IO_ERROR_STATUS = "IO_ERROR";
+    private static final Pattern OBJECT_ID = Pattern.compile(
+            "/(?:acct|ba|card|ch|cs|cus|evt|in|pi|pm|po|price|prod|re|seti|si|sub|tok|txn)"
+                    + "_[A-Za-z0-9_]+(?=/|$)");
+    private final java.net.http.HttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+
+    public PooledStripeHttpClient(
+            java.net.http.HttpClient httpClient,
+            MeterRegistry meterRegistry,
+            Tracer tracer) {
+        this.httpClient = httpClient;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws ApiConnectionException {
+        String operation = request.method() + " "
+                + OBJECT_ID.matcher(request.url().getPath()).replaceAll("/{id}");
+        String status = IO_ERROR_STATUS;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Span span = tracer.spanBuilder().kind(Span.Kind.CLIENT).name("stripe " + operation)
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            HttpResponse<String> response = httpClient.send(
+                    toHttpRequest(request), HttpResponse.BodyHandlers.ofString());
+            status = String.valueOf(response.statusCode());
+            return new StripeResponse(response.statusCode(),
+                    HttpHeaders.of(response.headers().map()), response.body());
+        } catch (IOException e) {
+            span.error(e);
+            throw new ApiConnectionException(
+                    "IOException during API request to Stripe (" + operation + "): "
+                    + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            span.error(e);
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException(
+                    "Interrupted during API request to Stripe (" + operation + ")", e);
+        } finally {
+            span.tag(STATUS_TAG, status).end();
+            sample.stop(Timer.builder(LATENCY_METRIC)
+                    .description("Latency of Stripe API calls by operation")
+                    .tag(OPERATION_TAG, operation)
+                    .tag(STATUS_TAG, status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private HttpRequest toHttpRequest(StripeRequest request) throws ApiConnectionException {
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(request.url().toURI());
+        } catch (URISyntaxException e) {
+            throw new ApiConnectionException("Invalid Stripe API URL: " + request.url(), e);
+        }
+        builder.timeout(Duration.ofMillis(request.options().getReadTimeout()))
+                .header("User-Agent", buildUserAgentString())
+                .header("X-Stripe-Client-User-Agent", buildXStripeClientUserAgentString());
+        for (Map.Entry<String, List<String>> header : request.headers().map().entrySet()) {
+            builder.header(header.getKey(), String.join(",", header.getValue()));
+        }
+        HttpContent content = request.content();
+        if (content == null) {
+            return builder.method(request.method().name(), HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+        return builder.header("Content-Type", content.contentType())
+                .method(request.method().name(),
+                        HttpRequest.BodyPublishers.ofByteArray(content.byteArrayContent()))
+                .build();
+    }
+}
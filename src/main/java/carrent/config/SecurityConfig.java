@@ -38,13 +38,18 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.POST,
                                 "/auth/registration",
-                                "/auth/login")
+                                "/auth/login",
+                                "/webhooks/stripe")
                         .permitAll()
                         .requestMatchers(HttpMethod.GET,
                                 "/cars/**")
                         .permitAll()
                         .requestMatchers("/swagger-ui/**")
                         .permitAll()
+                        .requestMatchers("/actuator/health")
+                        .permitAll()
+                        .requestMatchers("/actuator/**")
+                        .hasAuthority("MANAGER")
                         .anyRequest()
                         .authenticated()
                 )
@@ -0,0 +1,54 @@
+package carrent.config;
+
+import com.stripe.Stripe;
+import com.stripe.StripeClient;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.StripeResponseGetterOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StripeConfig {
+    @Bean
+    public StripeClient stripeClient(
+            MeterRegistry meterRegistry,
+            Tracer tracer,
+            @Value("${stripe.api.key}") String apiKey,
+            @Value("${stripe.api-base}") String apiBase,
+            @Value("${stripe.connect-timeout}") Duration connectTimeout,
+            @Value("${stripe.read-timeout}") Duration readTimeout,
+            @Value("${stripe.max-network-retries}") int maxNetworkRetries) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        StripeClientOptions options = new StripeClientOptions(apiKey, apiBase,
+                (int) connectTimeout.toMillis(), (int) readTimeout.toMillis(), maxNetworkRetries);
+        return new StripeClient(new LiveStripeResponseGetter(
+                options, new PooledStripeHttpClient(httpClient, meterRegistry, tracer)));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class StripeClientOptions extends StripeResponseGetterOptions {
+        private final String apiKey;
+        private final String apiBase;
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final int maxNetworkRetries;
+        private final String clientId = null;
+        private final Proxy connectionProxy = null;
+        private final PasswordAuthentication proxyCredential = null;
+        private final String filesBase = Stripe.UPLOAD_API_BASE;
+        private final String connectBase = Stripe.CONNECT_API_BASE;
+    }
+}
@@ -0,0 +1,50 @@
+package carrent.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+@Configuration
+public class TracingConfig {
+    private static final String EXPORTER_PROPERTY = "tracing.exporter";
+
+    /**
+     * Replaces the transaction manager Boot would create with one that traces transactions
+     * and times how long they hold a connection.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            Tracer tracer,
+            MeterRegistry meterRegistry,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        InstrumentedJpaTransactionManager transactionManager =
+                new InstrumentedJpaTransactionManager(tracer, meterRegistry);
+        transactionManagerCustomizers.ifAvailable(
+                customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = EXPORTER_PROPERTY, havingValue = "console")
+    public SpanExporter consoleSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = EXPORTER_PROPERTY, havingValue = "otlp-file")
+    public SpanExporter otlpFileSpanExporter(@Value("${tracing.otlp-file}") String file)
+            throws IOException {
+        return new OtlpJsonFileSpanExporter(Path.of(file));
+    }
+}
@@ -1,15 +1,24 @@
 package carrent.controller;
 
 import carrent.dto.car.CarDto;
+import carrent.dto.car.CarImportResultDto;
+import carrent.dto.car.CarSearchResultDto;
 import carrent.dto.car.CreateCarRequestDto;
+import carrent.model.Car;
+import carrent.service.car.CarImportService;
 import carrent.service.car.CarService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -26,7 +36,9 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/cars")
 @RequiredArgsConstructor
 public class CarController {
+    private static final String CSV_MEDIA_TYPE = "text/csv";
     private final CarService carService;
+    private final CarImportService carImportService;
 
     @Operation(
             summary = "Get a car by ID",
@@ -45,6 +57,46 @@ public class CarController {
         return carService.findAll(pageable);
     }
 
+    @Operation(
+            summary = "Get available cars",
+            description = "Retrieve a paginated list of cars, ordered by ID, that have a unit "
+                    + "free on every day from the start to the end date (inclusive, ISO dates).")
+    @GetMapping("/available")
+    public List<CarDto> getAvailableCars(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            Pageable pageable) {
+        return carService.findAvailable(from, to, pageable);
+    }
+
+    @Operation(
+            summary = "Search cars",
+            description = "Find cars whose brand or model contains every word of the query, "
+                    + "the last word matched as a prefix, optionally narrowed down to car types "
+                    + "and daily fee ranges. The response holds one page of cars ordered by ID, "
+                    + "the total number of matches and the counts of every type and fee range.")
+    @GetMapping("/search")
+    public CarSearchResultDto searchCars(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(name = "type", defaultValue = "") List<Car.Type> types,
+            @RequestParam(name = "daily_fee", defaultValue = "") List<String> dailyFees,
+            Pageable pageable) {
+        return carService.search(query, types, dailyFees, pageable);
+    }
+
+    @Operation(
+            summary = "Suggest search words",
+            description = "Complete a brand or model word from its prefix, "
+                    + "most common words first.")
+    @GetMapping("/search/suggest")
+    public List<String> suggestSearchWords(
+            @RequestParam(name = "prefix") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return carService.suggest(prefix, limit);
+    }
+
     @Operation(
             summary = "Create a new car",
             description = "Create and save a new car "
@@ -56,6 +108,29 @@ public class CarController {
         return carService.save(car);
     }
 
+    @Operation(
+            summary = "Import cars from JSON",
+            description = "Create cars in bulk from a JSON array of car details. Valid rows are "
+                    + "saved even if others are rejected, and every rejected row is reported "
+                    + "with its number and the reason.")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CarImportResultDto importCarsFromJson(HttpServletRequest request) throws IOException {
+        return carImportService.importCars(CarImportService.Format.JSON, request.getInputStream());
+    }
+
+    @Operation(
+            summary = "Import cars from CSV",
+            description = "Create cars in bulk from a CSV file with a header row naming the "
+                    + "model, brand, type, inventory and daily_fee columns. Valid rows are saved "
+                    + "even if others are rejected, and every rejected row is reported "
+                    + "with its number and the reason.")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    @PostMapping(value = "/import", consumes = CSV_MEDIA_TYPE)
+    public CarImportResultDto importCarsFromCsv(HttpServletRequest request) throws IOException {
+        return carImportService.importCars(CarImportService.Format.CSV, request.getInputStream());
+    }
+
     @Operation(
             summary = "Update a car",
             description = "Modify the details of an existing car identified by its ID.")
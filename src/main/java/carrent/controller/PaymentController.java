@@ -2,17 +2,25 @@ package carrent.controller;
 
 import carrent.dto.payment.CreatePaymentRequestDto;
 import carrent.dto.payment.PaymentDto;
+import carrent.dto.payment.PaymentFilterDto;
 import carrent.dto.payment.PaymentPausedDto;
 import carrent.model.Payment;
 import carrent.model.User;
+import carrent.service.export.ExportService;
 import carrent.service.payment.PaymentService;
 import carrent.service.user.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -30,8 +38,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class PaymentController {
     private final PaymentService paymentService;
     private final UserService userService;
-    @Value("${stripe.api.key}")
-    private String stripeApiKey;
+    private final ExportService exportService;
 
     @Operation(
             summary = "Create a payment session",
@@ -40,20 +47,32 @@ public class PaymentController {
     @ResponseStatus(HttpStatus.CREATED)
     public PaymentDto createPaymentSession(
             @RequestBody CreatePaymentRequestDto requestDto) {
-        return paymentService.createPaymentSession(stripeApiKey, requestDto);
+        return paymentService.createPaymentSession(requestDto);
     }
 
     @Operation(
             summary = "Get all payments by user ID",
-            description = "Retrieve a list of payments based on the user ID "
+            description = "Retrieve a page of payments filtered by user, status, type "
+                    + "and creation date range (inclusive, ISO dates) "
                     + "- managers can access all users' payments, "
-                    + "while customers can only access their own payments.")
+                    + "while customers can only access their own payments. "
+                    + "Payments are ordered by ID, pass the last received ID as the cursor "
+                    + "to fetch the next page.")
     @GetMapping
     public List<PaymentDto> getAllPaymentsByUserId(
             Authentication authentication,
-            @RequestParam(name = "user_id", required = false) Long userId) {
+            @RequestParam(name = "user_id", required = false) Long userId,
+            @RequestParam(name = "status", required = false) Payment.Status status,
+            @RequestParam(name = "type", required = false) Payment.Type type,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "cursor", required = false) Long cursor,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
         User user = userService.getUserFromAuthentication(authentication);
-        return paymentService.getAllPaymentsByUserId(user, userId);
+        return paymentService.getAllPaymentsByUserId(user,
+                new PaymentFilterDto(userId, status, type, from, to), cursor, limit);
     }
 
     @Operation(
@@ -64,7 +83,7 @@ public class PaymentController {
     public PaymentDto checkSuccessfulPayment(
             @PathVariable Long rentalId,
             @RequestParam Payment.Type type) {
-        return paymentService.checkSuccessfulPayment(stripeApiKey, rentalId, type);
+        return paymentService.checkSuccessfulPayment(rentalId, type);
     }
 
     @Operation(
@@ -75,4 +94,21 @@ public class PaymentController {
     public PaymentPausedDto getCancelPaymentPausedMessage(@PathVariable Long rentalId) {
         return paymentService.getCancelPaymentPausedMessage(rentalId);
     }
+
+    @Operation(
+            summary = "Export all payments",
+            description = "Stream every payment ordered by ID as NDJSON or CSV "
+                    + "for finance reporting - available to managers only.")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    @GetMapping("/export")
+    public void exportPayments(
+            @RequestParam(name = "format", defaultValue = "NDJSON") ExportService.Format format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("payments." + format.getExtension())
+                .build()
+                .toString());
+        exportService.exportPayments(format, response.getOutputStream());
+    }
 }
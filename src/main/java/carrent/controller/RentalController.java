@@ -4,14 +4,20 @@ import carrent.dto.rental.BasicRentalDto;
 import carrent.dto.rental.RentalDto;
 import carrent.dto.rental.RentalRequestDto;
 import carrent.model.User;
+import carrent.service.export.ExportService;
 import carrent.service.rental.RentalService;
 import carrent.service.user.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,6 +35,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class RentalController {
     private final RentalService rentalService;
     private final UserService userService;
+    private final ExportService exportService;
 
     @Operation(
             summary = "Get a rental by ID",
@@ -42,16 +49,21 @@ public class RentalController {
 
     @Operation(
             summary = "Get all rentals",
-            description = "Retrieve a list of rentals based on the user and rental status "
+            description = "Retrieve a page of rentals based on the user and rental status "
                     + "- managers can access all users' rentals, "
-                    + "while customers can only access their own rentals.")
+                    + "while customers can only access their own rentals. "
+                    + "Rentals are ordered by ID, pass the last received ID as the cursor "
+                    + "to fetch the next page.")
     @GetMapping()
     public List<BasicRentalDto> getAllRentalsByUserAndRentalStatus(
             Authentication authentication,
             @RequestParam(name = "user_id", required = false) Long userId,
-            @RequestParam(name = "is_active", required = false) Boolean isActive) {
+            @RequestParam(name = "is_active", required = false) Boolean isActive,
+            @RequestParam(name = "cursor", required = false) Long cursor,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
         User user = userService.getUserFromAuthentication(authentication);
-        return rentalService.findAllRentalsByUserAndRentalStatus(user, isActive, userId);
+        return rentalService.findAllRentalsByUserAndRentalStatus(
+                user, isActive, userId, cursor, limit);
     }
 
     @Operation(
@@ -74,4 +86,21 @@ public class RentalController {
         User user = userService.getUserFromAuthentication(authentication);
         return rentalService.returnRentalByUserAndId(user, id);
     }
+
+    @Operation(
+            summary = "Export all rentals",
+            description = "Stream every rental ordered by ID as NDJSON or CSV "
+                    + "for finance reporting - available to managers only.")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    @GetMapping("/export")
+    public void exportRentals(
+            @RequestParam(name = "format", defaultValue = "NDJSON") ExportService.Format format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("rentals." + format.getExtension())
+                .build()
+                .toString());
+        exportService.exportRentals(format, response.getOutputStream());
+    }
 }
@@ -0,0 +1,47 @@
+package carrent.controller;
+
+import carrent.service.payment.StripeWebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Stripe Webhooks", description = "Endpoints for receiving Stripe events")
+@RestController
+@RequestMapping("/webhooks/stripe")
+@RequiredArgsConstructor
+public class StripeWebhookController {
+    private static final String STRIPE_SIGNATURE_HEADER = "Stripe-Signature";
+    private final StripeWebhookService stripeWebhookService;
+
+    @Operation(
+            summary = "Receive a Stripe event",
+            description = "Verify the signature of a Stripe webhook event and store it "
+                    + "- payments are updated asynchronously, duplicate deliveries are ignored.")
+    @PostMapping
+    @ResponseStatus(HttpStatus.OK)
+    public void receiveEvent(
+            @RequestBody String payload,
+            @RequestHeader(STRIPE_SIGNATURE_HEADER) String signatureHeader) {
+        stripeWebhookService.receiveEvent(payload, signatureHeader);
+    }
+
+    @Operation(
+            summary = "Replay a Stripe event",
+            description = "Mark a stored Stripe event as unprocessed, "
+                    + "so it is applied again on the next processing run.")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    @PostMapping("/events/{eventId}/replay")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void replayEvent(@PathVariable String eventId) {
+        stripeWebhookService.replayEvent(eventId);
+    }
+}
@@ -0,0 +1,4 @@
+package carrent.dto.car;
+
+public record CarImportErrorDto(long row, String message) {
+}
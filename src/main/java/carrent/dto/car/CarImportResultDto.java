@@ -0,0 +1,6 @@
+package carrent.dto.car;
+
+import java.util.List;
+
+public record CarImportResultDto(long imported, long failed, List<CarImportErrorDto> errors) {
+}
@@ -0,0 +1,6 @@
+package carrent.dto.car;
+
+public record CarInventoryDto(
+        Long id,
+        int inventory) {
+}
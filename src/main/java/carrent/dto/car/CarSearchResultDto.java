@@ -0,0 +1,10 @@
+package carrent.dto.car;
+
+import java.util.List;
+
+public record CarSearchResultDto(
+        long total,
+        List<CarDto> cars,
+        List<FacetCountDto> types,
+        List<FacetCountDto> dailyFees) {
+}
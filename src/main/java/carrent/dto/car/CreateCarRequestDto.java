@@ -20,6 +20,6 @@ public record CreateCarRequestDto(
 
     @Override
     public String type() {
-        return type.toUpperCase();
+        return type == null ? null : type.toUpperCase();
     }
 }
@@ -0,0 +1,4 @@
+package carrent.dto.car;
+
+public record FacetCountDto(String value, long count) {
+}
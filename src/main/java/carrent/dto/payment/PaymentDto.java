@@ -2,6 +2,7 @@ package carrent.dto.payment;
 
 import carrent.model.Payment;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,5 @@ public class PaymentDto {
     private BigDecimal amountToPay;
     private String sessionUrl;
     private String sessionId;
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,12 @@
+package carrent.dto.payment;
+
+import carrent.model.Payment;
+import java.time.LocalDate;
+
+public record PaymentFilterDto(
+        Long userId,
+        Payment.Status status,
+        Payment.Type type,
+        LocalDate from,
+        LocalDate to) {
+}
@@ -0,0 +1,10 @@
+package carrent.dto.rental;
+
+import java.time.LocalDate;
+
+public record OverdueRentalDto(
+        Long id,
+        Long userId,
+        Long carId,
+        LocalDate returnDate) {
+}
@@ -0,0 +1,11 @@
+package carrent.dto.rental;
+
+import java.time.LocalDate;
+
+public record RentalPeriodDto(
+        Long id,
+        Long carId,
+        LocalDate rentalDate,
+        LocalDate returnDate,
+        LocalDate actualReturnDate) {
+}
@@ -1,10 +1,13 @@
 package carrent.exception;
 
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -19,7 +22,10 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    private final Tracer tracer;
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex,
@@ -34,6 +40,7 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
                 .map(this::getErrorMessage)
                 .toList();
         body.put("errors", errors);
+        body.put("traceId", currentTraceId());
         return new ResponseEntity<>(body, headers, status);
     }
 
@@ -46,11 +53,17 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return objectError.getDefaultMessage();
     }
 
+    /** Returns the ID of the request's trace, so a client can quote it when reporting errors. */
+    private String currentTraceId() {
+        Span span = tracer.currentSpan();
+        return span == null ? null : span.context().traceId();
+    }
+
     @ExceptionHandler({EntityNotFoundException.class})
     protected ResponseEntity<Object> handleEntityNotFoundException(
             EntityNotFoundException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(exceptionResponse);
@@ -58,8 +71,8 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
 
     @ExceptionHandler({RegistrationException.class})
     protected ResponseEntity<Object> handleRegistrationException(RegistrationException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .body(exceptionResponse);
@@ -68,8 +81,8 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
     @ExceptionHandler({CarNotAvailableException.class})
     protected ResponseEntity<Object> handleCarNotAvailableException(
             CarNotAvailableException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(exceptionResponse);
@@ -78,8 +91,8 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
     @ExceptionHandler({AccessDeniedException.class})
     protected ResponseEntity<Object> handleAccessDeniedException(
             AccessDeniedException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.FORBIDDEN)
                 .body(exceptionResponse);
@@ -88,8 +101,8 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
     @ExceptionHandler({CarAlreadyReturnedException.class})
     protected ResponseEntity<Object> handleCarAlreadyReturnedException(
             CarAlreadyReturnedException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .body(exceptionResponse);
@@ -98,8 +111,8 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
     @ExceptionHandler({PaymentAlreadyPaidException.class})
     protected ResponseEntity<Object> handlePaymentAlreadyPaidException(
             PaymentAlreadyPaidException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.UNPROCESSABLE_ENTITY)
                 .body(exceptionResponse);
@@ -108,8 +121,8 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
     @ExceptionHandler({TooManyPaymentsException.class})
     protected ResponseEntity<Object> handleTooManyPaymentsException(
             TooManyPaymentsException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .body(exceptionResponse);
@@ -118,10 +131,50 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
     @ExceptionHandler({StripeSessionCreationException.class})
     protected ResponseEntity<Object> handleStripeSessionCreationException(
             StripeSessionCreationException exception) {
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(exception.getMessage(), LocalDateTime.now());
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
         return ResponseEntity
                 .status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(exceptionResponse);
     }
+
+    @ExceptionHandler({InvalidWebhookSignatureException.class})
+    protected ResponseEntity<Object> handleInvalidWebhookSignatureException(
+            InvalidWebhookSignatureException exception) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exceptionResponse);
+    }
+
+    @ExceptionHandler({InvalidDateRangeException.class})
+    protected ResponseEntity<Object> handleInvalidDateRangeException(
+            InvalidDateRangeException exception) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exceptionResponse);
+    }
+
+    @ExceptionHandler({InvalidImportFileException.class})
+    protected ResponseEntity<Object> handleInvalidImportFileException(
+            InvalidImportFileException exception) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exceptionResponse);
+    }
+
+    @ExceptionHandler({InvalidSearchFilterException.class})
+    protected ResponseEntity<Object> handleInvalidSearchFilterException(
+            InvalidSearchFilterException exception) {
+        ExceptionResponse exceptionResponse = new ExceptionResponse(
+                exception.getMessage(), LocalDateTime.now(), currentTraceId());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exceptionResponse);
+    }
 }
@@ -2,5 +2,5 @@ package carrent.exception;
 
 import java.time.LocalDateTime;
 
-public record ExceptionResponse(String message, LocalDateTime timestamp) {
+public record ExceptionResponse(String message, LocalDateTime timestamp, String traceId) {
 }
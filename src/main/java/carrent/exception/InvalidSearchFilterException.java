@@ -0,0 +1,7 @@
+package carrent.exception;
+
+public class InvalidSearchFilterException extends RuntimeException {
+    public InvalidSearchFilterException(String message) {
+        super(message);
+    }
+}
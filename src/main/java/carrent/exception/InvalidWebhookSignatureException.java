@@ -0,0 +1,7 @@
+package carrent.exception;
+
+public class InvalidWebhookSignatureException extends RuntimeException {
+    public InvalidWebhookSignatureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
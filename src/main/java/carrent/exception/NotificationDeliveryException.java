@@ -0,0 +1,7 @@
+package carrent.exception;
+
+public class NotificationDeliveryException extends RuntimeException {
+    public NotificationDeliveryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package carrent.exception;
+
+public class OutboxEventException extends RuntimeException {
+    public OutboxEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package carrent.exception;
+
+public class StripeEventException extends RuntimeException {
+    public StripeEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,7 +1,6 @@
 package carrent.mapper;
 
 import carrent.config.MapperConfig;
-import carrent.dto.rental.BasicRentalDto;
 import carrent.dto.rental.RentalDto;
 import carrent.model.Rental;
 import org.mapstruct.Mapper;
@@ -13,8 +12,4 @@ public interface RentalMapper {
     @Mapping(target = "userId", source = "user.id")
     @Mapping(target = "carInfo", source = "car", qualifiedByName = "modelCarToDtoCar")
     RentalDto toDtoFromModel(Rental rental);
-
-    @Mapping(target = "carId", source = "car.id")
-    @Mapping(target = "userId", source = "user.id")
-    BasicRentalDto toBasicDtoFromModel(Rental rental);
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,6 +12,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -31,7 +33,7 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false)
     private Type type;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rental_id", nullable = false, unique = true)
     private Rental rental;
     @Column(name = "amount_to_pay", nullable = false)
@@ -40,10 +42,13 @@ public class Payment {
     private String sessionUrl;
     @Column(name = "session_id", nullable = false, unique = true)
     private String sessionId;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
 
     public enum Status {
         PENDING,
-        PAID
+        PAID,
+        EXPIRED
     }
 
     public enum Type {
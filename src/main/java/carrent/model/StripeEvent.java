@@ -0,0 +1,33 @@
+package carrent.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "stripe_events")
+public class StripeEvent {
+    @Id
+    @Column(name = "id")
+    private String id;
+    @Column(name = "type", nullable = false)
+    private String type;
+    @Column(name = "payload", nullable = false)
+    private String payload;
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+}
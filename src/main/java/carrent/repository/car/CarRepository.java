@@ -1,10 +1,42 @@
 package carrent.repository.car;
 
+import carrent.config.CacheConfig;
+import carrent.dto.car.CarDto;
+import carrent.dto.car.CarInventoryDto;
 import carrent.model.Car;
+import java.util.List;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
+    @Query("select new carrent.dto.car.CarInventoryDto(c.id, c.inventory) from Car c")
+    List<CarInventoryDto> findAllInventories();
 
+    @Query("select new carrent.dto.car.CarDto(c.id, c.model, c.brand, c.type, c.inventory, "
+            + "c.dailyFee) from Car c")
+    List<CarDto> findAllCarDtos();
+
+    @Modifying
+    @Query("update Car c set c.inventory = c.inventory - 1 where c.id = :id and c.inventory > 0")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CARS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
+    })
+    int decreaseInventoryIfAvailable(Long id);
+
+    @Modifying
+    @Query("update Car c set c.inventory = c.inventory + 1 where c.id = :id")
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CARS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
+    })
+    int increaseInventory(Long id);
+
+    @Query("select c.inventory from Car c where c.id = :id")
+    int findInventoryById(Long id);
 }
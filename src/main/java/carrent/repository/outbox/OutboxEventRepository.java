@@ -0,0 +1,39 @@
+package carrent.repository.outbox;
+
+import carrent.model.OutboxEvent;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Locks the oldest pending events that are due for an attempt. Rows already locked by
+     * another node are skipped, so concurrent pollers work on disjoint batches instead of
+     * waiting for each other.
+     */
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE processed_at IS NULL AND next_attempt_at <= :now AND attempts < :maxAttempts
+            ORDER BY id
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<OutboxEvent> lockPendingBatch(int maxAttempts, LocalDateTime now, int batchSize);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.processedAt = :processedAt where e.id in :ids")
+    int markProcessed(Collection<Long> ids, LocalDateTime processedAt);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1,"
+            + " e.nextAttemptAt = :nextAttemptAt where e.id = :id")
+    int recordFailedAttempt(Long id, LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.processedAt < :processedBefore")
+    int deleteProcessedBefore(LocalDateTime processedBefore);
+}
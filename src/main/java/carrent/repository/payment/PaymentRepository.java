@@ -1,16 +1,94 @@
 package carrent.repository.payment;
 
+import carrent.dto.payment.PaymentDto;
 import carrent.model.Payment;
+import carrent.repository.rental.RentalRepository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-    @Query("from Payment p where p.rental.user.id = :userId")
-    List<Payment> findAllByUserId(Long userId);
+    /**
+     * Selects payments straight into {@link PaymentDto}, reading the rental ID from the
+     * foreign key column so rentals are not loaded.
+     */
+    String PAYMENT_DTO_SELECT = """
+            select new carrent.dto.payment.PaymentDto(
+                p.id, p.status, p.type, p.rental.id, p.amountToPay, p.sessionUrl, p.sessionId,
+                p.createdAt)
+            from Payment p
+            """;
+    /**
+     * Optional filters, a {@code null} argument disables its condition. {@code from} is
+     * inclusive and {@code to} exclusive.
+     */
+    String PAYMENT_FILTER = """
+            where (:status is null or p.status = :status)
+            and (:type is null or p.type = :type)
+            and (:from is null or p.createdAt >= :from)
+            and (:to is null or p.createdAt < :to)
+            """;
+
+    @Query(PAYMENT_DTO_SELECT + PAYMENT_FILTER + """
+            and p.id > :cursor
+            order by p.id""")
+    List<PaymentDto> findAllByFilterAndIdGreaterThanOrderById(
+            Payment.Status status, Payment.Type type, LocalDateTime from, LocalDateTime to,
+            Long cursor, Limit limit);
+
+    @Query(PAYMENT_DTO_SELECT + PAYMENT_FILTER + """
+            and p.rental.user.id = :userId and p.id > :cursor
+            order by p.id""")
+    List<PaymentDto> findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+            Long userId, Payment.Status status, Payment.Type type, LocalDateTime from,
+            LocalDateTime to, Long cursor, Limit limit);
+
+    /**
+     * Streams all payments ordered by ID for the export. Must be consumed inside a read-only
+     * transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE,
+                    value = RentalRepository.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PAYMENT_DTO_SELECT + "order by p.id")
+    Stream<PaymentDto> streamAllPaymentDtos();
 
     Optional<Payment> findByRentalIdAndType(Long rentalId, Payment.Type type);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("from Payment p where p.sessionId = :sessionId")
+    Optional<Payment> lockBySessionId(String sessionId);
+
+    List<Payment> findAllByStatusAndIdGreaterThanOrderById(
+            Payment.Status status, Long cursor, Limit limit);
+
+    /**
+     * Locks the payments that are still in the given status. The row locks serialize the
+     * reconciler with {@link #lockBySessionId}, so a payment confirmed by a webhook in the
+     * meantime is no longer returned once its lock is released.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Payment> findAllByIdInAndStatus(Collection<Long> ids, Payment.Status status);
+
+    @Modifying
+    @Query("update Payment p set p.status = :status where p.id in :ids and p.status = :expected")
+    int updateStatusByIdInAndStatus(Collection<Long> ids, Payment.Status expected,
+            Payment.Status status);
+
+    long countByStatus(Payment.Status status);
 }
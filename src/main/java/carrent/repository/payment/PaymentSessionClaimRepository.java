@@ -0,0 +1,36 @@
+package carrent.repository.payment;
+
+import carrent.model.Payment;
+import carrent.model.PaymentSessionClaim;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentSessionClaimRepository extends JpaRepository<PaymentSessionClaim, Long> {
+    @Modifying
+    @Query("delete from PaymentSessionClaim c where c.rentalId = :rentalId and c.type = :type")
+    int deleteByRentalIdAndType(Long rentalId, Payment.Type type);
+
+    @Modifying
+    @Query("delete from PaymentSessionClaim c where c.rentalId = :rentalId and c.type = :type"
+            + " and c.idempotencyKey <> :idempotencyKey")
+    int deleteByRentalIdAndTypeAndIdempotencyKeyNot(
+            Long rentalId, Payment.Type type, String idempotencyKey);
+
+    /**
+     * Deletes claims older than the given time for which no payment in one of the given
+     * statuses exists, which happens when the node creating the session stopped between
+     * claiming it and saving the payment. A claim made to replace an expired payment is
+     * released as well, because the expired payment is still there until it is replaced.
+     */
+    @Modifying
+    @Query("delete from PaymentSessionClaim c where c.createdAt < :createdBefore"
+            + " and not exists (select p.id from Payment p where p.rental.id = c.rentalId"
+            + " and p.type = c.type and p.status in :liveStatuses)")
+    int deleteAbandonedClaims(
+            LocalDateTime createdBefore, Collection<Payment.Status> liveStatuses);
+}
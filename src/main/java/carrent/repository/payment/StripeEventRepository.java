@@ -0,0 +1,40 @@
+package carrent.repository.payment;
+
+import carrent.model.StripeEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StripeEventRepository extends JpaRepository<StripeEvent, String> {
+    /**
+     * Stores the event unless one with the same ID was already received. Returns 0 for a
+     * duplicate delivery, so Stripe's retries are acknowledged without being processed twice.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO stripe_events
+                (id, type, payload, received_at, attempts, next_attempt_at)
+            VALUES (:id, :type, :payload, :receivedAt, 0, :receivedAt)""", nativeQuery = true)
+    int insertIfAbsent(String id, String type, String payload, LocalDateTime receivedAt);
+
+    /**
+     * Locks the oldest unprocessed events that are due for an attempt. Rows already locked
+     * by another node are skipped, so concurrent processors work on disjoint batches.
+     */
+    @Query(value = """
+            SELECT * FROM stripe_events
+            WHERE processed_at IS NULL AND next_attempt_at <= :now AND attempts < :maxAttempts
+            ORDER BY received_at
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<StripeEvent> lockPendingBatch(int maxAttempts, LocalDateTime now, int batchSize);
+
+    @Modifying
+    @Query("update StripeEvent e set e.processedAt = null, e.attempts = 0,"
+            + " e.nextAttemptAt = :nextAttemptAt where e.id = :id")
+    int resetForReplay(String id, LocalDateTime nextAttemptAt);
+}
@@ -1,17 +1,128 @@
 package carrent.repository.rental;
 
+import carrent.dto.rental.BasicRentalDto;
+import carrent.dto.rental.OverdueRentalDto;
+import carrent.dto.rental.RentalPeriodDto;
 import carrent.model.Rental;
-import carrent.model.User;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
-    List<Rental> findAllByUser(User user);
+    /** Makes MySQL Connector/J stream the result set row by row. */
+    String STREAMING_FETCH_SIZE = "-2147483648";
+    /**
+     * Selects list rows straight into {@link BasicRentalDto}, reading the car and user IDs
+     * from the foreign key columns so neither association is loaded.
+     */
+    String BASIC_RENTAL_SELECT = """
+            select new carrent.dto.rental.BasicRentalDto(
+                r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.car.id, r.user.id)
+            from Rental r
+            """;
 
-    List<Rental> findAllByUserId(Long userId);
+    @Override
+    @EntityGraph(attributePaths = "car")
+    Optional<Rental> findById(Long id);
 
-    List<Rental> findAllByActualReturnDateIsNullAndReturnDateIsBefore(LocalDate localDate);
+    @Query(BASIC_RENTAL_SELECT + """
+            where r.id > :cursor
+            order by r.id""")
+    List<BasicRentalDto> findAllByIdGreaterThanOrderById(Long cursor, Limit limit);
+
+    @Query(BASIC_RENTAL_SELECT + """
+            where r.actualReturnDate is null and r.id > :cursor
+            order by r.id""")
+    List<BasicRentalDto> findAllByActualReturnDateIsNullAndIdGreaterThanOrderById(
+            Long cursor, Limit limit);
+
+    @Query(BASIC_RENTAL_SELECT + """
+            where r.actualReturnDate is not null and r.id > :cursor
+            order by r.id""")
+    List<BasicRentalDto> findAllByActualReturnDateIsNotNullAndIdGreaterThanOrderById(
+            Long cursor, Limit limit);
+
+    @Query(BASIC_RENTAL_SELECT + """
+            where r.user.id = :userId and r.id > :cursor
+            order by r.id""")
+    List<BasicRentalDto> findAllByUserIdAndIdGreaterThanOrderById(
+            Long userId, Long cursor, Limit limit);
+
+    @Query(BASIC_RENTAL_SELECT + """
+            where r.user.id = :userId and r.actualReturnDate is null and r.id > :cursor
+            order by r.id""")
+    List<BasicRentalDto> findAllByUserIdAndActualReturnDateIsNullAndIdGreaterThanOrderById(
+            Long userId, Long cursor, Limit limit);
+
+    @Query(BASIC_RENTAL_SELECT + """
+            where r.user.id = :userId and r.actualReturnDate is not null and r.id > :cursor
+            order by r.id""")
+    List<BasicRentalDto> findAllByUserIdAndActualReturnDateIsNotNullAndIdGreaterThanOrderById(
+            Long userId, Long cursor, Limit limit);
+
+    /**
+     * Streams all rentals ordered by ID as list rows for the export. Must be consumed inside a
+     * read-only transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(BASIC_RENTAL_SELECT + "order by r.id")
+    Stream<BasicRentalDto> streamAllBasicRentals();
+
+    /**
+     * Streams the period of every rental for building the availability index. Must be
+     * consumed inside a read-only transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new carrent.dto.rental.RentalPeriodDto(
+                r.id, r.car.id, r.rentalDate, r.returnDate, r.actualReturnDate)
+            from Rental r""")
+    Stream<RentalPeriodDto> streamAllRentalPeriods();
+
+    /**
+     * Loads everything needed to open a payment session - the rental, its car (daily fee),
+     * its user and any payments already created for it - in a single statement.
+     */
+    @Query("""
+            select r from Rental r
+            left join fetch r.car
+            left join fetch r.user
+            left join fetch r.payments
+            where r.id = :id""")
+    Optional<Rental> findByIdWithCarUserAndPayments(Long id);
+
+    /**
+     * Streams overdue rentals as flat rows straight from the
+     * {@code (actual_return_date, return_date)} index, without hydrating rentals, cars
+     * or users. Must be consumed inside a read-only transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new carrent.dto.rental.OverdueRentalDto(
+                r.id, r.user.id, r.car.id, r.returnDate)
+            from Rental r
+            where r.actualReturnDate is null and r.returnDate < :date
+            order by r.returnDate, r.id""")
+    Stream<OverdueRentalDto> streamOverdueRentals(LocalDate date);
+
+    long countByActualReturnDateIsNull();
 }
@@ -8,6 +8,10 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    @Query("from User u join fetch u.roles where lower(u.email) like lower(:email)")
+    /**
+     * Case-insensitive through the column's {@code _ci} collation,
+     * which, unlike {@code lower(email)}, keeps the unique email index usable.
+     */
+    @Query("from User u join fetch u.roles where u.email = :email")
     Optional<User> findByEmail(String email);
 }
@@ -1,5 +1,8 @@
 package carrent.security;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,8 +24,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final int TOKEN_START_INDEX = 7;
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String AUTHORIZATION_TYPE = "Bearer";
+    private static final String VALIDATION_METRIC = "security.jwt.validation";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String VALID_OUTCOME = "valid";
+    private static final String EXPIRED_OUTCOME = "expired";
+    private static final String INVALID_OUTCOME = "invalid";
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,8 +39,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.isValidToken(token)) {
-            String username = jwtUtil.getUsername(token);
+        String username = token != null ? validateToken(token) : null;
+        if (username != null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
             Authentication authentication = new UsernamePasswordAuthenticationToken(
                     userDetails,
@@ -42,6 +51,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private String validateToken(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = INVALID_OUTCOME;
+        try {
+            String username = jwtUtil.getUsernameFromValidToken(token);
+            outcome = username != null ? VALID_OUTCOME : EXPIRED_OUTCOME;
+            return username;
+        } catch (ExpiredJwtException e) {
+            outcome = EXPIRED_OUTCOME;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(VALIDATION_METRIC)
+                    .description("Duration of verifying the JWT of a request")
+                    .tag(OUTCOME_TAG, outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
     private String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(AUTHORIZATION_TYPE)) {
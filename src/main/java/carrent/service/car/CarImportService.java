@@ -0,0 +1,14 @@
+package carrent.service.car;
+
+import carrent.dto.car.CarImportResultDto;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CarImportService {
+    CarImportResultDto importCars(Format format, InputStream inputStream) throws IOException;
+
+    enum Format {
+        JSON,
+        CSV
+    }
+}
@@ -1,7 +1,10 @@
 package carrent.service.car;
 
 import carrent.dto.car.CarDto;
+import carrent.dto.car.CarSearchResultDto;
 import carrent.dto.car.CreateCarRequestDto;
+import carrent.model.Car;
+import java.time.LocalDate;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +15,13 @@ public interface CarService {
 
     CarDto findById(Long id);
 
+    List<CarDto> findAvailable(LocalDate from, LocalDate to, Pageable pageable);
+
+    CarSearchResultDto search(String query, List<Car.Type> types, List<String> dailyFees,
+            Pageable pageable);
+
+    List<String> suggest(String prefix, int limit);
+
     CarDto updateById(Long id, CreateCarRequestDto car);
 
     void deleteById(Long id);
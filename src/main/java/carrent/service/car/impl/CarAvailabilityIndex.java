@@ -0,0 +1,167 @@
+package carrent.service.car.impl;
+
+import static carrent.service.car.impl.TransactionHooks.afterCommit;
+
+import carrent.dto.car.CarInventoryDto;
+import carrent.dto.rental.RentalPeriodDto;
+import carrent.repository.car.CarRepository;
+import carrent.repository.rental.RentalRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory availability calendar of every car, built from {@code rentals} at startup and
+ * kept up to date by the car and rental services once their transactions commit. A range
+ * query costs a few binary searches per car, so no rentals are scanned. Rentals written by
+ * other instances are picked up by the scheduled rebuild. Updates arriving while a rebuild
+ * reads the database are recorded and replayed onto the new calendars before they replace
+ * the current ones, so a rebuild never loses them. Rentals are keyed by their ID, so
+ * replaying an update the new snapshot has already read doesn't count the rental twice.
+ */
+@Slf4j
+@Component
+public class CarAvailabilityIndex {
+    private final CarRepository carRepository;
+    private final RentalRepository rentalRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Object updateLock = new Object();
+    private volatile ConcurrentNavigableMap<Long, CarCalendar> calendars =
+            new ConcurrentSkipListMap<>();
+    private List<Consumer<Map<Long, CarCalendar>>> updatesDuringRebuild;
+
+    public CarAvailabilityIndex(
+            CarRepository carRepository,
+            RentalRepository rentalRepository,
+            PlatformTransactionManager transactionManager) {
+        this.carRepository = carRepository;
+        this.rentalRepository = rentalRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${availability.rebuild-cron}")
+    public void rebuild() {
+        final long start = System.nanoTime();
+        synchronized (updateLock) {
+            updatesDuringRebuild = new ArrayList<>();
+        }
+        ConcurrentNavigableMap<Long, CarCalendar> rebuilt;
+        try {
+            rebuilt = readOnlyTransaction.execute(status -> buildCalendars());
+            synchronized (updateLock) {
+                updatesDuringRebuild.forEach(update -> update.accept(rebuilt));
+                calendars = rebuilt;
+            }
+        } finally {
+            synchronized (updateLock) {
+                updatesDuringRebuild = null;
+            }
+        }
+        log.info("Built availability calendars of {} cars in {} ms", rebuilt.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns IDs of cars with a free unit on every day from {@code from} to {@code to}
+     * inclusive, in ascending order, skipping the first {@code offset} matches.
+     */
+    public List<Long> findAvailableCarIds(LocalDate from, LocalDate to, long offset, int limit) {
+        int fromDay = toDay(from);
+        int toDay = toDay(to) + 1;
+        int today = toDay(LocalDate.now());
+        List<Long> carIds = new ArrayList<>();
+        long skipped = 0;
+        for (Map.Entry<Long, CarCalendar> calendar : calendars.entrySet()) {
+            if (!calendar.getValue().isAvailable(fromDay, toDay, today)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                carIds.add(calendar.getKey());
+                if (carIds.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return carIds;
+    }
+
+    public void carSaved(Long carId, int inventory) {
+        afterCommit(() -> update(calendars -> calendars.compute(carId, (id, calendar) ->
+                calendar == null
+                        ? CarCalendar.empty(inventory)
+                        : calendar.withInventory(inventory))));
+    }
+
+    public void carDeleted(Long carId) {
+        afterCommit(() -> update(calendars -> calendars.remove(carId)));
+    }
+
+    public void rentalCreated(Long rentalId, Long carId, LocalDate rentalDate,
+            LocalDate returnDate) {
+        afterCommit(() -> update(calendars -> calendars.computeIfPresent(carId,
+                (id, calendar) -> calendar.withOpenRental(
+                        rentalId, toDay(rentalDate), toDay(returnDate)))));
+    }
+
+    public void rentalReturned(Long rentalId, Long carId, LocalDate rentalDate,
+            LocalDate actualReturnDate) {
+        afterCommit(() -> update(calendars -> calendars.computeIfPresent(carId,
+                (id, calendar) -> calendar.withReturnedRental(
+                        rentalId, toDay(rentalDate), toDay(actualReturnDate)))));
+    }
+
+    private void update(Consumer<Map<Long, CarCalendar>> update) {
+        synchronized (updateLock) {
+            update.accept(calendars);
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+        }
+    }
+
+    private ConcurrentNavigableMap<Long, CarCalendar> buildCalendars() {
+        Map<Long, CarCalendar.Builder> builders = new HashMap<>();
+        for (CarInventoryDto car : carRepository.findAllInventories()) {
+            builders.put(car.id(), new CarCalendar.Builder(car.inventory()));
+        }
+        try (Stream<RentalPeriodDto> periods = rentalRepository.streamAllRentalPeriods()) {
+            periods.forEach(period -> {
+                CarCalendar.Builder builder = builders.get(period.carId());
+                if (builder == null) {
+                    return;
+                }
+                if (period.actualReturnDate() == null) {
+                    builder.addOpenRental(period.id(),
+                            toDay(period.rentalDate()), toDay(period.returnDate()));
+                } else {
+                    builder.addFinishedRental(period.id(),
+                            toDay(period.rentalDate()), toDay(period.actualReturnDate()));
+                }
+            });
+        }
+        ConcurrentNavigableMap<Long, CarCalendar> built = new ConcurrentSkipListMap<>();
+        builders.forEach((carId, builder) -> built.put(carId, builder.build()));
+        return built;
+    }
+
+    private static int toDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
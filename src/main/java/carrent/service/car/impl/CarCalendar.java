@@ -0,0 +1,244 @@
+package carrent.service.car.impl;
+
+import java.util.Arrays;
+
+/**
+ * Immutable booking calendar of one car. Days are epoch days and every rental occupies one
+ * unit of the car over the half-open range {@code [start, end)}. Finished rentals are kept
+ * as two independently sorted arrays of start and end days, so the number of rentals
+ * overlapping a range or covering a day is found with binary searches. Open rentals are kept
+ * apart, because an overdue rental still occupies its car after its planned return day.
+ * Every rental is also known by its ID, so applying the same creation or return twice, as a
+ * rebuild replaying an update its snapshot already contains does, leaves the calendar as is.
+ */
+final class CarCalendar {
+    private static final int[] NONE = new int[0];
+    private static final long[] NO_IDS = new long[0];
+    private final int capacity;
+    private final int[] starts;
+    private final int[] ends;
+    private final long[] finishedIds;
+    private final int[] openStarts;
+    private final int[] openEnds;
+    private final long[] openIds;
+
+    private CarCalendar(int capacity, int[] starts, int[] ends, long[] finishedIds,
+            int[] openStarts, int[] openEnds, long[] openIds) {
+        this.capacity = capacity;
+        this.starts = starts;
+        this.ends = ends;
+        this.finishedIds = finishedIds;
+        this.openStarts = openStarts;
+        this.openEnds = openEnds;
+        this.openIds = openIds;
+    }
+
+    static CarCalendar empty(int inventory) {
+        return new CarCalendar(inventory, NONE, NONE, NO_IDS, NONE, NONE, NO_IDS);
+    }
+
+    /**
+     * The inventory counts the units not rented right now, so the units in open rentals
+     * are added back to get the size of the fleet.
+     */
+    CarCalendar withInventory(int inventory) {
+        return new CarCalendar(inventory + openStarts.length, starts, ends, finishedIds,
+                openStarts, openEnds, openIds);
+    }
+
+    CarCalendar withOpenRental(long rentalId, int start, int plannedEnd) {
+        if (indexOf(openIds, rentalId) >= 0
+                || Arrays.binarySearch(finishedIds, rentalId) >= 0) {
+            return this;
+        }
+        return new CarCalendar(capacity, starts, ends, finishedIds, append(openStarts, start),
+                append(openEnds, plannedEnd), append(openIds, rentalId));
+    }
+
+    CarCalendar withReturnedRental(long rentalId, int start, int actualEnd) {
+        int finishedIndex = Arrays.binarySearch(finishedIds, rentalId);
+        if (finishedIndex >= 0) {
+            return this;
+        }
+        int[] remainingStarts = openStarts;
+        int[] remainingEnds = openEnds;
+        long[] remainingIds = openIds;
+        int openIndex = indexOf(openIds, rentalId);
+        if (openIndex >= 0) {
+            remainingStarts = remove(openStarts, openIndex);
+            remainingEnds = remove(openEnds, openIndex);
+            remainingIds = remove(openIds, openIndex);
+        }
+        return new CarCalendar(capacity, insertSorted(starts, start),
+                insertSorted(ends, finishedEnd(start, actualEnd)),
+                insert(finishedIds, -finishedIndex - 1, rentalId),
+                remainingStarts, remainingEnds, remainingIds);
+    }
+
+    /**
+     * Checks that fewer rentals than the car has units overlap {@code [from, to)}. When they
+     * do not, the peak occupancy is computed from the days on which a rental starts inside
+     * the range, which is the only place the occupancy can grow.
+     */
+    boolean isAvailable(int from, int to, int today) {
+        int openUntil = today + 1;
+        int overlapping = countLessThan(starts, to) - countAtMost(ends, from);
+        for (int i = 0; i < openStarts.length; i++) {
+            if (openStarts[i] < to && openEnd(i, openUntil) > from) {
+                overlapping++;
+            }
+        }
+        if (overlapping < capacity) {
+            return true;
+        }
+        if (occupancy(from, openUntil) >= capacity) {
+            return false;
+        }
+        for (int i = countAtMost(starts, from); i < starts.length && starts[i] < to; i++) {
+            if (occupancy(starts[i], openUntil) >= capacity) {
+                return false;
+            }
+        }
+        for (int i = 0; i < openStarts.length; i++) {
+            if (openStarts[i] > from && openStarts[i] < to
+                    && occupancy(openStarts[i], openUntil) >= capacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int finishedEnd(int start, int actualEnd) {
+        return Math.max(actualEnd, start + 1);
+    }
+
+    private int occupancy(int day, int openUntil) {
+        int occupied = countAtMost(starts, day) - countAtMost(ends, day);
+        for (int i = 0; i < openStarts.length; i++) {
+            if (openStarts[i] <= day && openEnd(i, openUntil) > day) {
+                occupied++;
+            }
+        }
+        return occupied;
+    }
+
+    private int openEnd(int index, int openUntil) {
+        return Math.max(openEnds[index], openUntil);
+    }
+
+    private static int countLessThan(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int countAtMost(int[] sorted, int value) {
+        return value == Integer.MAX_VALUE ? sorted.length : countLessThan(sorted, value + 1);
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] appended = Arrays.copyOf(values, values.length + 1);
+        appended[values.length] = value;
+        return appended;
+    }
+
+    private static long[] append(long[] values, long value) {
+        long[] appended = Arrays.copyOf(values, values.length + 1);
+        appended[values.length] = value;
+        return appended;
+    }
+
+    private static int[] remove(int[] values, int index) {
+        int[] remaining = new int[values.length - 1];
+        System.arraycopy(values, 0, remaining, 0, index);
+        System.arraycopy(values, index + 1, remaining, index, remaining.length - index);
+        return remaining;
+    }
+
+    private static long[] remove(long[] values, int index) {
+        long[] remaining = new long[values.length - 1];
+        System.arraycopy(values, 0, remaining, 0, index);
+        System.arraycopy(values, index + 1, remaining, index, remaining.length - index);
+        return remaining;
+    }
+
+    private static long[] insert(long[] values, int index, long value) {
+        long[] inserted = new long[values.length + 1];
+        System.arraycopy(values, 0, inserted, 0, index);
+        inserted[index] = value;
+        System.arraycopy(values, index, inserted, index + 1, values.length - index);
+        return inserted;
+    }
+
+    private static int[] insertSorted(int[] sorted, int value) {
+        int index = countAtMost(sorted, value);
+        int[] inserted = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, inserted, 0, index);
+        inserted[index] = value;
+        System.arraycopy(sorted, index, inserted, index + 1, sorted.length - index);
+        return inserted;
+    }
+
+    /** Collects the rentals of one car while the index is rebuilt. */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 8;
+        private final int inventory;
+        private int[] starts = new int[INITIAL_CAPACITY];
+        private int[] ends = new int[INITIAL_CAPACITY];
+        private long[] finishedIds = new long[INITIAL_CAPACITY];
+        private int size;
+        private int[] openStarts = NONE;
+        private int[] openEnds = NONE;
+        private long[] openIds = NO_IDS;
+
+        Builder(int inventory) {
+            this.inventory = inventory;
+        }
+
+        void addFinishedRental(long rentalId, int start, int actualEnd) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                finishedIds = Arrays.copyOf(finishedIds, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = finishedEnd(start, actualEnd);
+            finishedIds[size] = rentalId;
+            size++;
+        }
+
+        void addOpenRental(long rentalId, int start, int plannedEnd) {
+            openStarts = append(openStarts, start);
+            openEnds = append(openEnds, plannedEnd);
+            openIds = append(openIds, rentalId);
+        }
+
+        CarCalendar build() {
+            int[] sortedStarts = Arrays.copyOf(starts, size);
+            int[] sortedEnds = Arrays.copyOf(ends, size);
+            long[] sortedIds = Arrays.copyOf(finishedIds, size);
+            Arrays.sort(sortedStarts);
+            Arrays.sort(sortedEnds);
+            Arrays.sort(sortedIds);
+            return new CarCalendar(inventory + openStarts.length, sortedStarts, sortedEnds,
+                    sortedIds, openStarts, openEnds, openIds);
+        }
+    }
+}
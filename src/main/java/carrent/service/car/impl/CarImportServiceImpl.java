@@ -0,0 +1,301 @@
+package carrent.service.car.impl;
+
+import carrent.config.CacheConfig;
+import carrent.dto.car.CarDto;
+import carrent.dto.car.CarImportErrorDto;
+import carrent.dto.car.CarImportResultDto;
+import carrent.dto.car.CreateCarRequestDto;
+import carrent.exception.InvalidImportFileException;
+import carrent.model.Car;
+import carrent.service.car.CarImportService;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import org.apache.commons.lang3.EnumUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports cars from a JSON array or a CSV file while the request body is read. Every row is
+ * validated once as it arrives, and the valid ones are inserted with JDBC batches in one
+ * transaction per chunk, since identity-generated IDs keep Hibernate from batching inserts.
+ * A chunk the database rejects is retried row by row, so a bad row only loses its own insert.
+ */
+@Service
+public class CarImportServiceImpl implements CarImportService {
+    private static final String INSERT_CAR = "INSERT INTO cars(model, brand, type, inventory, "
+            + "daily_fee) VALUES (?, ?, ?, ?, ?)";
+    private static final List<String> CSV_HEADER =
+            List.of("model", "brand", "type", "inventory", "daily_fee");
+    private static final char CSV_DELIMITER = ',';
+    private static final char CSV_QUOTE = '"';
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final CarSearchIndex carSearchIndex;
+    private final int batchSize;
+
+    public CarImportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            Validator validator,
+            CarAvailabilityIndex carAvailabilityIndex,
+            CarSearchIndex carSearchIndex,
+            @Value("${car-import.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.carAvailabilityIndex = carAvailabilityIndex;
+        this.carSearchIndex = carSearchIndex;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
+    public CarImportResultDto importCars(Format format, InputStream inputStream)
+            throws IOException {
+        CarImport carImport = new CarImport();
+        if (format == Format.CSV) {
+            readCsv(inputStream, carImport);
+        } else {
+            readJson(inputStream, carImport);
+        }
+        carImport.flush();
+        return carImport.toResult();
+    }
+
+    private void readJson(InputStream inputStream, CarImport carImport) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidImportFileException("The JSON import must be an array of cars");
+            }
+            long row = 1;
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY;
+                        token = parser.nextToken(), row++) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unexpected end of the array");
+                    }
+                    JsonNode car = objectMapper.readTree(parser);
+                    try {
+                        carImport.add(row,
+                                objectMapper.treeToValue(car, CreateCarRequestDto.class));
+                    } catch (JsonProcessingException e) {
+                        carImport.reject(row, e.getOriginalMessage());
+                    }
+                }
+            } catch (JsonParseException e) {
+                carImport.reject(row, "Malformed JSON, the rest of the file was skipped: "
+                        + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(InputStream inputStream, CarImport carImport) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new InvalidImportFileException("The CSV import is empty");
+        }
+        List<String> columns = parseCsvLine(header).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] positions = CSV_HEADER.stream().mapToInt(columns::indexOf).toArray();
+        if (Arrays.stream(positions).anyMatch(position -> position < 0)) {
+            throw new InvalidImportFileException(
+                    "The CSV header must contain the columns " + CSV_HEADER);
+        }
+        long row = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            List<String> values = parseCsvLine(line);
+            if (values.size() != columns.size()) {
+                carImport.reject(row, "Expected " + columns.size() + " values but found "
+                        + values.size());
+                continue;
+            }
+            try {
+                carImport.add(row, new CreateCarRequestDto(
+                        values.get(positions[0]),
+                        values.get(positions[1]),
+                        values.get(positions[2]).trim(),
+                        Integer.parseInt(values.get(positions[3]).trim()),
+                        new BigDecimal(values.get(positions[4]).trim())));
+            } catch (NumberFormatException e) {
+                carImport.reject(row, "inventory and daily_fee must be numbers");
+            }
+        }
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char character = line.charAt(i++);
+            if (quoted && character == CSV_QUOTE) {
+                if (i < line.length() && line.charAt(i) == CSV_QUOTE) {
+                    value.append(CSV_QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (quoted) {
+                value.append(character);
+            } else if (character == CSV_QUOTE) {
+                quoted = true;
+            } else if (character == CSV_DELIMITER) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(character);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private Optional<String> validate(CreateCarRequestDto car) {
+        List<String> violations = validator.validate(car).stream()
+                .map(this::getErrorMessage)
+                .sorted()
+                .toList();
+        if (!violations.isEmpty()) {
+            return Optional.of(String.join(", ", violations));
+        }
+        if (!EnumUtils.isValidEnum(Car.Type.class, car.type())) {
+            return Optional.of("Invalid car type, must be one of the following: "
+                    + Arrays.toString(Car.Type.values()));
+        }
+        return Optional.empty();
+    }
+
+    private String getErrorMessage(ConstraintViolation<CreateCarRequestDto> violation) {
+        return violation.getPropertyPath() + " " + violation.getMessage();
+    }
+
+    private long[] insertCars(List<ImportedCar> cars) {
+        return transactionTemplate.execute(status -> {
+            long[] ids = jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        INSERT_CAR, Statement.RETURN_GENERATED_KEYS)) {
+                    for (ImportedCar importedCar : cars) {
+                        CreateCarRequestDto car = importedCar.car();
+                        statement.setString(1, car.model());
+                        statement.setString(2, car.brand());
+                        statement.setString(3, car.type());
+                        statement.setInt(4, car.inventory());
+                        statement.setBigDecimal(5, car.dailyFee());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    long[] generatedIds = new long[cars.size()];
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (int i = 0; keys.next(); i++) {
+                            generatedIds[i] = keys.getLong(1);
+                        }
+                    }
+                    return generatedIds;
+                }
+            });
+            for (int i = 0; i < cars.size(); i++) {
+                CreateCarRequestDto car = cars.get(i).car();
+                carAvailabilityIndex.carSaved(ids[i], car.inventory());
+                carSearchIndex.carSaved(new CarDto(ids[i], car.model(), car.brand(),
+                        Car.Type.valueOf(car.type()), car.inventory(), car.dailyFee()));
+            }
+            return ids;
+        });
+    }
+
+    private record ImportedCar(long row, CreateCarRequestDto car) {
+    }
+
+    /** Rows waiting for the next batch and the outcome of one import so far. */
+    private class CarImport {
+        private final List<ImportedCar> pending = new ArrayList<>();
+        private final List<CarImportErrorDto> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        void add(long row, CreateCarRequestDto car) {
+            Optional<String> error = validate(car);
+            if (error.isPresent()) {
+                reject(row, error.get());
+                return;
+            }
+            pending.add(new ImportedCar(row, car));
+            if (pending.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CarImportErrorDto(row, message));
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                insertCars(pending);
+                imported += pending.size();
+            } catch (DataAccessException e) {
+                for (ImportedCar car : pending) {
+                    try {
+                        insertCars(List.of(car));
+                        imported++;
+                    } catch (DataAccessException rowException) {
+                        reject(car.row(), rowException.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            pending.clear();
+        }
+
+        CarImportResultDto toResult() {
+            errors.sort(Comparator.comparingLong(CarImportErrorDto::row));
+            return new CarImportResultDto(imported, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package carrent.service.car.impl;
+
+import static carrent.service.car.impl.TransactionHooks.afterCommit;
+
+import carrent.dto.car.CarDto;
+import carrent.dto.car.CarSearchResultDto;
+import carrent.dto.car.FacetCountDto;
+import carrent.exception.InvalidSearchFilterException;
+import carrent.model.Car;
+import carrent.repository.car.CarRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory inverted index over the brand and model of every car, with one bit set per term,
+ * car type and daily fee bucket, indexed by car ID. A search intersects the bit sets of its
+ * terms, the last one matched as a prefix, so matching, filtering and counting facets are
+ * word-wise bit operations and never reach the database. The index is loaded at startup and
+ * kept up to date by the car and rental services once their transactions commit. Cars written
+ * by other instances are picked up by the scheduled rebuild. Updates arriving while a rebuild
+ * reads the cars are recorded and replayed onto the new postings before they are swapped in.
+ */
+@Slf4j
+@Component
+public class CarSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final char LAST_CHARACTER = Character.MAX_VALUE;
+    private final CarRepository carRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final BigDecimal[] feeBounds;
+    private final List<String> feeBucketNames;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings;
+    private List<Consumer<Postings>> updatesDuringRebuild;
+
+    public CarSearchIndex(
+            CarRepository carRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${car-search.fee-buckets}") BigDecimal[] feeBounds) {
+        this.carRepository = carRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.feeBounds = feeBounds.clone();
+        Arrays.sort(this.feeBounds);
+        this.feeBucketNames = createFeeBucketNames(this.feeBounds);
+        this.postings = new Postings();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${car-search.rebuild-cron}")
+    public void rebuild() {
+        final long start = System.nanoTime();
+        write(() -> updatesDuringRebuild = new ArrayList<>());
+        List<CarDto> cars;
+        try {
+            cars = readOnlyTransaction.execute(status -> carRepository.findAllCarDtos());
+            Postings rebuilt = new Postings();
+            cars.forEach(rebuilt::add);
+            write(() -> {
+                updatesDuringRebuild.forEach(update -> update.accept(rebuilt));
+                postings = rebuilt;
+            });
+        } finally {
+            write(() -> updatesDuringRebuild = null);
+        }
+        log.info("Built search index of {} cars in {} ms", cars.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Finds cars whose brand or model contains every word of the query, the last one as a
+     * prefix, narrowed down to the given types and daily fee buckets. Type counts are taken
+     * before the type filter and fee counts before the fee filter, so every facet value shows
+     * how many cars selecting it would return.
+     */
+    public CarSearchResultDto search(String query, Collection<Car.Type> types,
+            Collection<String> dailyFees, long offset, int limit) {
+        List<String> tokens = tokenize(query);
+        lock.readLock().lock();
+        try {
+            BitSet matches = postings.match(tokens);
+            BitSet typeFilter = types.isEmpty() ? null : postings.typeFilter(types);
+            BitSet feeFilter = dailyFees.isEmpty() ? null : postings.feeFilter(dailyFees);
+            List<FacetCountDto> typeCounts = new ArrayList<>();
+            for (Car.Type type : Car.Type.values()) {
+                typeCounts.add(new FacetCountDto(type.name(), countIntersection(
+                        matches, feeFilter, postings.types.get(type))));
+            }
+            List<FacetCountDto> feeCounts = new ArrayList<>();
+            for (int i = 0; i < feeBucketNames.size(); i++) {
+                feeCounts.add(new FacetCountDto(feeBucketNames.get(i), countIntersection(
+                        matches, typeFilter, postings.feeBuckets[i])));
+            }
+            and(matches, typeFilter);
+            and(matches, feeFilter);
+            return new CarSearchResultDto(matches.cardinality(),
+                    postings.page(matches, offset, limit), typeCounts, feeCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns brand and model words starting with the prefix, most common first. */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> tokens = tokenize(prefix);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String last = tokens.get(tokens.size() - 1);
+        lock.readLock().lock();
+        try {
+            return postings.terms.subMap(last, true, last + LAST_CHARACTER, false)
+                    .entrySet().stream()
+                    .sorted(Comparator.comparingInt(
+                            (Map.Entry<String, BitSet> term) -> term.getValue().cardinality())
+                            .reversed()
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns the inventory of every indexed car by car ID. */
+    public Map<Long, Integer> inventories() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> inventories = new HashMap<>(postings.cars.size());
+            postings.cars.values().forEach(
+                    car -> inventories.put(car.getId(), car.getInventory()));
+            return inventories;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void carSaved(CarDto car) {
+        CarDto snapshot = copy(car, car.getInventory());
+        afterCommit(() -> update(current -> {
+            current.remove(snapshot.getId());
+            current.add(snapshot);
+        }));
+    }
+
+    public void carDeleted(Long carId) {
+        afterCommit(() -> update(current -> current.remove(carId)));
+    }
+
+    /**
+     * Applies the inventory read after a rental or return without touching the other fields.
+     * It is an absolute value, so replaying it onto a rebuilt index that already read it
+     * changes nothing.
+     */
+    public void inventoryChanged(Long carId, int inventory) {
+        afterCommit(() -> update(current -> current.setInventory(carId, inventory)));
+    }
+
+    private void update(Consumer<Postings> update) {
+        write(() -> {
+            update.accept(postings);
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+        });
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int feeBucket(BigDecimal dailyFee) {
+        int bucket = 0;
+        while (bucket < feeBounds.length && dailyFee.compareTo(feeBounds[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<String> createFeeBucketNames(BigDecimal[] bounds) {
+        List<String> names = new ArrayList<>();
+        String lower = "0";
+        for (BigDecimal bound : bounds) {
+            String upper = bound.stripTrailingZeros().toPlainString();
+            names.add(lower + "-" + upper);
+            lower = upper;
+        }
+        names.add(lower + "+");
+        return List.copyOf(names);
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static long countIntersection(BitSet matches, BitSet filter, BitSet facet) {
+        BitSet intersection = (BitSet) matches.clone();
+        and(intersection, filter);
+        intersection.and(facet);
+        return intersection.cardinality();
+    }
+
+    private static void and(BitSet target, BitSet filter) {
+        if (filter != null) {
+            target.and(filter);
+        }
+    }
+
+    private static int toDocument(Long carId) {
+        return Math.toIntExact(carId);
+    }
+
+    private static CarDto copy(CarDto car, int inventory) {
+        return new CarDto(car.getId(), car.getModel(), car.getBrand(), car.getType(),
+                inventory, car.getDailyFee());
+    }
+
+    /** Bit sets of one version of the index, guarded by the lock of the enclosing index. */
+    private class Postings {
+        private final Map<Integer, CarDto> cars = new HashMap<>();
+        private final NavigableMap<String, BitSet> terms = new TreeMap<>();
+        private final Map<Car.Type, BitSet> types = new EnumMap<>(Car.Type.class);
+        private final BitSet[] feeBuckets = new BitSet[feeBounds.length + 1];
+        private final BitSet all = new BitSet();
+
+        Postings() {
+            for (Car.Type type : Car.Type.values()) {
+                types.put(type, new BitSet());
+            }
+            Arrays.setAll(feeBuckets, bucket -> new BitSet());
+        }
+
+        void add(CarDto car) {
+            int document = toDocument(car.getId());
+            cars.put(document, car);
+            all.set(document);
+            for (String term : terms(car)) {
+                terms.computeIfAbsent(term, key -> new BitSet()).set(document);
+            }
+            types.get(car.getType()).set(document);
+            feeBuckets[feeBucket(car.getDailyFee())].set(document);
+        }
+
+        void remove(Long carId) {
+            int document = toDocument(carId);
+            CarDto car = cars.remove(document);
+            if (car == null) {
+                return;
+            }
+            all.clear(document);
+            for (String term : terms(car)) {
+                BitSet documents = terms.get(term);
+                documents.clear(document);
+                if (documents.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+            types.get(car.getType()).clear(document);
+            feeBuckets[feeBucket(car.getDailyFee())].clear(document);
+        }
+
+        void setInventory(Long carId, int inventory) {
+            cars.computeIfPresent(toDocument(carId), (document, car) -> copy(car, inventory));
+        }
+
+        BitSet match(List<String> tokens) {
+            BitSet matches = (BitSet) all.clone();
+            for (int i = 0; i < tokens.size() && !matches.isEmpty(); i++) {
+                String token = tokens.get(i);
+                if (i < tokens.size() - 1) {
+                    matches.and(terms.getOrDefault(token, new BitSet()));
+                } else {
+                    BitSet prefixMatches = new BitSet();
+                    terms.subMap(token, true, token + LAST_CHARACTER, false).values()
+                            .forEach(prefixMatches::or);
+                    matches.and(prefixMatches);
+                }
+            }
+            return matches;
+        }
+
+        BitSet typeFilter(Collection<Car.Type> selected) {
+            BitSet filter = new BitSet();
+            selected.forEach(type -> filter.or(types.get(type)));
+            return filter;
+        }
+
+        BitSet feeFilter(Collection<String> selected) {
+            BitSet filter = new BitSet();
+            for (String bucket : selected) {
+                int index = feeBucketNames.indexOf(bucket);
+                if (index < 0) {
+                    throw new InvalidSearchFilterException("Invalid daily fee range, must be "
+                            + "one of the following: " + feeBucketNames);
+                }
+                filter.or(feeBuckets[index]);
+            }
+            return filter;
+        }
+
+        List<CarDto> page(BitSet matches, long offset, int limit) {
+            List<CarDto> page = new ArrayList<>();
+            int document = matches.nextSetBit(0);
+            for (long skipped = 0; skipped < offset && document >= 0; skipped++) {
+                document = matches.nextSetBit(document + 1);
+            }
+            while (document >= 0 && page.size() < limit) {
+                CarDto car = cars.get(document);
+                page.add(copy(car, car.getInventory()));
+                document = matches.nextSetBit(document + 1);
+            }
+            return page;
+        }
+
+        private List<String> terms(CarDto car) {
+            List<String> carTerms = new ArrayList<>(tokenize(car.getBrand()));
+            carTerms.addAll(tokenize(car.getModel()));
+            return carTerms.stream().distinct().toList();
+        }
+    }
+}
@@ -1,36 +1,55 @@
 package carrent.service.car.impl;
 
+import carrent.config.CacheConfig;
 import carrent.dto.car.CarDto;
+import carrent.dto.car.CarSearchResultDto;
 import carrent.dto.car.CreateCarRequestDto;
+import carrent.exception.InvalidDateRangeException;
 import carrent.mapper.CarMapper;
 import carrent.model.Car;
 import carrent.repository.car.CarRepository;
 import carrent.service.car.CarService;
 import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.EnumUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class CarServiceImpl implements CarService {
+    private static final int MAX_SUGGESTIONS = 20;
     private final CarRepository carRepository;
     private final CarMapper carMapper;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final CarSearchIndex carSearchIndex;
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
     public CarDto save(CreateCarRequestDto car) {
         if (!EnumUtils.isValidEnum(Car.Type.class, car.type())) {
             throw new EntityNotFoundException("Invalid car type, must be one of the following: "
                     + Arrays.toString(Car.Type.values()));
         }
-        Car modelCar = carMapper.toModelFromCreate(car);
-        return carMapper.toDtoFromModel(carRepository.save(modelCar));
+        Car savedCar = carRepository.save(carMapper.toModelFromCreate(car));
+        carAvailabilityIndex.carSaved(savedCar.getId(), savedCar.getInventory());
+        CarDto carDto = carMapper.toDtoFromModel(savedCar);
+        carSearchIndex.carSaved(carDto);
+        return carDto;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CAR_PAGES_CACHE, key = "#pageable")
     public List<CarDto> findAll(Pageable pageable) {
         return carRepository.findAll(pageable).stream()
                 .map(carMapper::toDtoFromModel)
@@ -38,6 +57,7 @@ public class CarServiceImpl implements CarService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CARS_CACHE, key = "#id")
     public CarDto findById(Long id) {
         return carMapper.toDtoFromModel(
                 carRepository.findById(id).orElseThrow(
@@ -45,14 +65,56 @@ public class CarServiceImpl implements CarService {
     }
 
     @Override
+    public List<CarDto> findAvailable(LocalDate from, LocalDate to, Pageable pageable) {
+        if (to.isBefore(from)) {
+            throw new InvalidDateRangeException("The end date can't be before the start date");
+        }
+        List<Long> carIds = carAvailabilityIndex.findAvailableCarIds(
+                from, to, pageable.getOffset(), pageable.getPageSize());
+        Map<Long, Car> cars = carRepository.findAllById(carIds).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+        return carIds.stream()
+                .map(cars::get)
+                .filter(Objects::nonNull)
+                .map(carMapper::toDtoFromModel)
+                .toList();
+    }
+
+    @Override
+    public CarSearchResultDto search(String query, List<Car.Type> types, List<String> dailyFees,
+            Pageable pageable) {
+        return carSearchIndex.search(query, types, dailyFees,
+                pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        return carSearchIndex.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CARS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
+    })
     public CarDto updateById(Long id, CreateCarRequestDto car) {
         Car modelCar = carMapper.toModelFromCreate(car);
         modelCar.setId(id);
-        return carMapper.toDtoFromModel(carRepository.save(modelCar));
+        Car savedCar = carRepository.save(modelCar);
+        carAvailabilityIndex.carSaved(id, savedCar.getInventory());
+        CarDto carDto = carMapper.toDtoFromModel(savedCar);
+        carSearchIndex.carSaved(carDto);
+        return carDto;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CARS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
+    })
     public void deleteById(Long id) {
         carRepository.deleteById(id);
+        carAvailabilityIndex.carDeleted(id);
+        carSearchIndex.carDeleted(id);
     }
 }
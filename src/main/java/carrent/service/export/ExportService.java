@@ -0,0 +1,22 @@
+package carrent.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+public interface ExportService {
+    void exportRentals(Format format, OutputStream outputStream) throws IOException;
+
+    void exportPayments(Format format, OutputStream outputStream) throws IOException;
+
+    @Getter
+    @RequiredArgsConstructor
+    enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+    }
+}
@@ -0,0 +1,111 @@
+package carrent.service.export.impl;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.BasicRentalDto;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.service.export.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes every rental or payment to the given stream while the rows are read from the
+ * database. Rows are projected straight into DTOs and streamed by the driver, so neither
+ * the persistence context nor the heap grows with the number of exported rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+    private static final char LINE_SEPARATOR = '\n';
+    private static final char CSV_DELIMITER = ',';
+    private static final char CSV_QUOTE = '"';
+    private static final List<String> RENTAL_CSV_HEADER = List.of("id", "rental_date",
+            "return_date", "actual_return_date", "car_id", "user_id");
+    private static final List<String> PAYMENT_CSV_HEADER = List.of("id", "status", "type",
+            "rental_id", "amount_to_pay", "session_url", "session_id", "created_at");
+    private final RentalRepository rentalRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRentals(Format format, OutputStream outputStream) throws IOException {
+        try (Stream<BasicRentalDto> rentals = rentalRepository.streamAllBasicRentals()) {
+            export(format, rentals.iterator(), RENTAL_CSV_HEADER, rental -> Arrays.asList(
+                    rental.id(), rental.rentalDate(), rental.returnDate(),
+                    rental.actualReturnDate(), rental.carId(), rental.userId()), outputStream);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportPayments(Format format, OutputStream outputStream) throws IOException {
+        try (Stream<PaymentDto> payments = paymentRepository.streamAllPaymentDtos()) {
+            export(format, payments.iterator(), PAYMENT_CSV_HEADER, payment -> Arrays.asList(
+                    payment.getId(), payment.getStatus(), payment.getType(),
+                    payment.getRentalId(), payment.getAmountToPay(), payment.getSessionUrl(),
+                    payment.getSessionId(), payment.getCreatedAt()), outputStream);
+        }
+    }
+
+    private <T> void export(Format format, Iterator<T> rows, List<String> csvHeader,
+            Function<T, List<?>> csvValues, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvRow(writer, csvHeader);
+            while (rows.hasNext()) {
+                writeCsvRow(writer, csvValues.apply(rows.next()));
+            }
+        } else {
+            ObjectWriter rowWriter = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            while (rows.hasNext()) {
+                rowWriter.writeValue(writer, rows.next());
+                writer.write(LINE_SEPARATOR);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(CSV_DELIMITER);
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private String escapeCsv(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == CSV_DELIMITER || character == CSV_QUOTE
+                    || character == '\n' || character == '\r') {
+                return CSV_QUOTE + value.replace("\"", "\"\"") + CSV_QUOTE;
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,56 @@
+package carrent.service.metrics;
+
+import carrent.model.Payment;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.service.car.impl.CarSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the number of active rentals, the number of pending payments and the inventory of
+ * every car. The values are refreshed on a schedule instead of on every scrape, so scraping
+ * never queries the database, and car inventories are read from the in-memory search index.
+ */
+@Component
+public class BusinessGauges {
+    private static final String ACTIVE_RENTALS_METRIC = "rentals.active";
+    private static final String PENDING_PAYMENTS_METRIC = "payments.pending";
+    private static final String CAR_INVENTORY_METRIC = "cars.inventory";
+    private static final String CAR_TAG = "car_id";
+    private final RentalRepository rentalRepository;
+    private final PaymentRepository paymentRepository;
+    private final CarSearchIndex carSearchIndex;
+    private final AtomicLong activeRentals = new AtomicLong();
+    private final AtomicLong pendingPayments = new AtomicLong();
+    private final MultiGauge carInventories;
+
+    public BusinessGauges(
+            RentalRepository rentalRepository,
+            PaymentRepository paymentRepository,
+            CarSearchIndex carSearchIndex,
+            MeterRegistry meterRegistry) {
+        this.rentalRepository = rentalRepository;
+        this.paymentRepository = paymentRepository;
+        this.carSearchIndex = carSearchIndex;
+        meterRegistry.gauge(ACTIVE_RENTALS_METRIC, activeRentals);
+        meterRegistry.gauge(PENDING_PAYMENTS_METRIC, pendingPayments);
+        this.carInventories = MultiGauge.builder(CAR_INVENTORY_METRIC)
+                .description("Units of a car available for rent")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.gauges.refresh-interval-ms}")
+    public void refresh() {
+        activeRentals.set(rentalRepository.countByActualReturnDateIsNull());
+        pendingPayments.set(paymentRepository.countByStatus(Payment.Status.PENDING));
+        carInventories.register(carSearchIndex.inventories().entrySet().stream()
+                .<MultiGauge.Row<?>>map(car -> MultiGauge.Row.of(
+                        Tags.of(CAR_TAG, car.getKey().toString()), car.getValue()))
+                .toList(), true);
+    }
+}
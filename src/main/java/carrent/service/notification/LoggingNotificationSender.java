@@ -0,0 +1,35 @@
+package carrent.service.notification;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Offline stand-in for the Telegram bot. It only logs the messages, optionally after
+ * a simulated delivery latency, so the notification pipeline can be load-tested locally.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "notification.sender", havingValue = "log")
+public class LoggingNotificationSender implements NotificationSender {
+    private final Duration latency;
+
+    public LoggingNotificationSender(
+            @Value("${notification.log.latency:0ms}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public void send(String text) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Notification sent:{}{}", System.lineSeparator(), text);
+    }
+}
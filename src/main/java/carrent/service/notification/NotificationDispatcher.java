@@ -0,0 +1,233 @@
+package carrent.service.notification;
+
+import carrent.exception.NotificationDeliveryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers notifications off the request thread. Messages are buffered in a bounded queue,
+ * messages arriving within the coalesce window are joined into a single message, and failed
+ * deliveries are retried with exponential backoff. When the buffer is full new messages are
+ * dropped instead of blocking the caller, and counted in {@code notifications.dropped}.
+ * Every message gets a future that completes once it has been delivered, or completes
+ * exceptionally once it has been dropped or its retries have run out, so callers that must
+ * not lose a message can retry it themselves. Every attempt is traced in its own client span.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+    static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final String MESSAGE_SEPARATOR = System.lineSeparator() + "---"
+            + System.lineSeparator();
+    private static final long QUEUE_POLL_TIMEOUT_MILLIS = 500;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final String QUEUE_METRIC = "notifications.queue.size";
+    private static final String DROPPED_METRIC = "notifications.dropped";
+    private static final String SEND_METRIC = "notifications.send";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String SEND_SPAN = "notification send";
+    private static final String ATTEMPT_TAG = "attempt";
+    private final NotificationSender notificationSender;
+    private final BlockingQueue<Notification> queue;
+    private final int workers;
+    private final Duration coalesceWindow;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter droppedCounter;
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final Tracer tracer;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public NotificationDispatcher(
+            NotificationSender notificationSender,
+            @Value("${notification.queue-capacity}") int queueCapacity,
+            @Value("${notification.workers}") int workers,
+            @Value("${notification.coalesce-window}") Duration coalesceWindow,
+            @Value("${notification.retry.max-attempts}") int maxAttempts,
+            @Value("${notification.retry.initial-backoff}") Duration initialBackoff,
+            @Value("${notification.retry.max-backoff}") Duration maxBackoff,
+            MeterRegistry meterRegistry,
+            Tracer tracer) {
+        this.notificationSender = notificationSender;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.coalesceWindow = coalesceWindow;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        Gauge.builder(QUEUE_METRIC, queue, BlockingQueue::size)
+                .description("Notifications waiting to be sent")
+                .register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter(DROPPED_METRIC);
+        this.sentTimer = createSendTimer(meterRegistry, "success");
+        this.failedTimer = createSendTimer(meterRegistry, "error");
+        this.tracer = tracer;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::processQueue);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        Notification abandoned;
+        while ((abandoned = queue.poll()) != null) {
+            abandoned.fail("Notification dispatcher stopped before sending the notification");
+        }
+    }
+
+    public CompletableFuture<Void> dispatch(String text) {
+        Notification notification = new Notification(text, new CompletableFuture<>());
+        if (!queue.offer(notification)) {
+            droppedCounter.increment();
+            log.warn("Notification queue is full, dropping notification");
+            notification.fail("Notification queue is full");
+        }
+        return notification.delivery();
+    }
+
+    private void processQueue() {
+        try {
+            while (running || !queue.isEmpty()) {
+                Notification first =
+                        queue.poll(QUEUE_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    coalesceAndDeliver(first);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void coalesceAndDeliver(Notification first) throws InterruptedException {
+        List<Notification> batch = new ArrayList<>(List.of(first));
+        StringBuilder text = new StringBuilder(first.text());
+        long deadline = System.nanoTime() + coalesceWindow.toNanos();
+        long remaining = coalesceWindow.toNanos();
+        try {
+            while (remaining > 0) {
+                Notification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                if (text.length() + MESSAGE_SEPARATOR.length() + next.text().length()
+                        > MAX_MESSAGE_LENGTH) {
+                    deliver(text.toString(), batch);
+                    batch = new ArrayList<>();
+                    text.setLength(0);
+                    text.append(next.text());
+                } else {
+                    text.append(MESSAGE_SEPARATOR).append(next.text());
+                }
+                batch.add(next);
+                remaining = deadline - System.nanoTime();
+            }
+            deliver(text.toString(), batch);
+        } catch (InterruptedException e) {
+            batch.forEach(notification -> notification.fail(
+                    "Interrupted before sending the notification"));
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the text in chunks that fit into a single Telegram message. Every chunk is
+     * retried on its own, so a failing chunk never resends the ones before it, and the
+     * remaining chunks are skipped once a chunk has run out of retries.
+     */
+    private void deliver(String text, List<Notification> batch) throws InterruptedException {
+        for (int start = 0; start < text.length(); start += MAX_MESSAGE_LENGTH) {
+            if (!sendWithRetry(text.substring(start,
+                    Math.min(text.length(), start + MAX_MESSAGE_LENGTH)))) {
+                batch.forEach(notification -> notification.fail(
+                        "Gave up on the notification after " + maxAttempts + " attempts"));
+                return;
+            }
+        }
+        batch.forEach(notification -> notification.delivery().complete(null));
+    }
+
+    private boolean sendWithRetry(String text) throws InterruptedException {
+        long backoffMillis = initialBackoff.toMillis();
+        for (int attempt = 1; ; attempt++) {
+            RuntimeException failure = attemptSend(text, attempt);
+            if (failure == null) {
+                return true;
+            }
+            if (attempt >= maxAttempts) {
+                log.error("Giving up on notification after {} attempts", attempt, failure);
+                return false;
+            }
+            log.warn("Notification attempt {} failed, retrying in {} ms: {}",
+                    attempt, backoffMillis, failure.getMessage());
+            Thread.sleep(backoffMillis);
+            backoffMillis = Math.min(backoffMillis * 2, maxBackoff.toMillis());
+        }
+    }
+
+    /**
+     * Returns the exception the attempt failed with, or {@code null} when it succeeded.
+     */
+    private RuntimeException attemptSend(String text, int attempt) {
+        long start = System.nanoTime();
+        Span span = tracer.spanBuilder().kind(Span.Kind.CLIENT).name(SEND_SPAN)
+                .tag(ATTEMPT_TAG, String.valueOf(attempt)).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            notificationSender.send(text);
+            sentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        } catch (RuntimeException e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            span.error(e);
+            return e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static Timer createSendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(SEND_METRIC)
+                .description("Duration of a single attempt to send a notification")
+                .tag(OUTCOME_TAG, outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record Notification(String text, CompletableFuture<Void> delivery) {
+        void fail(String reason) {
+            delivery.completeExceptionally(new NotificationDeliveryException(reason));
+        }
+    }
+}
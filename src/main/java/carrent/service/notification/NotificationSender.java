@@ -0,0 +1,5 @@
+package carrent.service.notification;
+
+public interface NotificationSender {
+    void send(String text);
+}
@@ -2,11 +2,12 @@ package carrent.service.notification;
 
 import carrent.dto.payment.PaymentDto;
 import carrent.dto.rental.RentalDto;
+import java.util.concurrent.CompletableFuture;
 
 public interface NotificationService {
-    void sendRentalCreationNotification(RentalDto rental);
+    CompletableFuture<Void> sendRentalCreationNotification(RentalDto rental);
 
     void sendOverdueRentalsNotification();
 
-    void sendSuccessfulPaymentNotification(PaymentDto payment);
+    CompletableFuture<Void> sendSuccessfulPaymentNotification(PaymentDto payment);
 }
@@ -0,0 +1,118 @@
+package carrent.service.notification;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.OverdueRentalDto;
+import carrent.dto.rental.RentalDto;
+import carrent.repository.rental.RentalRepository;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Formats notifications and queues them on the {@link NotificationDispatcher}. Rental and
+ * payment notifications are relayed from the transactional outbox, so their delivery future
+ * is handed back to the relay, which keeps an event pending until its message was sent.
+ */
+@Service
+@RequiredArgsConstructor
+public class QueuedNotificationService implements NotificationService {
+    private static final String RENTAL_INFO_TEMPLATE = """
+            %n
+            Rental ID: %d
+            Car ID: %d
+            Rental Date: %s
+            Return Date: %s
+            User ID: %d
+            """;
+    private static final String OVERDUE_RENTAL_INFO_TEMPLATE = """
+            %n
+            Rental ID: %d
+            User ID: %d
+            Car ID: %d
+            Return Date: %s
+            """;
+    private static final String PAYMENT_INFO_TEMPLATE = """
+            %n
+            Payment ID: %d
+            Payment Status: %s
+            Payment Type: %s
+            Rental ID: %d
+            Amount Paid: %s
+            """;
+    private final RentalRepository rentalRepository;
+    private final NotificationDispatcher notificationDispatcher;
+
+    @Override
+    public CompletableFuture<Void> sendRentalCreationNotification(RentalDto rental) {
+        String rentalInfo = String.format(RENTAL_INFO_TEMPLATE,
+                rental.id(),
+                rental.carInfo().getId(),
+                rental.rentalDate(),
+                rental.returnDate(),
+                rental.userId());
+        return notificationDispatcher.dispatch("New rental has been created:" + rentalInfo);
+    }
+
+    @Override
+    @Scheduled(cron = "0 30 6 * * ?")
+    @Transactional(readOnly = true)
+    public void sendOverdueRentalsNotification() {
+        LocalDate today = LocalDate.now();
+        int sentChunks;
+        try (Stream<OverdueRentalDto> overdueRentals =
+                     rentalRepository.streamOverdueRentals(today)) {
+            sentChunks = sendOverdueRentalsDigest(today, overdueRentals.iterator());
+        }
+        if (sentChunks == 0) {
+            notificationDispatcher.dispatch(today + " - no rentals overdue!");
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> sendSuccessfulPaymentNotification(PaymentDto payment) {
+        String paymentInfo = String.format(PAYMENT_INFO_TEMPLATE,
+                payment.getId(),
+                payment.getStatus(),
+                payment.getType(),
+                payment.getRentalId(),
+                payment.getAmountToPay());
+        return notificationDispatcher.dispatch("Payment has been paid:" + paymentInfo);
+    }
+
+    /**
+     * Builds the digest while the rows are streamed and dispatches it in chunks that fit
+     * into a single Telegram message, so the whole list is never held in memory.
+     */
+    int sendOverdueRentalsDigest(
+            LocalDate date, Iterator<OverdueRentalDto> overdueRentals) {
+        String header = date + " - Rentals Overdue:" + System.lineSeparator();
+        StringBuilder chunk = new StringBuilder(header);
+        int sentChunks = 0;
+        while (overdueRentals.hasNext()) {
+            OverdueRentalDto rental = overdueRentals.next();
+            String rentalInfo = String.format(OVERDUE_RENTAL_INFO_TEMPLATE,
+                    rental.id(),
+                    rental.userId(),
+                    rental.carId(),
+                    rental.returnDate());
+            if (chunk.length() + rentalInfo.length() > NotificationDispatcher.MAX_MESSAGE_LENGTH
+                    && chunk.length() > header.length()) {
+                notificationDispatcher.dispatch(chunk.toString());
+                sentChunks++;
+                chunk.setLength(0);
+                chunk.append(header);
+            }
+            chunk.append(rentalInfo);
+        }
+        if (chunk.length() > header.length()) {
+            notificationDispatcher.dispatch(chunk.toString());
+            sentChunks++;
+        }
+        return sentChunks;
+    }
+}
@@ -1,20 +1,33 @@
 package carrent.service.notification;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.generics.BotSession;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
 @Service
+@ConditionalOnProperty(name = "notification.sender", havingValue = "telegram",
+        matchIfMissing = true)
 @RequiredArgsConstructor
 public class TelegramBotRegistration {
-    private final TelegramNotificationService notificationService;
+    private final TelegramNotificationSender notificationSender;
+    private BotSession botSession;
 
     @PostConstruct
     public void initializeBot() throws TelegramApiException {
         TelegramBotsApi botsApi = new TelegramBotsApi(DefaultBotSession.class);
-        botsApi.registerBot(notificationService);
+        botSession = botsApi.registerBot(notificationSender);
+    }
+
+    @PreDestroy
+    public void stopBot() {
+        if (botSession != null && botSession.isRunning()) {
+            botSession.stop();
+        }
     }
 }
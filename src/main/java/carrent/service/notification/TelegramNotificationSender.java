@@ -0,0 +1,64 @@
+package carrent.service.notification;
+
+import carrent.exception.TelegramExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+@Service
+@ConditionalOnProperty(name = "notification.sender", havingValue = "telegram",
+        matchIfMissing = true)
+public class TelegramNotificationSender extends TelegramLongPollingBot
+        implements NotificationSender {
+    private static final Long CHAT_ID = -1002118105811L;
+    private static final String BOT_USERNAME = "rent_car_notification_bot";
+    private static final String BOT_NO_RESPONSE_MESSAGE = "Hey! This Bot doesn't respond "
+            + "to incoming messages! - it serves to send notifications!";
+    private final String botToken;
+
+    public TelegramNotificationSender(
+            @Value("${TELEGRAM_BOT_TOKEN}") String botToken,
+            @Value("${telegram.api-base}") String apiBase) {
+        super(createBotOptions(apiBase));
+        this.botToken = botToken;
+    }
+
+    @Override
+    public String getBotUsername() {
+        return BOT_USERNAME;
+    }
+
+    @Override
+    public String getBotToken() {
+        return botToken;
+    }
+
+    @Override
+    public void onUpdateReceived(Update update) {
+        send(BOT_NO_RESPONSE_MESSAGE);
+    }
+
+    @Override
+    public void send(String text) {
+        SendMessage message = SendMessage.builder()
+                .chatId(CHAT_ID.toString())
+                .text(text).build();
+        try {
+            execute(message);
+        } catch (TelegramApiException e) {
+            throw new TelegramExecutionException(
+                    "Failed to send Telegram notification: " + e.getMessage());
+        }
+    }
+
+    private static DefaultBotOptions createBotOptions(String apiBase) {
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(apiBase);
+        return options;
+    }
+}
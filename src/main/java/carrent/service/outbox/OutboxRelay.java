@@ -0,0 +1,230 @@
+package carrent.service.outbox;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.RentalDto;
+import carrent.exception.OutboxEventException;
+import carrent.model.OutboxEvent;
+import carrent.repository.outbox.OutboxEventRepository;
+import carrent.service.notification.NotificationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains {@code outbox_events} in batches and emits them through the
+ * {@link NotificationService}. A batch is locked with {@code FOR UPDATE SKIP LOCKED} and
+ * claimed for {@code outbox.lease} in a short transaction, so several application nodes can
+ * poll the table at once and no connection or row lock is held while the notifications are
+ * being delivered. The outcome is recorded in a second transaction: delivered events are
+ * marked as processed, failed ones get another attempt after an exponential backoff until
+ * {@code outbox.max-attempts} is reached. Events of a node that stopped mid-batch are picked
+ * up again once their lease has expired.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private static final String RELAYED_METRIC = "outbox.events.relayed";
+    private static final String FAILED_METRIC = "outbox.events.failed";
+    private static final String ABANDONED_METRIC = "outbox.events.abandoned";
+    private static final String LAG_METRIC = "outbox.events.lag";
+    private static final String TYPE_TAG = "type";
+    private static final int MAX_BACKOFF_EXPONENT = 20;
+    private static final String CLAIM_TRANSACTION = "OutboxRelay.claimBatch";
+    private static final String OUTCOME_TRANSACTION = "OutboxRelay.recordOutcome";
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate claimTransaction;
+    private final TransactionTemplate outcomeTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer lagTimer;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            NotificationService notificationService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.batch-size}") int batchSize,
+            @Value("${outbox.max-attempts}") int maxAttempts,
+            @Value("${outbox.lease}") Duration lease,
+            @Value("${outbox.retry.initial-backoff}") Duration initialBackoff,
+            @Value("${outbox.retry.max-backoff}") Duration maxBackoff,
+            @Value("${outbox.retention}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setName(CLAIM_TRANSACTION);
+        this.outcomeTransaction = new TransactionTemplate(transactionManager);
+        this.outcomeTransaction.setName(OUTCOME_TRANSACTION);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lagTimer = Timer.builder(LAG_METRIC)
+                .description("Time between writing an outbox event and relaying it")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+    }
+
+    /**
+     * Relays due events batch by batch. Another batch is only claimed when the previous one
+     * was full and at least one of its events was delivered, so an outage ends the poll
+     * instead of burning through the attempts of the same events.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms}",
+            initialDelayString = "${outbox.poll-interval-ms}")
+    public void relayPendingEvents() {
+        List<OutboxEvent> claimed;
+        int relayed;
+        do {
+            claimed = claimTransaction.execute(status -> claimBatch());
+            relayed = claimed.isEmpty() ? 0 : relay(claimed);
+        } while (claimed.size() == batchSize && relayed > 0);
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron}")
+    public void deleteProcessedEvents() {
+        LocalDateTime processedBefore = LocalDateTime.now().minus(retention);
+        transactionTemplate.executeWithoutResult(
+                status -> outboxEventRepository.deleteProcessedBefore(processedBefore));
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockPendingBatch(
+                maxAttempts, now, batchSize);
+        events.forEach(event -> event.setNextAttemptAt(now.plus(lease)));
+        return events;
+    }
+
+    private int relay(List<OutboxEvent> events) {
+        Map<OutboxEvent, CompletableFuture<Void>> deliveries = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            deliveries.put(event, emitSafely(event));
+        }
+        long deadline = System.nanoTime() + lease.toNanos();
+        List<Long> delivered = new ArrayList<>();
+        Map<OutboxEvent, Throwable> failed = new LinkedHashMap<>();
+        deliveries.forEach((event, delivery) -> {
+            Throwable failure = await(delivery, deadline);
+            if (failure == null) {
+                delivered.add(event.getId());
+            } else {
+                failed.put(event, failure);
+            }
+        });
+        LocalDateTime now = LocalDateTime.now();
+        outcomeTransaction.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.markProcessed(delivered, now);
+            }
+            failed.keySet().forEach(event -> outboxEventRepository.recordFailedAttempt(
+                    event.getId(), now.plus(backoff(event.getAttempts()))));
+        });
+        deliveries.keySet().stream()
+                .filter(event -> !failed.containsKey(event))
+                .forEach(event -> recordRelayed(event, now));
+        failed.forEach(this::recordFailure);
+        return delivered.size();
+    }
+
+    private CompletableFuture<Void> emitSafely(OutboxEvent event) {
+        try {
+            return emit(event);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Waits for the delivery until the lease of the batch runs out and returns the failure,
+     * or {@code null} when the notification was delivered.
+     */
+    private Throwable await(CompletableFuture<Void> delivery, long deadline) {
+        try {
+            delivery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private Duration backoff(int previousAttempts) {
+        Duration backoff = initialBackoff.multipliedBy(
+                1L << Math.min(previousAttempts, MAX_BACKOFF_EXPONENT));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void recordRelayed(OutboxEvent event, LocalDateTime now) {
+        meterRegistry.counter(RELAYED_METRIC, TYPE_TAG, event.getType().name()).increment();
+        lagTimer.record(Duration.between(event.getCreatedAt(), now));
+    }
+
+    private void recordFailure(OutboxEvent event, Throwable failure) {
+        int attempts = event.getAttempts() + 1;
+        meterRegistry.counter(FAILED_METRIC, TYPE_TAG, event.getType().name()).increment();
+        if (attempts >= maxAttempts) {
+            meterRegistry.counter(ABANDONED_METRIC, TYPE_TAG, event.getType().name())
+                    .increment();
+            log.error("Giving up on outbox event {} after {} attempts",
+                    event.getId(), attempts, failure);
+        } else {
+            log.warn("Failed to relay outbox event {} (attempt {}), retrying after {}",
+                    event.getId(), attempts, backoff(event.getAttempts()), failure);
+        }
+    }
+
+    private CompletableFuture<Void> emit(OutboxEvent event) {
+        return switch (event.getType()) {
+            case RENTAL_CREATED -> notificationService.sendRentalCreationNotification(
+                    readPayload(event, RentalDto.class));
+            case PAYMENT_SUCCEEDED -> notificationService.sendSuccessfulPaymentNotification(
+                    readPayload(event, PaymentDto.class));
+            default -> throw new OutboxEventException(
+                    "Unsupported outbox event type: " + event.getType(), null);
+        };
+    }
+
+    private <T> T readPayload(OutboxEvent event, Class<T> payloadType) {
+        try {
+            return objectMapper.readValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new OutboxEventException(
+                    "Can't deserialize payload of outbox event " + event.getId(), e);
+        }
+    }
+}
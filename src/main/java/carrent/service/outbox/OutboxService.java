@@ -0,0 +1,10 @@
+package carrent.service.outbox;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.RentalDto;
+
+public interface OutboxService {
+    void publishRentalCreated(RentalDto rental);
+
+    void publishPaymentSucceeded(PaymentDto payment);
+}
@@ -0,0 +1,47 @@
+package carrent.service.outbox.impl;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.RentalDto;
+import carrent.exception.OutboxEventException;
+import carrent.model.OutboxEvent;
+import carrent.repository.outbox.OutboxEventRepository;
+import carrent.service.outbox.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishRentalCreated(RentalDto rental) {
+        saveEvent(OutboxEvent.Type.RENTAL_CREATED, rental);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishPaymentSucceeded(PaymentDto payment) {
+        saveEvent(OutboxEvent.Type.PAYMENT_SUCCEEDED, payment);
+    }
+
+    private void saveEvent(OutboxEvent.Type type, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setCreatedAt(LocalDateTime.now());
+        event.setNextAttemptAt(event.getCreatedAt());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new OutboxEventException("Can't serialize " + type + " outbox event", e);
+        }
+        outboxEventRepository.save(event);
+    }
+}
@@ -2,17 +2,19 @@ package carrent.service.payment;
 
 import carrent.dto.payment.CreatePaymentRequestDto;
 import carrent.dto.payment.PaymentDto;
+import carrent.dto.payment.PaymentFilterDto;
 import carrent.dto.payment.PaymentPausedDto;
 import carrent.model.Payment;
 import carrent.model.User;
 import java.util.List;
 
 public interface PaymentService {
-    PaymentDto createPaymentSession(String stripeApiKey, CreatePaymentRequestDto requestDto);
+    PaymentDto createPaymentSession(CreatePaymentRequestDto requestDto);
 
-    List<PaymentDto> getAllPaymentsByUserId(User user, Long userId);
+    List<PaymentDto> getAllPaymentsByUserId(
+            User user, PaymentFilterDto filter, Long cursor, int limit);
 
     PaymentPausedDto getCancelPaymentPausedMessage(Long rentalId);
 
-    PaymentDto checkSuccessfulPayment(String stripeApiKey, Long rentalId, Payment.Type type);
+    PaymentDto checkSuccessfulPayment(Long rentalId, Payment.Type type);
 }
@@ -0,0 +1,209 @@
+package carrent.service.payment;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.mapper.PaymentMapper;
+import carrent.model.Payment;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.payment.PaymentSessionClaimRepository;
+import carrent.service.outbox.OutboxService;
+import carrent.service.payment.impl.RateLimiter;
+import com.stripe.StripeClient;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Settles payments whose webhook never arrived. Pages through {@code PENDING} payments by
+ * ID, asks Stripe for the status of their checkout sessions with a bounded number of
+ * parallel, rate limited calls, and flips each page to {@code PAID} or {@code EXPIRED} with
+ * one update per status. Stripe call latency is recorded by {@code stripe.client.requests}.
+ * The workers are virtual threads when {@code spring.threads.virtual.enabled} is set; the
+ * pool size still bounds the number of calls in flight. Every sweep also releases payment
+ * session claims older than {@code payment.session-claim-timeout} for which no pending or
+ * paid payment exists, so a node stopping during a Stripe call does not block the rental's
+ * payment, even when the claim was made to replace an expired payment.
+ */
+@Slf4j
+@Component
+public class PendingPaymentReconciler {
+    private static final String STRIPE_PAYMENT_STATUS_PAID = "paid";
+    private static final String STRIPE_SESSION_STATUS_EXPIRED = "expired";
+    private static final String BACKLOG_METRIC = "payments.reconciler.backlog";
+    private static final String SWEEP_METRIC = "payments.reconciler.sweep";
+    private static final String SETTLED_METRIC = "payments.reconciler.settled";
+    private static final String FAILED_METRIC = "payments.reconciler.failed";
+    private static final String STATUS_TAG = "status";
+    private static final long FIRST_PAGE_CURSOR = 0L;
+    private static final String WORKER_NAME_PREFIX = "payment-reconciler-";
+    private static final List<Payment.Status> LIVE_PAYMENT_STATUSES =
+            List.of(Payment.Status.PENDING, Payment.Status.PAID);
+    private final PaymentRepository paymentRepository;
+    private final PaymentSessionClaimRepository paymentSessionClaimRepository;
+    private final PaymentMapper paymentMapper;
+    private final OutboxService outboxService;
+    private final StripeClient stripeClient;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final RateLimiter rateLimiter;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Timer sweepTimer;
+    private final Counter failedCounter;
+    private final int pageSize;
+    private final Duration sessionClaimTimeout;
+
+    public PendingPaymentReconciler(
+            PaymentRepository paymentRepository,
+            PaymentSessionClaimRepository paymentSessionClaimRepository,
+            PaymentMapper paymentMapper,
+            OutboxService outboxService,
+            StripeClient stripeClient,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${payment.reconciler.page-size}") int pageSize,
+            @Value("${payment.reconciler.concurrency}") int concurrency,
+            @Value("${payment.reconciler.requests-per-second}") double requestsPerSecond,
+            @Value("${payment.session-claim-timeout}") Duration sessionClaimTimeout,
+            @Value("${spring.threads.virtual.enabled}") boolean virtualThreads) {
+        this.paymentRepository = paymentRepository;
+        this.paymentSessionClaimRepository = paymentSessionClaimRepository;
+        this.paymentMapper = paymentMapper;
+        this.outboxService = outboxService;
+        this.stripeClient = stripeClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name(WORKER_NAME_PREFIX, 0).factory()
+                : Executors.defaultThreadFactory();
+        this.executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        this.rateLimiter = new RateLimiter(requestsPerSecond);
+        this.pageSize = pageSize;
+        this.sessionClaimTimeout = sessionClaimTimeout;
+        meterRegistry.gauge(BACKLOG_METRIC, backlog);
+        this.sweepTimer = Timer.builder(SWEEP_METRIC)
+                .description("Duration of one pass over all pending payments")
+                .register(meterRegistry);
+        this.failedCounter = meterRegistry.counter(FAILED_METRIC);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciler.interval-ms}",
+            initialDelayString = "${payment.reconciler.interval-ms}")
+    public void reconcilePendingPayments() {
+        transactionTemplate.executeWithoutResult(status -> releaseAbandonedClaims());
+        backlog.set(paymentRepository.countByStatus(Payment.Status.PENDING));
+        sweepTimer.record(this::sweep);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void releaseAbandonedClaims() {
+        int released = paymentSessionClaimRepository.deleteAbandonedClaims(
+                LocalDateTime.now().minus(sessionClaimTimeout), LIVE_PAYMENT_STATUSES);
+        if (released > 0) {
+            log.warn("Released {} abandoned payment session claims", released);
+        }
+    }
+
+    private void sweep() {
+        Long cursor = FIRST_PAGE_CURSOR;
+        List<Payment> page;
+        do {
+            page = paymentRepository.findAllByStatusAndIdGreaterThanOrderById(
+                    Payment.Status.PENDING, cursor, Limit.of(pageSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            Map<Payment.Status, List<Long>> settled = fetchSettledStatuses(page);
+            transactionTemplate.executeWithoutResult(status -> applyStatuses(settled));
+            cursor = page.get(page.size() - 1).getId();
+        } while (page.size() == pageSize && !Thread.currentThread().isInterrupted());
+    }
+
+    private Map<Payment.Status, List<Long>> fetchSettledStatuses(List<Payment> page) {
+        List<Future<Payment.Status>> statuses = new ArrayList<>(page.size());
+        for (Payment payment : page) {
+            statuses.add(executor.submit(() -> fetchSettledStatus(payment)));
+        }
+        Map<Payment.Status, List<Long>> settled = new EnumMap<>(Payment.Status.class);
+        for (int i = 0; i < page.size(); i++) {
+            Payment.Status status = awaitStatus(statuses.get(i), page.get(i));
+            if (status != null) {
+                settled.computeIfAbsent(status, s -> new ArrayList<>()).add(page.get(i).getId());
+            }
+        }
+        return settled;
+    }
+
+    private Payment.Status fetchSettledStatus(Payment payment)
+            throws InterruptedException, StripeException {
+        rateLimiter.acquire();
+        Session session = stripeClient.checkout().sessions().retrieve(payment.getSessionId());
+        if (STRIPE_PAYMENT_STATUS_PAID.equals(session.getPaymentStatus())) {
+            return Payment.Status.PAID;
+        }
+        if (STRIPE_SESSION_STATUS_EXPIRED.equals(session.getStatus())) {
+            return Payment.Status.EXPIRED;
+        }
+        return null;
+    }
+
+    private Payment.Status awaitStatus(Future<Payment.Status> status, Payment payment) {
+        try {
+            return status.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            failedCounter.increment();
+            log.warn("Can't reconcile payment {} with Stripe", payment.getId(), e.getCause());
+            return null;
+        }
+    }
+
+    private void applyStatuses(Map<Payment.Status, List<Long>> settled) {
+        settled.forEach((status, ids) -> {
+            List<Payment> stillPending = paymentRepository.findAllByIdInAndStatus(
+                    ids, Payment.Status.PENDING);
+            if (stillPending.isEmpty()) {
+                return;
+            }
+            paymentRepository.updateStatusByIdInAndStatus(
+                    stillPending.stream().map(Payment::getId).toList(),
+                    Payment.Status.PENDING, status);
+            meterRegistry.counter(SETTLED_METRIC, STATUS_TAG, status.name())
+                    .increment(stillPending.size());
+            if (status == Payment.Status.PAID) {
+                stillPending.forEach(payment -> {
+                    PaymentDto paymentDto = paymentMapper.toDtoFromModel(payment);
+                    paymentDto.setStatus(Payment.Status.PAID);
+                    outboxService.publishPaymentSucceeded(paymentDto);
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package carrent.service.payment;
+
+import carrent.exception.StripeEventException;
+import carrent.mapper.PaymentMapper;
+import carrent.model.Payment;
+import carrent.model.StripeEvent;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.payment.StripeEventRepository;
+import carrent.service.outbox.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies stored Stripe webhook events in batches. Every batch is locked with
+ * {@code FOR UPDATE SKIP LOCKED} in its own transaction, so several application nodes can
+ * process the table at once. A {@code checkout.session.completed} event for a paid session
+ * marks the matching payment as paid and publishes {@code PAYMENT_SUCCEEDED} to the outbox.
+ * Each event is applied in a nested {@code REQUIRES_NEW} transaction, so an event that fails
+ * only rolls back its own changes, while the batch transaction still records the attempt
+ * and goes on with the remaining events. A failed event is retried after an exponential
+ * backoff, and another batch is only locked when the previous one was full and at least one
+ * of its events was applied, so a failing batch doesn't use up its attempts in one poll.
+ */
+@Slf4j
+@Component
+public class StripeEventProcessor {
+    static final String CHECKOUT_SESSION_COMPLETED = "checkout.session.completed";
+    private static final String STRIPE_PAYMENT_STATUS_PAID = "paid";
+    private static final String PROCESSED_METRIC = "stripe.events.processed";
+    private static final String FAILED_METRIC = "stripe.events.failed";
+    private static final String TYPE_TAG = "type";
+    private static final int MAX_BACKOFF_EXPONENT = 20;
+    private final StripeEventRepository stripeEventRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentMapper paymentMapper;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate eventTransactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public StripeEventProcessor(
+            StripeEventRepository stripeEventRepository,
+            PaymentRepository paymentRepository,
+            PaymentMapper paymentMapper,
+            OutboxService outboxService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${stripe.webhook.batch-size}") int batchSize,
+            @Value("${stripe.webhook.max-attempts}") int maxAttempts,
+            @Value("${stripe.webhook.retry.initial-backoff}") Duration initialBackoff,
+            @Value("${stripe.webhook.retry.max-backoff}") Duration maxBackoff) {
+        this.stripeEventRepository = stripeEventRepository;
+        this.paymentRepository = paymentRepository;
+        this.paymentMapper = paymentMapper;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventTransactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Scheduled(fixedDelayString = "${stripe.webhook.poll-interval-ms}",
+            initialDelayString = "${stripe.webhook.poll-interval-ms}")
+    public void processPendingEvents() {
+        BatchResult result;
+        do {
+            result = transactionTemplate.execute(status -> processBatch());
+        } while (result != null && result.locked() == batchSize && result.processed() > 0);
+    }
+
+    private BatchResult processBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StripeEvent> events = stripeEventRepository.lockPendingBatch(
+                maxAttempts, now, batchSize);
+        int processed = 0;
+        for (StripeEvent event : events) {
+            try {
+                eventTransactionTemplate.executeWithoutResult(status -> apply(event));
+                event.setProcessedAt(now);
+                processed++;
+                meterRegistry.counter(PROCESSED_METRIC, TYPE_TAG, event.getType()).increment();
+            } catch (RuntimeException e) {
+                Duration backoff = backoff(event.getAttempts());
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(now.plus(backoff));
+                meterRegistry.counter(FAILED_METRIC, TYPE_TAG, event.getType()).increment();
+                if (event.getAttempts() >= maxAttempts) {
+                    log.error("Giving up on Stripe event {} after {} attempts",
+                            event.getId(), event.getAttempts(), e);
+                } else {
+                    log.warn("Failed to process Stripe event {} (attempt {}), retrying after {}",
+                            event.getId(), event.getAttempts(), backoff, e);
+                }
+            }
+        }
+        return new BatchResult(events.size(), processed);
+    }
+
+    private Duration backoff(int previousAttempts) {
+        Duration backoff = initialBackoff.multipliedBy(
+                1L << Math.min(previousAttempts, MAX_BACKOFF_EXPONENT));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void apply(StripeEvent event) {
+        if (!CHECKOUT_SESSION_COMPLETED.equals(event.getType())) {
+            return;
+        }
+        JsonNode session = readPayload(event).path("data").path("object");
+        if (!STRIPE_PAYMENT_STATUS_PAID.equals(session.path("payment_status").asText())) {
+            return;
+        }
+        String sessionId = session.path("id").asText();
+        Payment payment = paymentRepository.lockBySessionId(sessionId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Can't find payment with session id: " + sessionId));
+        if (payment.getStatus() != Payment.Status.PENDING) {
+            return;
+        }
+        payment.setStatus(Payment.Status.PAID);
+        outboxService.publishPaymentSucceeded(
+                paymentMapper.toDtoFromModel(paymentRepository.save(payment)));
+    }
+
+    private JsonNode readPayload(StripeEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new StripeEventException(
+                    "Can't deserialize payload of Stripe event " + event.getId(), e);
+        }
+    }
+
+    private record BatchResult(int locked, int processed) {
+    }
+}
@@ -0,0 +1,7 @@
+package carrent.service.payment;
+
+public interface StripeWebhookService {
+    void receiveEvent(String payload, String signatureHeader);
+
+    void replayEvent(String eventId);
+}
@@ -4,33 +4,39 @@ import static java.time.temporal.ChronoUnit.DAYS;
 
 import carrent.dto.payment.CreatePaymentRequestDto;
 import carrent.dto.payment.PaymentDto;
+import carrent.dto.payment.PaymentFilterDto;
 import carrent.dto.payment.PaymentPausedDto;
 import carrent.exception.PaymentAlreadyPaidException;
 import carrent.exception.StripeSessionCreationException;
 import carrent.exception.TooManyPaymentsException;
 import carrent.mapper.PaymentMapper;
 import carrent.model.Payment;
+import carrent.model.PaymentSessionClaim;
 import carrent.model.Rental;
 import carrent.model.Role;
 import carrent.model.User;
 import carrent.repository.payment.PaymentRepository;
+import carrent.repository.payment.PaymentSessionClaimRepository;
 import carrent.repository.rental.RentalRepository;
-import carrent.service.notification.NotificationService;
+import carrent.service.outbox.OutboxService;
 import carrent.service.payment.PaymentService;
-import com.stripe.Stripe;
+import com.stripe.StripeClient;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.checkout.SessionCreateParams;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
@@ -43,26 +49,89 @@ public class PaymentServiceStripeImpl implements PaymentService {
     private static final String CANCEL_URL_STRING = "http://localhost:8080/api/payments/cancel/";
     private static final String CURRENCY = "USD";
     private static final String PAYMENT_NAME = "Payment for car rental - rental ID: ";
-    private static final String STRIPE_PAYMENT_STATUS_PAID = "paid";
+    private static final String IDEMPOTENCY_KEY_FORMAT = "payment-session-%d-%s";
+    private static final Long FIRST_PAGE_CURSOR = 0L;
+    private static final int MAX_PAGE_SIZE = 100;
+    private final SingleFlight<String, PaymentDto> sessionCreations = new SingleFlight<>();
     private final PaymentRepository paymentRepository;
+    private final PaymentSessionClaimRepository paymentSessionClaimRepository;
     private final PaymentMapper paymentMapper;
     private final RentalRepository rentalRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final StripeClient stripeClient;
 
+    /**
+     * Concurrent requests for the same rental and payment type share one in-flight Stripe
+     * call on this node. Across nodes the claim row inserted before the call makes every
+     * request but the first fail with {@link TooManyPaymentsException}, and the idempotency
+     * key makes Stripe return the same session if a call is retried. An expired payment is
+     * replaced by a new session with a new idempotency key. The claim is committed before
+     * Stripe is called and the payment is saved in a second transaction, so no database
+     * connection is held while waiting for Stripe. A failed call releases the claim.
+     */
     @Override
-    @Transactional
-    public PaymentDto createPaymentSession(
-            String stripeApiKey,
-            CreatePaymentRequestDto requestDto) {
-        Stripe.apiKey = stripeApiKey;
+    public PaymentDto createPaymentSession(CreatePaymentRequestDto requestDto) {
+        String sessionKey = IDEMPOTENCY_KEY_FORMAT.formatted(
+                requestDto.rentalId(), requestDto.type());
+        return sessionCreations.execute(sessionKey,
+                () -> createClaimedPaymentSession(requestDto, sessionKey));
+    }
+
+    private PaymentDto createClaimedPaymentSession(
+            CreatePaymentRequestDto requestDto,
+            String sessionKey) {
+        ClaimedSession claimedSession = transactionTemplate.execute(
+                status -> claimPaymentSession(requestDto, sessionKey));
+        Session session;
+        try {
+            session = stripeClient.checkout().sessions().create(
+                    buildSessionCreateParams(claimedSession),
+                    RequestOptions.builder()
+                            .setIdempotencyKey(claimedSession.idempotencyKey())
+                            .build());
+        } catch (StripeException e) {
+            transactionTemplate.executeWithoutResult(status -> paymentSessionClaimRepository
+                    .deleteByRentalIdAndType(requestDto.rentalId(), requestDto.type()));
+            throw new StripeSessionCreationException("Can't create Stripe session!", e);
+        }
+        return transactionTemplate.execute(status -> savePayment(claimedSession, session));
+    }
+
+    private ClaimedSession claimPaymentSession(
+            CreatePaymentRequestDto requestDto,
+            String sessionKey) {
         Long rentalId = requestDto.rentalId();
-        checkIfAlreadyCreated(requestDto);
-        checkIfAlreadyPaid(requestDto);
-        BigDecimal totalPrice = calculateTotalPrice(requestDto).setScale(2, RoundingMode.CEILING);
+        Rental rentalFromDb = getRentalWithPaymentsFromDb(rentalId);
+        Optional<Payment> existingPayment = rentalFromDb.getPayments().stream()
+                .filter(p -> p.getType() == requestDto.type())
+                .findFirst();
+        checkIfAlreadyPaid(existingPayment);
+        Optional<Payment> expiredPayment = existingPayment
+                .filter(p -> p.getStatus() == Payment.Status.EXPIRED);
+        if (expiredPayment.isEmpty()) {
+            checkIfAlreadyCreated(existingPayment, rentalId);
+        }
+        String idempotencyKey = expiredPayment
+                .map(p -> sessionKey + "-" + p.getId())
+                .orElse(sessionKey);
+        if (expiredPayment.isPresent()) {
+            paymentSessionClaimRepository.deleteByRentalIdAndTypeAndIdempotencyKeyNot(
+                    rentalId, requestDto.type(), idempotencyKey);
+        }
+        saveClaim(requestDto, idempotencyKey);
+        BigDecimal totalPrice = calculateTotalPrice(rentalFromDb, requestDto.type())
+                .setScale(2, RoundingMode.CEILING);
+        return new ClaimedSession(rentalId, requestDto.type(), idempotencyKey, totalPrice,
+                expiredPayment.map(Payment::getId).orElse(null));
+    }
 
-        SessionCreateParams sessionCreateParams = SessionCreateParams.builder()
+    private SessionCreateParams buildSessionCreateParams(ClaimedSession claimedSession) {
+        Long rentalId = claimedSession.rentalId();
+        return SessionCreateParams.builder()
                 .setSuccessUrl(UriComponentsBuilder.fromHttpUrl(
-                        SUCCESS_URL_STRING.formatted(rentalId, requestDto.type())).toUriString())
+                        SUCCESS_URL_STRING.formatted(rentalId, claimedSession.type()))
+                        .toUriString())
                 .setCancelUrl(UriComponentsBuilder.fromHttpUrl(
                         CANCEL_URL_STRING + rentalId).toUriString())
                 .addLineItem(
@@ -71,7 +140,7 @@ public class PaymentServiceStripeImpl implements PaymentService {
                                         SessionCreateParams.LineItem.PriceData.builder()
                                                 .setCurrency(CURRENCY)
                                                 .setUnitAmountDecimal(
-                                                        totalPrice
+                                                        claimedSession.totalPrice()
                                                                 .multiply(DOLLARS_TO_CENTS))
                                                 .setProductData(
                                                         SessionCreateParams.LineItem.PriceData
@@ -86,35 +155,32 @@ public class PaymentServiceStripeImpl implements PaymentService {
                 )
                 .setMode(SessionCreateParams.Mode.PAYMENT)
                 .build();
+    }
 
-        Session session;
-        try {
-            session = Session.create(sessionCreateParams);
-        } catch (StripeException e) {
-            throw new StripeSessionCreationException("Can't create Stripe session!", e);
+    private PaymentDto savePayment(ClaimedSession claimedSession, Session session) {
+        if (claimedSession.expiredPaymentId() != null) {
+            paymentRepository.deleteById(claimedSession.expiredPaymentId());
+            paymentRepository.flush();
         }
-
         Payment payment = new Payment();
         payment.setStatus(Payment.Status.PENDING);
-        payment.setType(requestDto.type());
-        payment.setRental(getRentalFromDb(rentalId));
-        payment.setAmountToPay(totalPrice);
+        payment.setType(claimedSession.type());
+        payment.setRental(rentalRepository.getReferenceById(claimedSession.rentalId()));
+        payment.setAmountToPay(claimedSession.totalPrice());
         payment.setSessionUrl(session.getUrl());
         payment.setSessionId(session.getId());
+        payment.setCreatedAt(LocalDateTime.now());
         return paymentMapper.toDtoFromModel(paymentRepository.save(payment));
     }
 
     @Override
-    public List<PaymentDto> getAllPaymentsByUserId(User user, Long userId) {
+    public List<PaymentDto> getAllPaymentsByUserId(
+            User user, PaymentFilterDto filter, Long cursor, int limit) {
         if (checkIfUserIsManager(user)) {
-            return createPaymentStreamForManager(userId)
-                    .map(paymentMapper::toDtoFromModel)
-                    .toList();
+            return findPaymentsPage(filter.userId(), filter, cursor, limit);
         }
-        if (userId == null || user.getId().equals(userId)) {
-            return paymentRepository.findAllByUserId(userId).stream()
-                    .map(paymentMapper::toDtoFromModel)
-                    .toList();
+        if (filter.userId() == null || user.getId().equals(filter.userId())) {
+            return findPaymentsPage(user.getId(), filter, cursor, limit);
         }
         throw new AccessDeniedException("This user is not allowed to access these payments");
     }
@@ -127,53 +193,50 @@ public class PaymentServiceStripeImpl implements PaymentService {
                         + "Rental ID: " + rentalId);
     }
 
+    /**
+     * Reads the payment as last confirmed by the Stripe webhook. The status stays
+     * {@code PENDING} until the {@code checkout.session.completed} event has been processed.
+     */
     @Override
-    @Transactional
-    public PaymentDto checkSuccessfulPayment(
-            String stripeApiKey, Long rentalId, Payment.Type type) {
-        Stripe.apiKey = stripeApiKey;
-        Payment paymentFromDb = paymentRepository.findByRentalIdAndType(rentalId, type)
+    public PaymentDto checkSuccessfulPayment(Long rentalId, Payment.Type type) {
+        return paymentRepository.findByRentalIdAndType(rentalId, type)
+                .map(paymentMapper::toDtoFromModel)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Can't find payment with id: " + rentalId));
-        Session session;
-        try {
-            session = Session.retrieve(paymentFromDb.getSessionId());
-        } catch (StripeException e) {
-            throw new StripeSessionCreationException("Can't retrieve Stripe session!", e);
-        }
-        if (session.getPaymentStatus().equals(STRIPE_PAYMENT_STATUS_PAID)) {
-            paymentFromDb.setStatus(Payment.Status.PAID);
-            PaymentDto paymentDto = paymentMapper.toDtoFromModel(
-                    paymentRepository.save(paymentFromDb));
-            notificationService.sendSuccessfulPaymentNotification(paymentDto);
-            return paymentDto;
-        }
-        throw new AccessDeniedException("Can't access this endpoint - The payment is not paid!");
     }
 
-    private void checkIfAlreadyPaid(CreatePaymentRequestDto requestDto) {
-        Optional<Payment> paymentFromDb = paymentRepository.findByRentalIdAndType(
-                    requestDto.rentalId(), requestDto.type());
-        if (paymentFromDb.isPresent()
-                && paymentFromDb.get().getStatus().equals(Payment.Status.PAID)) {
+    private void checkIfAlreadyPaid(Optional<Payment> existingPayment) {
+        if (existingPayment.isPresent()
+                && existingPayment.get().getStatus().equals(Payment.Status.PAID)) {
             throw new PaymentAlreadyPaidException("This payment has been already paid!");
         }
     }
 
-    private void checkIfAlreadyCreated(CreatePaymentRequestDto requestDto) {
-        Optional<Payment> paymentFromDb = paymentRepository.findByRentalIdAndType(
-                requestDto.rentalId(), requestDto.type());
-        if (paymentFromDb.isPresent()) {
+    private void checkIfAlreadyCreated(Optional<Payment> existingPayment, Long rentalId) {
+        if (existingPayment.isPresent()) {
             throw new TooManyPaymentsException(
-                    "Too many payment records for the given rental ID: " + requestDto.rentalId()
+                    "Too many payment records for the given rental ID: " + rentalId
                     + ". Finish previous payment instead of creating a new one!");
         }
     }
 
-    private BigDecimal calculateTotalPrice(CreatePaymentRequestDto requestDto) {
-        Rental rentalFromDb = getRentalFromDb(requestDto.rentalId());
+    private void saveClaim(CreatePaymentRequestDto requestDto, String idempotencyKey) {
+        PaymentSessionClaim claim = new PaymentSessionClaim();
+        claim.setRentalId(requestDto.rentalId());
+        claim.setType(requestDto.type());
+        claim.setIdempotencyKey(idempotencyKey);
+        claim.setCreatedAt(LocalDateTime.now());
+        try {
+            paymentSessionClaimRepository.saveAndFlush(claim);
+        } catch (DataIntegrityViolationException e) {
+            throw new TooManyPaymentsException(
+                    "Payment session for the given rental ID: " + requestDto.rentalId()
+                    + " is already being created!");
+        }
+    }
 
-        if (requestDto.type() == Payment.Type.PAYMENT) {
+    static BigDecimal calculateTotalPrice(Rental rentalFromDb, Payment.Type type) {
+        if (type == Payment.Type.PAYMENT) {
             long daysOfRental = DAYS.between(
                     rentalFromDb.getRentalDate(), rentalFromDb.getReturnDate());
             return rentalFromDb.getCar().getDailyFee()
@@ -186,20 +249,41 @@ public class PaymentServiceStripeImpl implements PaymentService {
                 .multiply(FINE_MULTIPLIER);
     }
 
-    private Rental getRentalFromDb(Long rentalId) {
-        return rentalRepository.findById(rentalId)
+    private Rental getRentalWithPaymentsFromDb(Long rentalId) {
+        return rentalRepository.findByIdWithCarUserAndPayments(rentalId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Rental with id " + rentalId + " not found"));
     }
 
+    private List<PaymentDto> findPaymentsPage(
+            Long userId, PaymentFilterDto filter, Long cursor, int limit) {
+        Long afterId = cursor == null ? FIRST_PAGE_CURSOR : cursor;
+        Limit pageLimit = Limit.of(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        LocalDateTime from = filter.from() == null ? null : filter.from().atStartOfDay();
+        LocalDateTime to = filter.to() == null ? null : filter.to().plusDays(1).atStartOfDay();
+        if (userId == null) {
+            return paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                    filter.status(), filter.type(), from, to, afterId, pageLimit);
+        }
+        return paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                userId, filter.status(), filter.type(), from, to, afterId, pageLimit);
+    }
+
     private boolean checkIfUserIsManager(User user) {
         return user.getRoles().stream()
                 .anyMatch(r -> r.getName().equals(MANAGER_ROLENAME));
     }
 
-    private Stream<Payment> createPaymentStreamForManager(Long userId) {
-        return userId == null
-                ? paymentRepository.findAll().stream()
-                : paymentRepository.findAllByUserId(userId).stream();
+    /**
+     * A claimed payment session, carried from the claiming transaction to the one that saves
+     * the payment once Stripe has created the session. It only holds IDs and values, so no
+     * entity loaded in the claiming transaction is reused after it has been closed.
+     */
+    private record ClaimedSession(
+            Long rentalId,
+            Payment.Type type,
+            String idempotencyKey,
+            BigDecimal totalPrice,
+            Long expiredPaymentId) {
     }
 }
@@ -0,0 +1,36 @@
+package carrent.service.payment.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spaces calls evenly at a fixed number of permits per second. Each caller reserves the next
+ * free slot under a short lock and then sleeps until its slot outside of the lock, so waiting
+ * callers never hold the lock.
+ */
+public class RateLimiter {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long intervalNanos;
+    private long nextFreeSlot;
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeSlot = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long now = System.nanoTime();
+        long slot;
+        lock.lock();
+        try {
+            slot = Math.max(now, nextFreeSlot);
+            nextFreeSlot = slot + intervalNanos;
+        } finally {
+            lock.unlock();
+        }
+        TimeUnit.NANOSECONDS.sleep(slot - now);
+    }
+}
@@ -0,0 +1,48 @@
+package carrent.service.payment.impl;
+
+import carrent.exception.InvalidWebhookSignatureException;
+import carrent.repository.payment.StripeEventRepository;
+import carrent.service.payment.StripeWebhookService;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class StripeWebhookServiceImpl implements StripeWebhookService {
+    private final StripeEventRepository stripeEventRepository;
+    @Value("${stripe.webhook.secret}")
+    private String webhookSecret;
+
+    /**
+     * Verifies the signature and stores the event for
+     * {@link carrent.service.payment.StripeEventProcessor}. Nothing else happens on the
+     * request thread, so Stripe gets its acknowledgement immediately.
+     */
+    @Override
+    @Transactional
+    public void receiveEvent(String payload, String signatureHeader) {
+        Event event;
+        try {
+            event = Webhook.constructEvent(payload, signatureHeader, webhookSecret);
+        } catch (SignatureVerificationException e) {
+            throw new InvalidWebhookSignatureException("Invalid Stripe webhook event!", e);
+        }
+        stripeEventRepository.insertIfAbsent(
+                event.getId(), event.getType(), payload, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public void replayEvent(String eventId) {
+        if (stripeEventRepository.resetForReplay(eventId, LocalDateTime.now()) == 0) {
+            throw new EntityNotFoundException("Can't find Stripe event with id: " + eventId);
+        }
+    }
+}
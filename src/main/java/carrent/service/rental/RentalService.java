@@ -14,5 +14,5 @@ public interface RentalService {
     RentalDto returnRentalByUserAndId(User user, Long id);
 
     List<BasicRentalDto> findAllRentalsByUserAndRentalStatus(
-            User user, Boolean isActive, Long userId);
+            User user, Boolean isActive, Long userId, Long cursor, int limit);
 }
@@ -12,14 +12,19 @@ import carrent.model.Role;
 import carrent.model.User;
 import carrent.repository.car.CarRepository;
 import carrent.repository.rental.RentalRepository;
-import carrent.service.notification.NotificationService;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import carrent.service.car.impl.CarSearchIndex;
+import carrent.service.outbox.OutboxService;
 import carrent.service.rental.RentalService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,29 +33,42 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class RentalServiceImpl implements RentalService {
     private static final Role.RoleName MANAGER_ROLENAME = Role.RoleName.MANAGER;
+    private static final Long FIRST_PAGE_CURSOR = 0L;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String RENTAL_METRIC = "rentals.operations";
+    private static final String OPERATION_TAG = "operation";
+    private static final String EXCEPTION_TAG = "exception";
+    private static final String CREATE_OPERATION = "create";
+    private static final String RETURN_OPERATION = "return";
+    private static final String NO_EXCEPTION = "none";
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
     private final CarRepository carRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final CarSearchIndex carSearchIndex;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
     public RentalDto createNewRental(User user, RentalRequestDto requestDto) {
-        Car carFromDb = findCarById(requestDto.carId());
-        checkCarAvailability(carFromDb);
-        carFromDb.setInventory(carFromDb.getInventory() - 1);
-        carRepository.save(carFromDb);
+        return timed(CREATE_OPERATION, () -> {
+            Car carFromDb = reserveCar(requestDto.carId());
 
-        Rental rental = new Rental();
-        rental.setCar(carFromDb);
-        rental.setRentalDate(LocalDate.now());
-        rental.setReturnDate(LocalDate.now().plusDays(requestDto.daysOfRental()));
-        rental.setActualReturnDate(null);
-        rental.setUser(user);
-        RentalDto rentalDto = rentalMapper.toDtoFromModel(rentalRepository.save(rental));
-        rentalDto.carInfo().setInventory(1);
-        notificationService.sendRentalCreationNotification(rentalDto);
-        return rentalDto;
+            Rental rental = new Rental();
+            rental.setCar(carFromDb);
+            rental.setRentalDate(LocalDate.now());
+            rental.setReturnDate(LocalDate.now().plusDays(requestDto.daysOfRental()));
+            rental.setActualReturnDate(null);
+            rental.setUser(user);
+            RentalDto rentalDto = rentalMapper.toDtoFromModel(rentalRepository.save(rental));
+            rentalDto.carInfo().setInventory(1);
+            outboxService.publishRentalCreated(rentalDto);
+            carAvailabilityIndex.rentalCreated(rentalDto.id(), carFromDb.getId(),
+                    rental.getRentalDate(), rental.getReturnDate());
+            carSearchIndex.inventoryChanged(carFromDb.getId(), carFromDb.getInventory());
+            return rentalDto;
+        });
     }
 
     @Override
@@ -64,49 +82,63 @@ public class RentalServiceImpl implements RentalService {
     @Override
     @Transactional
     public RentalDto returnRentalByUserAndId(User user, Long id) {
-        Rental rentalFromDb = findRentalInDbAndValidateUser(id, user);
-        if (rentalFromDb.getActualReturnDate() != null) {
-            throw new CarAlreadyReturnedException("This car has been already returned!");
-        }
-        Car carFromDb = findCarById(rentalFromDb.getCar().getId());
-        carFromDb.setInventory(carFromDb.getInventory() + 1);
-        carRepository.save(carFromDb);
-        rentalFromDb.setActualReturnDate(LocalDate.now());
+        return timed(RETURN_OPERATION, () -> {
+            Rental rentalFromDb = findRentalInDbAndValidateUser(id, user);
+            if (rentalFromDb.getActualReturnDate() != null) {
+                throw new CarAlreadyReturnedException("This car has been already returned!");
+            }
+            final Long carId = rentalFromDb.getCar().getId();
+            carRepository.increaseInventory(carId);
+            rentalFromDb.setActualReturnDate(LocalDate.now());
+            carAvailabilityIndex.rentalReturned(rentalFromDb.getId(), carId,
+                    rentalFromDb.getRentalDate(), rentalFromDb.getActualReturnDate());
+            carSearchIndex.inventoryChanged(carId, carRepository.findInventoryById(carId));
 
-        RentalDto rentalDto = rentalMapper.toDtoFromModel(rentalRepository.save(rentalFromDb));
-        rentalDto.carInfo().setInventory(0);
-        return rentalDto;
+            RentalDto rentalDto = rentalMapper.toDtoFromModel(rentalRepository.save(rentalFromDb));
+            rentalDto.carInfo().setInventory(0);
+            return rentalDto;
+        });
     }
 
     @Override
     public List<BasicRentalDto> findAllRentalsByUserAndRentalStatus(
-            User user, Boolean isActive, Long userId) {
+            User user, Boolean isActive, Long userId, Long cursor, int limit) {
         if (checkIfUserIsManager(user)) {
-            return createRentalStreamForManager(userId)
-                    .map(rentalMapper::toBasicDtoFromModel)
-                    .filter(br -> filterRentalsByIsActive(br, isActive))
-                    .toList();
+            return findRentalsPage(userId, isActive, cursor, limit);
         }
         if (userId == null || userId.equals(user.getId())) {
-            return rentalRepository.findAllByUser(user).stream()
-                    .map(rentalMapper::toBasicDtoFromModel)
-                    .filter(br -> filterRentalsByIsActive(br, isActive))
-                    .toList();
+            return findRentalsPage(user.getId(), isActive, cursor, limit);
         }
         throw new AccessDeniedException("This user is not allowed to access these rentals");
     }
 
-    private Stream<Rental> createRentalStreamForManager(Long userId) {
-        return userId == null
-                ? rentalRepository.findAll().stream()
-                : rentalRepository.findAllByUserId(userId).stream();
-    }
-
-    private boolean filterRentalsByIsActive(BasicRentalDto basicRentalDto, Boolean isActive) {
+    private List<BasicRentalDto> findRentalsPage(
+            Long userId, Boolean isActive, Long cursor, int limit) {
+        Long afterId = cursor == null ? FIRST_PAGE_CURSOR : cursor;
+        Limit pageLimit = Limit.of(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        if (userId == null) {
+            if (isActive == null) {
+                return rentalRepository.findAllByIdGreaterThanOrderById(afterId, pageLimit);
+            }
+            return isActive
+                    ? rentalRepository
+                            .findAllByActualReturnDateIsNullAndIdGreaterThanOrderById(
+                                    afterId, pageLimit)
+                    : rentalRepository
+                            .findAllByActualReturnDateIsNotNullAndIdGreaterThanOrderById(
+                                    afterId, pageLimit);
+        }
         if (isActive == null) {
-            return true;
+            return rentalRepository.findAllByUserIdAndIdGreaterThanOrderById(
+                    userId, afterId, pageLimit);
         }
-        return isActive == (basicRentalDto.actualReturnDate() == null);
+        return isActive
+                ? rentalRepository
+                        .findAllByUserIdAndActualReturnDateIsNullAndIdGreaterThanOrderById(
+                                userId, afterId, pageLimit)
+                : rentalRepository
+                        .findAllByUserIdAndActualReturnDateIsNotNullAndIdGreaterThanOrderById(
+                                userId, afterId, pageLimit);
     }
 
     private boolean checkIfUserIsManager(User user) {
@@ -128,10 +160,34 @@ public class RentalServiceImpl implements RentalService {
                 () -> new EntityNotFoundException("Can't find car with id " + carId));
     }
 
-    private void checkCarAvailability(Car car) {
-        if (car.getInventory() <= 0) {
+    private Car reserveCar(Long carId) {
+        if (carRepository.decreaseInventoryIfAvailable(carId) == 0) {
+            findCarById(carId);
             throw new CarNotAvailableException(
                     "Car is currently out of stock! Please choose another");
         }
+        return findCarById(carId);
+    }
+
+    /**
+     * Records how long a rental operation took inside its transaction, tagged with the
+     * exception that ended it, so rejected rentals are counted apart from completed ones.
+     */
+    private RentalDto timed(String operation, Supplier<RentalDto> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NO_EXCEPTION;
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(RENTAL_METRIC)
+                    .description("Duration of creating and returning rentals")
+                    .tag(OPERATION_TAG, operation)
+                    .tag(EXCEPTION_TAG, exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 }
@@ -1,5 +1,6 @@
 package carrent.service.user.impl;
 
+import carrent.config.CacheConfig;
 import carrent.dto.user.UserInfoResponseDto;
 import carrent.dto.user.UserRegistrationRequestDto;
 import carrent.dto.user.UserRegistrationResponseDto;
@@ -18,6 +19,7 @@ import java.util.HashSet;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.EnumUtils;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -55,15 +57,25 @@ public class UserServiceImpl implements UserService {
         return (User) authentication.getPrincipal();
     }
 
+    /**
+     * Updates a freshly loaded copy of the user instead of the authenticated principal, which
+     * may be the instance held in the user details cache and shared by concurrent requests.
+     */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS_CACHE,
+            key = "#user.email.toLowerCase()")
     public UserInfoResponseDto updateProfileInfo(
             User user, UserUpdateRequestDto requestDto) {
-        user.setFirstName(requestDto.firstName());
-        user.setLastName(requestDto.lastName());
-        return userMapper.toUserInfoDtoFromModel(userRepository.save(user));
+        User userFromDb = userRepository.findById(user.getId()).orElseThrow(
+                () -> new EntityNotFoundException("Can't find user with id " + user.getId()));
+        userFromDb.setFirstName(requestDto.firstName());
+        userFromDb.setLastName(requestDto.lastName());
+        return userMapper.toUserInfoDtoFromModel(userRepository.save(userFromDb));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS_CACHE,
+            key = "#result.email().toLowerCase()")
     public UserInfoResponseDto updateUserRoles(Long id, UserRoleUpdateRequestDto requestDto) {
         User userFromDb = userRepository.findById(id).orElseThrow(
                 () -> new EntityNotFoundException("Can't find user with id " + id));
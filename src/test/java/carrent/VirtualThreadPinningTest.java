@@ -0,0 +1,160 @@
+package carrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import carrent.config.SlowStripeStub;
+import carrent.dto.payment.CreatePaymentRequestDto;
+import carrent.dto.user.UserLoginRequestDto;
+import carrent.dto.user.UserLoginResponseDto;
+import carrent.model.Payment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Drives the login, car browsing and payment endpoints over HTTP with virtual threads enabled
+ * and fails if any virtual thread was pinned to its carrier while blocking, e.g. on socket
+ * I/O inside a {@code synchronized} block of the JDBC driver, connection pool or web stack.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "stripe.api.key=sk_test_pinning"})
+@Sql(scripts = {VirtualThreadPinningTest.REMOVE_ALL_PAYMENTS_PATH,
+        VirtualThreadPinningTest.ADD_TWO_USERS_PATH,
+        VirtualThreadPinningTest.ADD_TWO_RENTALS_PATH},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = VirtualThreadPinningTest.REMOVE_ALL_PAYMENTS_PATH,
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class VirtualThreadPinningTest {
+    static final String ADD_TWO_USERS_PATH =
+            "classpath:database/user/add-two-users-with-roles.sql";
+    static final String ADD_TWO_RENTALS_PATH =
+            "classpath:database/rental/add-two-rentals-with-necessities.sql";
+    static final String REMOVE_ALL_PAYMENTS_PATH =
+            "classpath:database/payment/remove-all-payments-with-necessities.sql";
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REPORTED_FRAMES = 12;
+    private static final int CONCURRENT_BROWSERS = 20;
+    private static final Long SAMPLE_RENTAL_ID = 1L;
+    private static final SlowStripeStub STRIPE = startStripeStub();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<String> pinnedStacks = new CopyOnWriteArrayList<>();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void stripeProperties(DynamicPropertyRegistry registry) {
+        registry.add("stripe.api-base", STRIPE::getBaseUrl);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        STRIPE.close();
+    }
+
+    @Test
+    void paymentPath_VirtualThreadsEnabled_NoCarrierPinning() throws Exception {
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED_EVENT, event -> pinnedStacks.add(describe(event)));
+            recording.startAsync();
+
+            String token = login();
+            browseCarsConcurrently();
+            assertEquals(201, send(post("/payments", new CreatePaymentRequestDto(
+                    SAMPLE_RENTAL_ID, Payment.Type.PAYMENT)), token).statusCode());
+            assertEquals(200, send(HttpRequest.newBuilder(uri("/payments/success/"
+                    + SAMPLE_RENTAL_ID + "?type=" + Payment.Type.PAYMENT)), token).statusCode());
+
+            recording.stop();
+        }
+
+        assertTrue(pinnedStacks.isEmpty(), () -> "Virtual threads were pinned "
+                + pinnedStacks.size() + " times:" + System.lineSeparator()
+                + String.join(System.lineSeparator(), pinnedStacks));
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/auth/login",
+                new UserLoginRequestDto("paul@customer.com", "12345678")), null);
+        assertEquals(200, response.statusCode());
+        return objectMapper.readValue(response.body(), UserLoginResponseDto.class).token();
+    }
+
+    private void browseCarsConcurrently() throws Exception {
+        try (ExecutorService browsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_BROWSERS; i++) {
+                responses.add(browsers.submit(
+                        () -> send(HttpRequest.newBuilder(uri("/cars")), null)));
+            }
+            for (Future<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+        }
+    }
+
+    private HttpRequest.Builder post(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String token)
+            throws IOException, InterruptedException {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .limit(REPORTED_FRAMES)
+                .map(VirtualThreadPinningTest::describe)
+                .collect(Collectors.joining(System.lineSeparator() + "    at ",
+                        "Pinned for " + event.getDuration().toMillis() + " ms"
+                                + System.lineSeparator() + "    at ", ""));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    private static SlowStripeStub startStripeStub() {
+        try {
+            return new SlowStripeStub(Duration.ofMillis(50));
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't start the Stripe stub", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.car.CarInventoryDto;
+import carrent.dto.rental.RentalPeriodDto;
+import carrent.repository.car.CarRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Builds the availability index over 100 000 cars and 10 000 000 finished rentals, then times
+ * {@code GET /cars/available} style queries for one page and for every matching car against
+ * a scan of all rental intervals, which is what answering the query from the rentals table
+ * costs. Both must find the same cars. The rentals are generated lazily and fed through
+ * mocked repositories, so no database is needed. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class CarAvailabilityBenchmarkTest {
+    private static final int CARS = 100_000;
+    private static final int RENTALS_PER_CAR = 100;
+    private static final int RENTAL_SPACING_DAYS = 7;
+    private static final int MAX_RENTAL_DAYS = 6;
+    private static final int MAX_QUERY_DAYS = 14;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGE_QUERIES = 1000;
+    private static final int FULL_QUERIES = 50;
+    private static final int SCAN_QUERIES = 10;
+    private static final LocalDate FIRST_DAY =
+            LocalDate.now().minusDays((long) RENTALS_PER_CAR * RENTAL_SPACING_DAYS + 30);
+    private final Random random = new Random(42);
+
+    @Test
+    void findAvailableCarIds_100kCarsAnd10mRentals_ComparesIndexAndScan() {
+        CarAvailabilityIndex index = createIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild();
+        Duration buildTime = Duration.ofNanos(System.nanoTime() - buildStart);
+        RentalIntervals intervals = new RentalIntervals();
+
+        long[] pageLatencies = new long[PAGE_QUERIES];
+        for (int i = 0; i < PAGE_QUERIES; i++) {
+            LocalDate from = randomFrom();
+            LocalDate to = from.plusDays(random.nextInt(MAX_QUERY_DAYS));
+            long start = System.nanoTime();
+            index.findAvailableCarIds(from, to, 0, PAGE_SIZE);
+            pageLatencies[i] = System.nanoTime() - start;
+        }
+        long[] fullLatencies = new long[FULL_QUERIES];
+        long[] scanLatencies = new long[SCAN_QUERIES];
+        for (int i = 0; i < FULL_QUERIES; i++) {
+            LocalDate from = randomFrom();
+            LocalDate to = from.plusDays(random.nextInt(MAX_QUERY_DAYS));
+            long start = System.nanoTime();
+            int indexed = index.findAvailableCarIds(from, to, 0, Integer.MAX_VALUE).size();
+            fullLatencies[i] = System.nanoTime() - start;
+            if (i < SCAN_QUERIES) {
+                start = System.nanoTime();
+                int scanned = intervals.countAvailableCars(from, to);
+                scanLatencies[i] = System.nanoTime() - start;
+                assertEquals(scanned, indexed);
+            }
+        }
+
+        System.out.printf("%n%d cars, %d rentals, index built in %d ms%n",
+                CARS, CARS * RENTALS_PER_CAR, buildTime.toMillis());
+        System.out.printf("%-24s %10s %10s%n", "query", "p50 ms", "p99 ms");
+        print("index, page of " + PAGE_SIZE, pageLatencies);
+        print("index, all cars", fullLatencies);
+        print("scan of all rentals", scanLatencies);
+    }
+
+    private CarAvailabilityIndex createIndex() {
+        CarRepository carRepository = mock(CarRepository.class);
+        RentalRepository rentalRepository = mock(RentalRepository.class);
+        List<CarInventoryDto> inventories = LongStream.rangeClosed(1, CARS)
+                .mapToObj(carId -> new CarInventoryDto(carId, inventory(carId)))
+                .toList();
+        when(carRepository.findAllInventories()).thenReturn(inventories);
+        when(rentalRepository.streamAllRentalPeriods()).thenAnswer(invocation ->
+                IntStream.range(0, RENTALS_PER_CAR).boxed()
+                        .flatMap(rental -> LongStream.rangeClosed(1, CARS).mapToObj(carId -> {
+                            LocalDate start = FIRST_DAY.plusDays(start(carId, rental));
+                            LocalDate end = FIRST_DAY.plusDays(end(carId, rental));
+                            return new RentalPeriodDto(
+                                    rental * CARS + carId, carId, start, end, end);
+                        })));
+        return new CarAvailabilityIndex(carRepository, rentalRepository,
+                mock(PlatformTransactionManager.class));
+    }
+
+    private LocalDate randomFrom() {
+        return FIRST_DAY.plusDays(random.nextInt(RENTALS_PER_CAR * RENTAL_SPACING_DAYS));
+    }
+
+    private static int inventory(long carId) {
+        return 1 + (int) (carId % 3);
+    }
+
+    /** Rentals of a car start a week apart and the ones of every third car overlap. */
+    private static int start(long carId, int rental) {
+        return rental * RENTAL_SPACING_DAYS + (int) (carId % 5);
+    }
+
+    private static int end(long carId, int rental) {
+        int days = 1 + (int) ((carId + rental) % MAX_RENTAL_DAYS);
+        return start(carId, rental) + (carId % 3 == 1 ? days * 2 : days);
+    }
+
+    private static void print(String query, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%-24s %10.3f %10.3f%n", query,
+                latencies[latencies.length / 2] / 1_000_000.0,
+                latencies[latencies.length * 99 / 100] / 1_000_000.0);
+    }
+
+    /** Rental intervals of every car in flat arrays, scanned in full by every query. */
+    private static final class RentalIntervals {
+        private final int[] starts = new int[CARS * RENTALS_PER_CAR];
+        private final int[] ends = new int[CARS * RENTALS_PER_CAR];
+
+        RentalIntervals() {
+            for (int car = 0; car < CARS; car++) {
+                for (int rental = 0; rental < RENTALS_PER_CAR; rental++) {
+                    starts[car * RENTALS_PER_CAR + rental] = start(car + 1L, rental);
+                    ends[car * RENTALS_PER_CAR + rental] = end(car + 1L, rental);
+                }
+            }
+        }
+
+        int countAvailableCars(LocalDate from, LocalDate to) {
+            int fromDay = (int) (from.toEpochDay() - FIRST_DAY.toEpochDay());
+            int toDay = (int) (to.toEpochDay() - FIRST_DAY.toEpochDay()) + 1;
+            int[] occupied = new int[toDay - fromDay];
+            int available = 0;
+            for (int car = 0; car < CARS; car++) {
+                Arrays.fill(occupied, 0);
+                for (int i = car * RENTALS_PER_CAR; i < (car + 1) * RENTALS_PER_CAR; i++) {
+                    for (int day = Math.max(starts[i], fromDay);
+                            day < Math.min(ends[i], toDay); day++) {
+                        occupied[day - fromDay]++;
+                    }
+                }
+                if (Arrays.stream(occupied).max().orElse(0) < inventory(car + 1L)) {
+                    available++;
+                }
+            }
+            return available;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import carrent.RentCarAppApplication;
+import carrent.dto.car.CarImportResultDto;
+import carrent.dto.car.CreateCarRequestDto;
+import carrent.dto.user.UserLoginRequestDto;
+import carrent.dto.user.UserLoginResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Measures how many cars per second reach the database through {@code POST /cars} one car per
+ * request, and through {@code POST /cars/import} with a JSON array and a CSV file of
+ * 100 000 cars. The imports run once with the driver rewriting JDBC batches into multi-row
+ * inserts and once without it. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class CarImportBenchmarkTest {
+    private static final int SINGLE_ROWS = 2_000;
+    private static final int IMPORT_ROWS = 100_000;
+    private static final String[] TYPES = {"SEDAN", "SUV", "HATCHBACK", "UNIVERSAL"};
+    private static final String ADD_USERS_PATH = "database/user/add-two-users-with-roles.sql";
+    private static final String REMOVE_DATA_PATH =
+            "database/payment/remove-all-payments-with-necessities.sql";
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void importCars_100kRows_ComparesSingleInsertsAndBatches() throws Exception {
+        System.out.printf("%n%-40s %10s %10s %10s%n", "insert", "rows", "seconds", "rows/s");
+        runBenchmark(false);
+        runBenchmark(true);
+    }
+
+    private void runBenchmark(boolean rewriteBatchedStatements) throws Exception {
+        try (ConfigurableApplicationContext context =
+                     new SpringApplicationBuilder(RentCarAppApplication.class).run(
+                             "--server.port=0",
+                             "--spring.jpa.show-sql=false",
+                             "--spring.datasource.hikari.data-source-properties"
+                                     + ".rewriteBatchedStatements=" + rewriteBatchedStatements)) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            executeScript(dataSource, REMOVE_DATA_PATH);
+            executeScript(dataSource, ADD_USERS_PATH);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String token = login(port);
+            String batches = rewriteBatchedStatements ? "rewritten batches" : "plain batches";
+            if (rewriteBatchedStatements) {
+                createCarsOneByOne(port, token);
+            }
+            importCars(port, token, "application/json", toJson(), "JSON import, " + batches);
+            importCars(port, token, "text/csv", toCsv(), "CSV import, " + batches);
+            executeScript(dataSource, REMOVE_DATA_PATH);
+        }
+    }
+
+    private void createCarsOneByOne(int port, String token) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            HttpResponse<String> response = send(port, "/cars", token, "application/json",
+                    objectMapper.writeValueAsString(createCar(i)));
+            assertEquals(201, response.statusCode());
+        }
+        print("POST /cars, one car per request", SINGLE_ROWS, start);
+    }
+
+    private void importCars(int port, String token, String contentType, String body,
+            String label) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = send(port, "/cars/import", token, contentType, body);
+        print(label, IMPORT_ROWS, start);
+        assertEquals(200, response.statusCode());
+        CarImportResultDto result =
+                objectMapper.readValue(response.body(), CarImportResultDto.class);
+        assertEquals(IMPORT_ROWS, result.imported());
+    }
+
+    private String toJson() throws IOException {
+        List<CreateCarRequestDto> cars = IntStream.range(0, IMPORT_ROWS)
+                .mapToObj(CarImportBenchmarkTest::createCar)
+                .toList();
+        return objectMapper.writeValueAsString(cars);
+    }
+
+    private String toCsv() {
+        StringBuilder csv = new StringBuilder("model,brand,type,inventory,daily_fee\n");
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            CreateCarRequestDto car = createCar(i);
+            csv.append(car.model()).append(',').append(car.brand()).append(',')
+                    .append(car.type()).append(',').append(car.inventory()).append(',')
+                    .append(car.dailyFee()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static CreateCarRequestDto createCar(int number) {
+        return new CreateCarRequestDto("Model " + number, "Brand " + number % 50,
+                TYPES[number % TYPES.length], 1 + number % 5,
+                BigDecimal.valueOf(2999 + number % 10_000, 2));
+    }
+
+    private static void print(String label, int rows, long start) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        System.out.printf("%-40s %10d %10.1f %10.0f%n", label, rows,
+                elapsed.toMillis() / 1000.0, rows * 1000.0 / elapsed.toMillis());
+    }
+
+    private String login(int port) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(port, "/auth/login", null, "application/json",
+                objectMapper.writeValueAsString(
+                        new UserLoginRequestDto("john@manager.com", "12345678")));
+        return objectMapper.readValue(response.body(), UserLoginResponseDto.class).token();
+    }
+
+    private HttpResponse<String> send(int port, String path, String token, String contentType,
+            String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void executeScript(DataSource dataSource, String path) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.car.CarDto;
+import carrent.dto.car.CarSearchResultDto;
+import carrent.model.Car;
+import carrent.repository.car.CarRepository;
+import carrent.service.car.impl.CarSearchIndex;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Loads 100 000 cars into the search index and times searches with facets and autocomplete
+ * against a scan of every car that matches and counts the same way, which is what answering
+ * the search without an index costs. Both must find the same number of cars. The cars are
+ * fed through a mocked repository, so no database is needed. Runs only with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class CarSearchBenchmarkTest {
+    private static final int CARS = 100_000;
+    private static final int BRANDS = 50;
+    private static final int MODELS = 5_000;
+    private static final int QUERIES = 2_000;
+    private static final int SCAN_QUERIES = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final BigDecimal[] FEE_BOUNDS = {BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100), BigDecimal.valueOf(150), BigDecimal.valueOf(200)};
+    private final Random random = new Random(42);
+
+    @Test
+    void search_100kCars_ComparesIndexAndScan() {
+        List<CarDto> cars = IntStream.rangeClosed(1, CARS)
+                .mapToObj(CarSearchBenchmarkTest::createCar)
+                .toList();
+        CarRepository carRepository = mock(CarRepository.class);
+        when(carRepository.findAllCarDtos()).thenReturn(cars);
+        CarSearchIndex index = new CarSearchIndex(carRepository,
+                mock(PlatformTransactionManager.class), FEE_BOUNDS);
+        long buildStart = System.nanoTime();
+        index.rebuild();
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+        CarScan scan = new CarScan(cars);
+
+        System.out.printf("%n%d cars, index built in %d ms%n", CARS, buildMillis);
+        System.out.printf("%-36s %10s %10s %10s %10s%n", "search", "index p50", "index p99",
+                "scan p50", "scan p99");
+        compare("no query, facets only", index, scan, i -> "", List.of());
+        compare("brand", index, scan, i -> "brand" + random.nextInt(BRANDS), List.of());
+        compare("brand and model prefix", index, scan,
+                i -> "brand" + random.nextInt(BRANDS) + " m" + random.nextInt(MODELS / 10),
+                List.of());
+        compare("model prefix, SUV and SEDAN", index, scan,
+                i -> "m" + random.nextInt(10), List.of(Car.Type.SUV, Car.Type.SEDAN));
+
+        long[] suggestLatencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String prefix = "m" + random.nextInt(100);
+            long start = System.nanoTime();
+            index.suggest(prefix, 10);
+            suggestLatencies[i] = System.nanoTime() - start;
+        }
+        System.out.printf("%-36s %10.3f %10.3f%n", "suggest", percentile(suggestLatencies, 50),
+                percentile(suggestLatencies, 99));
+    }
+
+    private void compare(String label, CarSearchIndex index, CarScan scan,
+            Function<Integer, String> queries, List<Car.Type> types) {
+        long[] indexLatencies = new long[QUERIES];
+        long[] scanLatencies = new long[SCAN_QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = queries.apply(i);
+            long start = System.nanoTime();
+            CarSearchResultDto result = index.search(query, types, List.of(), 0, PAGE_SIZE);
+            indexLatencies[i] = System.nanoTime() - start;
+            if (i < SCAN_QUERIES) {
+                start = System.nanoTime();
+                long scanned = scan.count(query, types);
+                scanLatencies[i] = System.nanoTime() - start;
+                assertEquals(scanned, result.total());
+            }
+        }
+        System.out.printf("%-36s %10.3f %10.3f %10.3f %10.3f%n", label,
+                percentile(indexLatencies, 50), percentile(indexLatencies, 99),
+                percentile(scanLatencies, 50), percentile(scanLatencies, 99));
+    }
+
+    private static CarDto createCar(int id) {
+        return new CarDto((long) id, "M" + id % MODELS + " " + (id % 3 == 0 ? "Sport" : "Base"),
+                "Brand" + id % BRANDS, Car.Type.values()[id % Car.Type.values().length],
+                1 + id % 5, BigDecimal.valueOf(2_000 + id % 25_000, 2));
+    }
+
+    private static double percentile(long[] latencies, int percentile) {
+        Arrays.sort(latencies);
+        return latencies[latencies.length * percentile / 100] / 1_000_000.0;
+    }
+
+    /** Words of every car, matched one by one and counted per type and fee bucket. */
+    private static final class CarScan {
+        private final List<CarDto> cars;
+        private final List<List<String>> words;
+
+        CarScan(List<CarDto> cars) {
+            this.cars = cars;
+            this.words = cars.stream()
+                    .map(car -> Arrays.asList((car.getBrand() + " " + car.getModel())
+                            .toLowerCase(Locale.ROOT).split(" ")))
+                    .toList();
+        }
+
+        long count(String query, List<Car.Type> types) {
+            String[] tokens = query.isEmpty() ? new String[0] : query.split(" ");
+            long[] typeCounts = new long[Car.Type.values().length];
+            long[] feeCounts = new long[FEE_BOUNDS.length + 1];
+            long matches = 0;
+            for (int i = 0; i < cars.size(); i++) {
+                if (!matches(words.get(i), tokens)) {
+                    continue;
+                }
+                CarDto car = cars.get(i);
+                typeCounts[car.getType().ordinal()]++;
+                if (types.isEmpty() || types.contains(car.getType())) {
+                    int bucket = 0;
+                    while (bucket < FEE_BOUNDS.length
+                            && car.getDailyFee().compareTo(FEE_BOUNDS[bucket]) >= 0) {
+                        bucket++;
+                    }
+                    feeCounts[bucket]++;
+                    matches++;
+                }
+            }
+            return matches;
+        }
+
+        private boolean matches(List<String> carWords, String[] tokens) {
+            for (int i = 0; i < tokens.length; i++) {
+                String token = tokens[i];
+                boolean last = i == tokens.length - 1;
+                if (carWords.stream().noneMatch(word -> last
+                        ? word.startsWith(token) : word.equals(token))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
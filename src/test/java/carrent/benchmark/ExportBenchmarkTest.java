@@ -0,0 +1,181 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import carrent.dto.user.UserLoginRequestDto;
+import carrent.dto.user.UserLoginResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Streams the rental and payment exports in both formats over HTTP, first with 100 000 and
+ * then with 1 000 000 rows of each, and prints throughput together with the heap retained
+ * halfway through the download. The retained heap should not grow with the row count.
+ * Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false")
+public class ExportBenchmarkTest {
+    private static final int SMALL_DATASET_ROWS = 100_000;
+    private static final int LARGE_DATASET_ROWS = 1_000_000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+    private static final String[] EXPORTS = {
+            "/rentals/export?format=NDJSON", "/rentals/export?format=CSV",
+            "/payments/export?format=NDJSON", "/payments/export?format=CSV"};
+    private static final String ADD_USERS_PATH =
+            "database/benchmark/add-export-benchmark-users.sql";
+    private static final String REMOVE_DATA_PATH =
+            "database/payment/remove-all-payments-with-necessities.sql";
+    private static final String ALLOW_DEEP_RECURSION =
+            "SET SESSION cte_max_recursion_depth = " + LARGE_DATASET_ROWS;
+    private static final String INSERT_RENTALS = """
+            INSERT INTO rentals(id, car_id, user_id, rental_date, return_date, actual_return_date)
+            WITH RECURSIVE seq(n) AS (SELECT ? UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+            SELECT n, 1, 1 + n % 2, DATE '2024-01-01' + INTERVAL n % 365 DAY,
+                   DATE '2024-01-08' + INTERVAL n % 365 DAY,
+                   IF(n % 10 = 0, NULL, DATE '2024-01-08' + INTERVAL n % 365 DAY)
+            FROM seq""";
+    private static final String INSERT_PAYMENTS = """
+            INSERT INTO payments(status, type, rental_id, amount_to_pay, session_id,
+                                 session_url, created_at)
+            SELECT 'PAID', 'PAYMENT', id, 286.93, CONCAT('cs_bench_', id),
+                   CONCAT('https://checkout.stripe.com/c/pay/cs_bench_', id), rental_date
+            FROM rentals
+            WHERE id BETWEEN ? AND ?""";
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void beforeAll(@Autowired DataSource dataSource) throws SQLException {
+        executeScript(dataSource, REMOVE_DATA_PATH);
+        executeScript(dataSource, ADD_USERS_PATH);
+    }
+
+    @AfterAll
+    static void afterAll(@Autowired DataSource dataSource) throws SQLException {
+        executeScript(dataSource, REMOVE_DATA_PATH);
+    }
+
+    @Test
+    void export_GrowingDataset_KeepsRetainedHeapConstant() throws Exception {
+        String token = login();
+        System.out.printf("%n%-32s %10s %10s %10s %10s %14s%n", "export", "rows", "seconds",
+                "rows/s", "MB", "retained MB");
+
+        insertRentalsWithPayments(1, SMALL_DATASET_ROWS);
+        for (String export : EXPORTS) {
+            runExport(export, token, SMALL_DATASET_ROWS);
+        }
+        insertRentalsWithPayments(SMALL_DATASET_ROWS + 1, LARGE_DATASET_ROWS);
+        for (String export : EXPORTS) {
+            runExport(export, token, LARGE_DATASET_ROWS);
+        }
+    }
+
+    private void runExport(String export, String token, int rows) throws Exception {
+        final long baselineHeap = usedHeapAfterGc();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = httpClient.send(
+                HttpRequest.newBuilder(uri(export))
+                        .header("Authorization", "Bearer " + token)
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        long bytes = 0;
+        long lines = 0;
+        long retainedHeap = 0;
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (InputStream body = response.body()) {
+            for (int read = body.read(buffer); read != -1; read = body.read(buffer)) {
+                bytes += read;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if (retainedHeap == 0 && lines > rows / 2) {
+                    retainedHeap = usedHeapAfterGc() - baselineHeap;
+                }
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        long dataLines = export.endsWith("CSV") ? lines - 1 : lines;
+
+        System.out.printf("%-32s %10d %10.1f %10.0f %10d %14.1f%n", export, dataLines,
+                elapsed.toMillis() / 1000.0, dataLines * 1000.0 / elapsed.toMillis(),
+                bytes / BYTES_PER_MB, (double) retainedHeap / BYTES_PER_MB);
+        assertEquals(rows, dataLines);
+    }
+
+    private void insertRentalsWithPayments(int firstId, int lastId) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(ALLOW_DEEP_RECURSION);
+            }
+            for (String insert : new String[] {INSERT_RENTALS, INSERT_PAYMENTS}) {
+                try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                    statement.setInt(1, firstId);
+                    statement.setInt(2, lastId);
+                    statement.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                new UserLoginRequestDto("john@manager.com", "12345678"))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readValue(response.body(), UserLoginResponseDto.class).token();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void executeScript(DataSource dataSource, String path) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+}
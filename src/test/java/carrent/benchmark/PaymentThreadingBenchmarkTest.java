@@ -0,0 +1,163 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import carrent.RentCarAppApplication;
+import carrent.config.SlowStripeStub;
+import carrent.dto.payment.CreatePaymentRequestDto;
+import carrent.dto.user.UserLoginRequestDto;
+import carrent.dto.user.UserLoginResponseDto;
+import carrent.model.Payment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Compares platform and virtual request threads on {@code POST /payments} while Stripe
+ * answers slowly. The application is started once per mode with the same Tomcat thread limit
+ * and connection pool, and the same number of concurrent clients create one payment session
+ * per rental. Throughput and p50/p99 latency are printed for both modes. Runs only with
+ * {@code mvn test -Pbenchmark}, which also traces pinned virtual threads.
+ */
+@Tag("benchmark")
+public class PaymentThreadingBenchmarkTest {
+    private static final Duration STRIPE_DELAY = Duration.ofMillis(200);
+    private static final int REQUESTS = 1000;
+    private static final int CLIENTS = 100;
+    private static final int TOMCAT_MAX_THREADS = 20;
+    private static final int POOL_SIZE = 50;
+    private static final String ADD_BENCHMARK_DATA_PATH =
+            "database/benchmark/add-payment-benchmark-data.sql";
+    private static final String REMOVE_BENCHMARK_DATA_PATH =
+            "database/payment/remove-all-payments-with-necessities.sql";
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void createPaymentSession_SlowStripe_ComparesPlatformAndVirtualThreads() throws Exception {
+        try (SlowStripeStub stripe = new SlowStripeStub(STRIPE_DELAY)) {
+            BenchmarkResult platform = runBenchmark(stripe, false);
+            BenchmarkResult virtual = runBenchmark(stripe, true);
+
+            printReport(platform, virtual);
+
+            assertEquals(REQUESTS, platform.succeeded());
+            assertEquals(REQUESTS, virtual.succeeded());
+        }
+    }
+
+    private void printReport(BenchmarkResult platform, BenchmarkResult virtual) {
+        System.out.printf("%nPOST /payments, %d requests, %d clients, Stripe delay %d ms,"
+                        + " %d Tomcat threads, %d pooled connections%n",
+                REQUESTS, CLIENTS, STRIPE_DELAY.toMillis(), TOMCAT_MAX_THREADS, POOL_SIZE);
+        System.out.printf("%-10s %10s %10s %10s%n", "threads", "req/s", "p50 ms", "p99 ms");
+        platform.print("platform");
+        virtual.print("virtual");
+    }
+
+    private BenchmarkResult runBenchmark(SlowStripeStub stripe, boolean virtualThreads)
+            throws Exception {
+        try (ConfigurableApplicationContext context =
+                     new SpringApplicationBuilder(RentCarAppApplication.class).run(
+                             "--server.port=0",
+                             "--spring.threads.virtual.enabled=" + virtualThreads,
+                             "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                             "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                             "--spring.jpa.show-sql=false",
+                             "--stripe.api-base=" + stripe.getBaseUrl(),
+                             "--stripe.api.key=sk_test_benchmark")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            executeScript(dataSource, REMOVE_BENCHMARK_DATA_PATH);
+            executeScript(dataSource, ADD_BENCHMARK_DATA_PATH);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            BenchmarkResult result = createPaymentSessions(port);
+            executeScript(dataSource, REMOVE_BENCHMARK_DATA_PATH);
+            return result;
+        }
+    }
+
+    private BenchmarkResult createPaymentSessions(int port) throws Exception {
+        String token = login(port);
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    for (int request = nextRequest.getAndIncrement(); request < REQUESTS;
+                            request = nextRequest.getAndIncrement()) {
+                        long requestStart = System.nanoTime();
+                        HttpResponse<String> response = send(port, "/payments", token,
+                                new CreatePaymentRequestDto(request + 1L, Payment.Type.PAYMENT));
+                        latencies[request] = System.nanoTime() - requestStart;
+                        if (response.statusCode() == 201) {
+                            succeeded.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Arrays.sort(latencies);
+        return new BenchmarkResult(succeeded.get(),
+                REQUESTS * 1000.0 / elapsed.toMillis(),
+                Duration.ofNanos(latencies[REQUESTS / 2]).toMillis(),
+                Duration.ofNanos(latencies[REQUESTS * 99 / 100]).toMillis());
+    }
+
+    private String login(int port) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(port, "/auth/login", null,
+                new UserLoginRequestDto("paul@customer.com", "12345678"));
+        return objectMapper.readValue(response.body(), UserLoginResponseDto.class).token();
+    }
+
+    private HttpResponse<String> send(int port, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void executeScript(DataSource dataSource, String path) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+
+    private record BenchmarkResult(
+            int succeeded,
+            double requestsPerSecond,
+            long p50Millis,
+            long p99Millis) {
+        void print(String threads) {
+            System.out.printf("%-10s %10.1f %10d %10d%n",
+                    threads, requestsPerSecond, p50Millis, p99Millis);
+        }
+    }
+}
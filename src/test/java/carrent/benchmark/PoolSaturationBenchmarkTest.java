@@ -0,0 +1,289 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import carrent.RentCarAppApplication;
+import carrent.config.SlowStripeStub;
+import carrent.dto.car.CarDto;
+import carrent.dto.payment.CreatePaymentRequestDto;
+import carrent.dto.rental.RentalDto;
+import carrent.dto.user.UserLoginRequestDto;
+import carrent.dto.user.UserLoginResponseDto;
+import carrent.model.Car;
+import carrent.model.Payment;
+import carrent.service.outbox.OutboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Saturates {@code POST /payments} against a slow Stripe stub with a small connection pool
+ * while a probe keeps reading a car, which needs a connection of its own. At the same time
+ * rental notifications keep being written to the outbox and relayed through a sender with the
+ * same latency as Stripe. Because no connection is held during the Stripe call or while a
+ * notification is delivered, the probe should not wait for the pool even though far more
+ * payments and notifications are in flight than there are connections. Prints payment
+ * throughput and latency, probe latency and failures, the number of relayed notifications,
+ * the highest number of active and waiting connections, and how long each kind of
+ * transaction held its connection. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class PoolSaturationBenchmarkTest {
+    private static final Duration STRIPE_DELAY = Duration.ofMillis(500);
+    private static final int REQUESTS = 500;
+    private static final int CLIENTS = 100;
+    private static final int POOL_SIZE = 5;
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration PROBE_INTERVAL = Duration.ofMillis(20);
+    private static final Duration NOTIFICATION_INTERVAL = Duration.ofMillis(50);
+    private static final Duration OUTBOX_POLL_INTERVAL = Duration.ofMillis(50);
+    private static final String OUTBOX_TRANSACTION_PREFIX = "OutboxRelay.";
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(10);
+    private static final String ADD_BENCHMARK_DATA_PATH =
+            "database/benchmark/add-payment-benchmark-data.sql";
+    private static final String REMOVE_BENCHMARK_DATA_PATH =
+            "database/payment/remove-all-payments-with-necessities.sql";
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void createPaymentSession_SlowStripeAndSmallPool_KeepsPoolAvailable() throws Exception {
+        try (SlowStripeStub stripe = new SlowStripeStub(STRIPE_DELAY);
+                ConfigurableApplicationContext context =
+                        new SpringApplicationBuilder(RentCarAppApplication.class).run(
+                                "--server.port=0",
+                                "--spring.threads.virtual.enabled=true",
+                                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                                "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                                "--spring.datasource.hikari.connection-timeout="
+                                        + CONNECTION_TIMEOUT.toMillis(),
+                                "--spring.jpa.show-sql=false",
+                                "--cache.enabled=false",
+                                "--stripe.api-base=" + stripe.getBaseUrl(),
+                                "--stripe.api.key=sk_test_benchmark",
+                                "--notification.sender=log",
+                                "--notification.log.latency=" + STRIPE_DELAY.toMillis() + "ms",
+                                "--outbox.poll-interval-ms=" + OUTBOX_POLL_INTERVAL.toMillis(),
+                                "--logging.level.carrent.service.notification=warn")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            executeScript(dataSource, REMOVE_BENCHMARK_DATA_PATH);
+            executeScript(dataSource, ADD_BENCHMARK_DATA_PATH);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String token = login(port);
+
+            PoolSample poolSample = new PoolSample();
+            Latencies probe = new Latencies();
+            Latencies payments;
+            AtomicBoolean running = new AtomicBoolean(true);
+            try (ExecutorService background = Executors.newVirtualThreadPerTaskExecutor()) {
+                final Future<?> sampler = background.submit(
+                        () -> samplePool(meterRegistry, poolSample, running));
+                final Future<?> prober = background.submit(
+                        () -> probeCar(port, token, probe, running));
+                final Future<?> publisher = background.submit(
+                        () -> publishNotifications(context, running));
+                payments = createPaymentSessions(port, token);
+                running.set(false);
+                probe.elapsedNanos = payments.elapsedNanos;
+                sampler.get();
+                prober.get();
+                publisher.get();
+            }
+
+            printReport(payments, probe, poolSample, meterRegistry);
+            executeScript(dataSource, REMOVE_BENCHMARK_DATA_PATH);
+            assertEquals(0, payments.failures.get());
+            assertEquals(0, probe.failures.get());
+            meterRegistry.get("db.connection.hold").timers().stream()
+                    .filter(timer -> timer.getId().getTag("transaction")
+                            .startsWith(OUTBOX_TRANSACTION_PREFIX))
+                    .forEach(timer -> assertTrue(
+                            timer.max(TimeUnit.MILLISECONDS) < STRIPE_DELAY.toMillis(),
+                            timer.getId().getTag("transaction")
+                                    + " held its connection during delivery"));
+        }
+    }
+
+    private Latencies createPaymentSessions(int port, String token) throws Exception {
+        Latencies latencies = new Latencies();
+        AtomicInteger nextRequest = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    for (int request = nextRequest.getAndIncrement(); request < REQUESTS;
+                            request = nextRequest.getAndIncrement()) {
+                        long requestStart = System.nanoTime();
+                        HttpResponse<String> response = send(port, "/payments", token,
+                                new CreatePaymentRequestDto(request + 1L, Payment.Type.PAYMENT));
+                        latencies.record(System.nanoTime() - requestStart,
+                                response.statusCode() == 201);
+                    }
+                    return null;
+                });
+            }
+        }
+        latencies.elapsedNanos = System.nanoTime() - start;
+        return latencies;
+    }
+
+    private Void probeCar(int port, String token, Latencies probe, AtomicBoolean running)
+            throws IOException, InterruptedException {
+        while (running.get()) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = send(port, "/cars/1", token, null);
+            probe.record(System.nanoTime() - start, response.statusCode() == 200);
+            Thread.sleep(PROBE_INTERVAL);
+        }
+        return null;
+    }
+
+    private Void publishNotifications(ConfigurableApplicationContext context,
+            AtomicBoolean running) throws InterruptedException {
+        OutboxService outboxService = context.getBean(OutboxService.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+        CarDto car = new CarDto(1L, "Astra", "Opel", Car.Type.HATCHBACK, 3,
+                BigDecimal.valueOf(40.99));
+        for (long rentalId = 1; running.get(); rentalId++) {
+            RentalDto rental = new RentalDto(rentalId, LocalDate.now(),
+                    LocalDate.now().plusDays(2), null, car, 1L);
+            transactionTemplate.executeWithoutResult(
+                    status -> outboxService.publishRentalCreated(rental));
+            Thread.sleep(NOTIFICATION_INTERVAL);
+        }
+        return null;
+    }
+
+    private Void samplePool(MeterRegistry meterRegistry, PoolSample poolSample,
+            AtomicBoolean running) throws InterruptedException {
+        while (running.get()) {
+            poolSample.maxActive = Math.max(poolSample.maxActive,
+                    meterRegistry.get("hikaricp.connections.active").gauge().value());
+            poolSample.maxPending = Math.max(poolSample.maxPending,
+                    meterRegistry.get("hikaricp.connections.pending").gauge().value());
+            Thread.sleep(SAMPLE_INTERVAL);
+        }
+        return null;
+    }
+
+    private void printReport(Latencies payments, Latencies probe, PoolSample poolSample,
+            MeterRegistry meterRegistry) {
+        System.out.printf("%n%d payments, %d clients, Stripe delay %d ms, %d pooled"
+                        + " connections, %d ms connection timeout%n", REQUESTS, CLIENTS,
+                STRIPE_DELAY.toMillis(), POOL_SIZE, CONNECTION_TIMEOUT.toMillis());
+        System.out.printf("%-16s %10s %10s %10s %10s %10s%n", "requests", "count",
+                "failures", "req/s", "p50 ms", "p99 ms");
+        payments.print("POST /payments");
+        probe.print("GET /cars/{id}");
+        System.out.printf("Relayed notifications: %.0f, delivery latency %d ms%n",
+                meterRegistry.find("outbox.events.relayed").counters().stream()
+                        .mapToDouble(Counter::count).sum(),
+                STRIPE_DELAY.toMillis());
+        System.out.printf("Max active connections: %.0f, max waiting for a connection: %.0f%n",
+                poolSample.maxActive, poolSample.maxPending);
+        System.out.printf("%-48s %10s %10s %10s%n", "transaction", "count", "mean ms",
+                "max ms");
+        meterRegistry.get("db.connection.hold").timers().forEach(timer -> System.out.printf(
+                "%-48s %10d %10.1f %10.1f%n", timer.getId().getTag("transaction"),
+                timer.count(), timer.mean(TimeUnit.MILLISECONDS),
+                timer.max(TimeUnit.MILLISECONDS)));
+        Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+        System.out.printf("Pool-wide connection usage: mean %.1f ms, max %.1f ms%n",
+                usage.mean(TimeUnit.MILLISECONDS), usage.max(TimeUnit.MILLISECONDS));
+    }
+
+    private String login(int port) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(port, "/auth/login", null,
+                new UserLoginRequestDto("paul@customer.com", "12345678"));
+        return objectMapper.readValue(response.body(), UserLoginResponseDto.class).token();
+    }
+
+    private HttpResponse<String> send(int port, String path, String token, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + path));
+        if (body == null) {
+            request.GET();
+        } else {
+            request.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            objectMapper.writeValueAsString(body)));
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void executeScript(DataSource dataSource, String path) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+
+    private static final class PoolSample {
+        private volatile double maxActive;
+        private volatile double maxPending;
+    }
+
+    private static final class Latencies {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long elapsedNanos;
+
+        void record(long latencyNanos, boolean succeeded) {
+            latencies.add(latencyNanos);
+            if (!succeeded) {
+                failures.incrementAndGet();
+            }
+        }
+
+        void print(String requests) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("%-16s %10d %10d %10s %10.1f %10.1f%n", requests, sorted.length,
+                    failures.get(), seconds > 0 ? "%.1f".formatted(sorted.length / seconds)
+                            : "-", percentile(sorted, 50), percentile(sorted, 99));
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[sorted.length * percentile / 100] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import carrent.RentCarAppApplication;
+import carrent.config.CustomMySqlContainer;
+import carrent.config.SlowStripeStub;
+import carrent.config.TelegramStub;
+import carrent.dto.payment.CreatePaymentRequestDto;
+import carrent.dto.rental.RentalRequestDto;
+import carrent.dto.user.UserLoginRequestDto;
+import carrent.dto.user.UserLoginResponseDto;
+import carrent.model.Payment;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import carrent.service.car.impl.CarSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Drives the whole rental flow against the application started on the shared MySQL
+ * container, with local stand-ins for Stripe and Telegram, so it runs offline. Every virtual
+ * user repeats a visit: log in, browse and search cars, view one, rent it, pay for the rental,
+ * list the active rentals and return the car. Requests made during the warmup are not
+ * counted. Prints p50/p99 latency and requests per second of every endpoint. The load is set
+ * with {@code -Dload-test.users}, {@code -Dload-test.warmup-seconds},
+ * {@code -Dload-test.duration-seconds} and {@code -Dload-test.stripe-delay-ms}. Runs only
+ * with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class RentalFlowLoadTest {
+    private static final int USERS = Integer.getInteger("load-test.users", 50);
+    private static final Duration WARMUP =
+            Duration.ofSeconds(Integer.getInteger("load-test.warmup-seconds", 10));
+    private static final Duration DURATION =
+            Duration.ofSeconds(Integer.getInteger("load-test.duration-seconds", 30));
+    private static final Duration STRIPE_DELAY =
+            Duration.ofMillis(Integer.getInteger("load-test.stripe-delay-ms", 100));
+    private static final int CUSTOMERS = 200;
+    private static final int CARS = 50;
+    private static final int CAR_PAGES = 3;
+    private static final String PASSWORD = "12345678";
+    private static final String ADD_DATA_PATH = "database/benchmark/add-load-test-data.sql";
+    private static final String REMOVE_DATA_PATH =
+            "database/benchmark/remove-load-test-data.sql";
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new ConcurrentSkipListMap<>();
+
+    @Test
+    void rentalFlow_ConcurrentUsers_ReportsLatencyAndThroughputPerEndpoint() throws Exception {
+        CustomMySqlContainer mySqlContainer = CustomMySqlContainer.getInstance();
+        mySqlContainer.start();
+        try (SlowStripeStub stripe = new SlowStripeStub(STRIPE_DELAY);
+                TelegramStub telegram = new TelegramStub();
+                ConfigurableApplicationContext context =
+                        new SpringApplicationBuilder(RentCarAppApplication.class).run(
+                                "--server.port=0",
+                                "--spring.jpa.show-sql=false",
+                                "--spring.datasource.url=" + mySqlContainer.getJdbcUrl(),
+                                "--spring.datasource.username=" + mySqlContainer.getUsername(),
+                                "--spring.datasource.password=" + mySqlContainer.getPassword(),
+                                "--stripe.api-base=" + stripe.getBaseUrl(),
+                                "--stripe.api.key=sk_test_load",
+                                "--notification.sender=telegram",
+                                "--telegram.api-base=" + telegram.getBaseUrl(),
+                                "--TELEGRAM_BOT_TOKEN=load-test",
+                                "--outbox.poll-interval-ms=1000")) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            executeScript(dataSource, REMOVE_DATA_PATH);
+            executeScript(dataSource, ADD_DATA_PATH);
+            context.getBean(CarAvailabilityIndex.class).rebuild();
+            context.getBean(CarSearchIndex.class).rebuild();
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+
+            long measuredVisits = runVisits(port);
+
+            printReport(measuredVisits, stripe, telegram);
+            executeScript(dataSource, REMOVE_DATA_PATH);
+            stats.forEach((endpoint, endpointStats) ->
+                    assertEquals(0, endpointStats.failures.get(), endpoint + " failed"));
+        }
+    }
+
+    private long runVisits(int port) throws InterruptedException {
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + DURATION.toNanos();
+        AtomicInteger measuredVisits = new AtomicInteger();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < USERS; i++) {
+                String email = "customer" + (i % CUSTOMERS + 1) + "@load.test";
+                users.submit(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        boolean measured = System.nanoTime() >= measureFrom;
+                        visit(port, email, measured);
+                        if (measured) {
+                            measuredVisits.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return measuredVisits.get();
+    }
+
+    private void visit(int port, String email, boolean measured)
+            throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpResponse<String> login = send(measured, "POST /auth/login", port, "/auth/login",
+                null, new UserLoginRequestDto(email, PASSWORD));
+        String token = objectMapper.readValue(login.body(), UserLoginResponseDto.class).token();
+        for (int page = 0; page < CAR_PAGES; page++) {
+            send(measured, "GET /cars", port, "/cars?size=20&page=" + page, token, null);
+        }
+        send(measured, "GET /cars/search", port,
+                "/cars/search?q=brand+" + random.nextInt(10) + "&type=SUV", token, null);
+        long carId = random.nextInt(CARS) + 1;
+        send(measured, "GET /cars/{id}", port, "/cars/" + carId, token, null);
+        HttpResponse<String> rental = send(measured, "POST /rentals", port, "/rentals", token,
+                new RentalRequestDto(random.nextInt(1, 8), carId));
+        if (rental.statusCode() != 201) {
+            return;
+        }
+        long rentalId = objectMapper.readTree(rental.body()).get("id").asLong();
+        send(measured, "POST /payments", port, "/payments", token,
+                new CreatePaymentRequestDto(rentalId, Payment.Type.PAYMENT));
+        send(measured, "GET /rentals", port, "/rentals?is_active=true", token, null);
+        send(measured, "POST /rentals/{id}/return", port, "/rentals/" + rentalId + "/return",
+                token, null);
+    }
+
+    private HttpResponse<String> send(boolean measured, String endpoint, int port, String path,
+            String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + path));
+        if (body == null && endpoint.startsWith("GET")) {
+            request.GET();
+        } else {
+            request.header("Content-Type", "application/json")
+                    .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(
+                                    objectMapper.writeValueAsString(body)));
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response =
+                httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (measured) {
+            stats.computeIfAbsent(endpoint, key -> new EndpointStats())
+                    .record(System.nanoTime() - start, response.statusCode() < 400);
+        }
+        return response;
+    }
+
+    private void printReport(long measuredVisits, SlowStripeStub stripe, TelegramStub telegram) {
+        double seconds = DURATION.toMillis() / 1000.0;
+        System.out.printf("%n%d users, %d s warmup, %d s measured, Stripe delay %d ms,"
+                        + " %d visits (%.1f/s)%n", USERS, WARMUP.toSeconds(),
+                DURATION.toSeconds(), STRIPE_DELAY.toMillis(), measuredVisits,
+                measuredVisits / seconds);
+        System.out.printf("%-28s %10s %10s %10s %10s %10s%n", "endpoint", "requests",
+                "failures", "req/s", "p50 ms", "p99 ms");
+        stats.forEach((endpoint, endpointStats) -> endpointStats.print(endpoint, seconds));
+        System.out.printf("Stripe sessions created: %d, Telegram messages sent: %d%n",
+                stripe.getRequestCount(), telegram.getMessageCount());
+    }
+
+    private void executeScript(DataSource dataSource, String path) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+
+    private static final class EndpointStats {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        void record(long latencyNanos, boolean succeeded) {
+            latencies.add(latencyNanos);
+            if (!succeeded) {
+                failures.incrementAndGet();
+            }
+        }
+
+        void print(String endpoint, double seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-28s %10d %10d %10.1f %10.1f %10.1f%n", endpoint,
+                    sorted.length, failures.get(), sorted.length / seconds,
+                    percentile(sorted, 50), percentile(sorted, 99));
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            return sorted[sorted.length * percentile / 100] / 1_000_000.0;
+        }
+    }
+}
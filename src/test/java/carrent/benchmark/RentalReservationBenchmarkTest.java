@@ -0,0 +1,179 @@
+package carrent.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import carrent.dto.rental.RentalRequestDto;
+import carrent.exception.CarNotAvailableException;
+import carrent.mapper.RentalMapper;
+import carrent.model.Car;
+import carrent.model.Rental;
+import carrent.model.User;
+import carrent.repository.car.CarRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.repository.user.UserRepository;
+import carrent.service.outbox.OutboxService;
+import carrent.service.rental.RentalService;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fires concurrent rentals of one car through {@code RentalService.createNewRental}, which
+ * reserves the car with a conditional {@code UPDATE}, and through the read-modify-write path
+ * it replaced, which loads the car, checks and decrements the inventory in Java and saves it
+ * back. Both paths save the rental and publish it to the outbox in the same transaction.
+ * Prints requests per second, created and rejected rentals, and the inventory left, from
+ * which the lost updates of the old path follow. Only the conditional update is expected to
+ * hand out exactly the available stock. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class RentalReservationBenchmarkTest {
+    private static final long BENCHMARK_CAR_ID = 1_000L;
+    private static final int INVENTORY = 500;
+    private static final int REQUESTS = 2_000;
+    private static final int CLIENTS = 32;
+    private static final int RENTAL_DAYS = 3;
+    private static final String CUSTOMER_EMAIL = "paul@customer.com";
+    @Autowired
+    private RentalService rentalService;
+    @Autowired
+    private CarRepository carRepository;
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private RentalMapper rentalMapper;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeBenchmarkData() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM rentals WHERE car_id = ?", BENCHMARK_CAR_ID);
+        jdbcTemplate.update("DELETE FROM cars WHERE id = ?", BENCHMARK_CAR_ID);
+    }
+
+    @Test
+    void createNewRental_ConcurrentRentalsOfOneCar_ComparesWithReadModifyWrite()
+            throws Exception {
+        User user = userRepository.findByEmail(CUSTOMER_EMAIL).orElseThrow();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        BiConsumer<User, RentalRequestDto> conditionalUpdate = rentalService::createNewRental;
+        BiConsumer<User, RentalRequestDto> readModifyWrite = (customer, request) ->
+                transactionTemplate.executeWithoutResult(
+                        status -> createRentalWithReadModifyWrite(customer, request));
+
+        run(user, conditionalUpdate);
+        run(user, readModifyWrite);
+        Result conditional = run(user, conditionalUpdate);
+        final Result legacy = run(user, readModifyWrite);
+
+        System.out.printf("%n%d rentals of one car with %d units, %d clients%n",
+                REQUESTS, INVENTORY, CLIENTS);
+        System.out.printf("%-28s %10s %10s %10s %10s %10s %14s%n", "reservation", "req/s",
+                "created", "rejected", "failed", "inventory", "lost updates");
+        conditional.print("conditional UPDATE");
+        legacy.print("read-modify-write");
+        assertEquals(INVENTORY, conditional.created());
+        assertEquals(0, conditional.inventory());
+        assertEquals(0, conditional.failed());
+    }
+
+    private Result run(User user, BiConsumer<User, RentalRequestDto> createRental)
+            throws InterruptedException {
+        resetCar();
+        RentalRequestDto request = new RentalRequestDto(RENTAL_DAYS, BENCHMARK_CAR_ID);
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        long start;
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    startSignal.await();
+                    while (nextRequest.getAndIncrement() < REQUESTS) {
+                        try {
+                            createRental.accept(user, request);
+                            created.incrementAndGet();
+                        } catch (CarNotAvailableException e) {
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start = System.nanoTime();
+            startSignal.countDown();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(REQUESTS / (elapsedNanos / 1_000_000_000.0), created.get(),
+                rejected.get(), failed.get(), findInventory());
+    }
+
+    /** The reservation as it was before the conditional update, kept for comparison. */
+    private void createRentalWithReadModifyWrite(User user, RentalRequestDto request) {
+        Car car = carRepository.findById(request.carId()).orElseThrow(
+                () -> new EntityNotFoundException("Can't find car with id " + request.carId()));
+        if (car.getInventory() <= 0) {
+            throw new CarNotAvailableException(
+                    "Car is currently out of stock! Please choose another");
+        }
+        car.setInventory(car.getInventory() - 1);
+        carRepository.save(car);
+        Rental rental = new Rental();
+        rental.setCar(car);
+        rental.setRentalDate(LocalDate.now());
+        rental.setReturnDate(LocalDate.now().plusDays(request.daysOfRental()));
+        rental.setUser(user);
+        outboxService.publishRentalCreated(
+                rentalMapper.toDtoFromModel(rentalRepository.save(rental)));
+    }
+
+    private void resetCar() {
+        removeBenchmarkData();
+        jdbcTemplate.update("""
+                INSERT INTO cars(id, model, brand, type, inventory, daily_fee, is_deleted)
+                VALUES (?, 'Astra', 'Opel', 'HATCHBACK', ?, 40.99, 0)""",
+                BENCHMARK_CAR_ID, INVENTORY);
+    }
+
+    private int findInventory() {
+        return jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE id = ?", Integer.class, BENCHMARK_CAR_ID);
+    }
+
+    private record Result(double requestsPerSecond, int created, int rejected, int failed,
+            int inventory) {
+        /** Rentals created beyond the units actually taken from the inventory. */
+        int lostUpdates() {
+            return created - (INVENTORY - inventory);
+        }
+
+        void print(String reservation) {
+            System.out.printf("%-28s %10.1f %10d %10d %10d %10d %14d%n", reservation,
+                    requestsPerSecond, created, rejected, failed, inventory, lostUpdates());
+        }
+    }
+}
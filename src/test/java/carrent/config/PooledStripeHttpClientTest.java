@@ -0,0 +1,124 @@
+package carrent.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.stripe.StripeClient;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PooledStripeHttpClientTest {
+    private static final String SAMPLE_API_KEY = "sk_test_sample";
+    private static final String SAMPLE_SESSION_ID = "cs_test_a1B2c3";
+    private static final String SAMPLE_PAYMENT_INTENT_ID = "pi_3Mtw5a2eZvKYlo2C";
+    private static final String SAMPLE_IDEMPOTENCY_KEY = "payment-session-1-PAYMENT";
+    private static final String LATENCY_METRIC = "stripe.client.requests";
+    private static final String SESSION_JSON = """
+            {"id": "%s", "object": "checkout.session", "payment_status": "paid",
+             "url": "https://checkout.stripe.com/c/pay/%s"}"""
+            .formatted(SAMPLE_SESSION_ID, SAMPLE_SESSION_ID);
+    private static final String PAYMENT_INTENT_JSON = """
+            {"id": "%s", "object": "payment_intent", "status": "succeeded"}"""
+            .formatted(SAMPLE_PAYMENT_INTENT_ID);
+    private final Map<String, String> receivedHeaders = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer stripeStandIn;
+    private StripeClient stripeClient;
+
+    @BeforeEach
+    void startStripeStandIn() throws IOException {
+        stripeStandIn = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stripeStandIn.createContext("/v1/checkout/sessions", this::respondWithSession);
+        stripeStandIn.createContext("/v1/payment_intents",
+                exchange -> respond(exchange, PAYMENT_INTENT_JSON));
+        stripeStandIn.start();
+        stripeClient = new StripeConfig().stripeClient(meterRegistry, Tracer.NOOP, SAMPLE_API_KEY,
+                "http://localhost:" + stripeStandIn.getAddress().getPort(),
+                Duration.ofSeconds(1), Duration.ofSeconds(2), 0);
+    }
+
+    @AfterEach
+    void stopStripeStandIn() {
+        stripeStandIn.stop(0);
+    }
+
+    @Test
+    @DisplayName("Create Stripe session - Sends API key and idempotency key")
+    void createSession_WithIdempotencyKey_SendsHeaders() throws StripeException {
+        SessionCreateParams params = SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl("http://localhost:8080/api/payments/success/1")
+                .build();
+
+        Session actual = stripeClient.checkout().sessions().create(params,
+                RequestOptions.builder().setIdempotencyKey(SAMPLE_IDEMPOTENCY_KEY).build());
+
+        assertEquals(SAMPLE_SESSION_ID, actual.getId());
+        assertEquals("Bearer " + SAMPLE_API_KEY, receivedHeaders.get("Authorization"));
+        assertEquals(SAMPLE_IDEMPOTENCY_KEY, receivedHeaders.get("Idempotency-key"));
+        assertEquals("POST", receivedHeaders.get("Method"));
+    }
+
+    @Test
+    @DisplayName("Retrieve Stripe session - Records latency per operation")
+    void retrieveSession_ExistingSession_RecordsLatencyPerOperation() throws StripeException {
+        stripeClient.checkout().sessions().retrieve(SAMPLE_SESSION_ID);
+        stripeClient.checkout().sessions().retrieve(SAMPLE_SESSION_ID);
+
+        Timer timer = meterRegistry.find(LATENCY_METRIC)
+                .tag("operation", "GET /v1/checkout/sessions/{id}")
+                .tag("status", "200")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("Retrieve Stripe payment intent - Keeps the collection name in the operation")
+    void retrievePaymentIntent_UnderscoredCollection_ReplacesOnlyObjectId()
+            throws StripeException {
+        stripeClient.paymentIntents().retrieve(SAMPLE_PAYMENT_INTENT_ID);
+
+        Timer timer = meterRegistry.find(LATENCY_METRIC)
+                .tag("operation", "GET /v1/payment_intents/{id}")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    private void respondWithSession(HttpExchange exchange) throws IOException {
+        exchange.getRequestHeaders().forEach((name, values) ->
+                receivedHeaders.put(name, String.join(",", values)));
+        receivedHeaders.put("Method", exchange.getRequestMethod());
+        respond(exchange, SESSION_JSON);
+    }
+
+    private void respond(HttpExchange exchange, String json) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().put("Content-Type", List.of("application/json"));
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package carrent.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Stripe checkout session API. Every request is answered with a new
+ * checkout session after a fixed delay, so the payment path can be exercised offline with
+ * Stripe-like latency. Requests are served by an unbounded pool of platform threads, so the
+ * stub neither becomes the bottleneck of a load test nor shows up in pinning checks.
+ */
+public class SlowStripeStub implements AutoCloseable {
+    private static final String SESSIONS_PATH = "/v1/checkout/sessions";
+    private static final int BACKLOG = 1024;
+    private static final String SESSION_JSON = """
+            {"id": "%1$s", "object": "checkout.session", "status": "open",
+             "payment_status": "unpaid", "url": "https://checkout.stripe.com/c/pay/%1$s"}""";
+    private final Duration delay;
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+
+    public SlowStripeStub(Duration delay) throws IOException {
+        this.delay = delay;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), BACKLOG);
+        server.createContext(SESSIONS_PATH, this::respondWithSession);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return sessionIds.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respondWithSession(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = SESSION_JSON.formatted("cs_test_" + sessionIds.incrementAndGet())
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().put("Content-Type", List.of("application/json"));
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package carrent.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Telegram Bot API that accepts every message without delivering it.
+ * Long polls for updates are held for a short while and answered with no updates, so a
+ * registered bot neither spins nor reaches the internet.
+ */
+public class TelegramStub implements AutoCloseable {
+    private static final Duration POLL_DELAY = Duration.ofSeconds(1);
+    private static final String SEND_MESSAGE_METHOD = "sendmessage";
+    private static final String GET_UPDATES_METHOD = "getupdates";
+    private static final String MESSAGE_JSON = """
+            {"ok": true, "result": {"message_id": %d, "date": 0,
+             "chat": {"id": -1, "type": "supergroup"}}}""";
+    private static final String NO_UPDATES_JSON = "{\"ok\": true, \"result\": []}";
+    private static final String OK_JSON = "{\"ok\": true, \"result\": true}";
+    private final AtomicLong messageIds = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+
+    public TelegramStub() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::respond);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /** Returns the base URL the bot appends its token and the API method to. */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/bot";
+    }
+
+    public long getMessageCount() {
+        return messageIds.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        String path = exchange.getRequestURI().getPath();
+        String method = path.substring(path.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        String body = switch (method) {
+            case SEND_MESSAGE_METHOD -> MESSAGE_JSON.formatted(messageIds.incrementAndGet());
+            case GET_UPDATES_METHOD -> {
+                try {
+                    Thread.sleep(POLL_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                yield NO_UPDATES_JSON;
+            }
+            default -> OK_JSON;
+        };
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().put("Content-Type", List.of("application/json"));
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
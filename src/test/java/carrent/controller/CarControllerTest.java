@@ -8,15 +8,23 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import carrent.dto.car.CarDto;
+import carrent.dto.car.CarImportErrorDto;
+import carrent.dto.car.CarImportResultDto;
+import carrent.dto.car.CarSearchResultDto;
 import carrent.dto.car.CreateCarRequestDto;
+import carrent.dto.car.FacetCountDto;
 import carrent.model.Car;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import carrent.service.car.impl.CarSearchIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import javax.sql.DataSource;
@@ -44,6 +52,10 @@ public class CarControllerTest {
 
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private CarAvailabilityIndex carAvailabilityIndex;
+    @Autowired
+    private CarSearchIndex carSearchIndex;
 
     @BeforeAll
     static void beforeAll(
@@ -192,6 +204,112 @@ public class CarControllerTest {
                 .andReturn();
     }
 
+    @WithMockUser(username = "manager", authorities = {"MANAGER"})
+    @Sql(scripts = {
+            "classpath:database/car/remove-all-cars.sql",
+            "classpath:database/car/add-two-cars.sql"},
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @Test
+    void importCarsFromCsv_ValidAndInvalidRows_ReturnsCarImportResultDto() throws Exception {
+        String csv = """
+                model,brand,type,inventory,daily_fee
+                X7,BMW,suv,2,139.99
+                Astra,Opel,TRUCK,3,40.99
+                Octavia,Skoda,SEDAN,4,59.99
+                """;
+        CarImportResultDto expected = new CarImportResultDto(2, 1, List.of(
+                new CarImportErrorDto(2, "Invalid car type, must be one of the following: "
+                        + Arrays.toString(Car.Type.values()))));
+
+        MvcResult result = mockMvc.perform(post(BASE_ENDPOINT + "/import")
+                        .content(csv)
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(),
+                CarImportResultDto.class);
+
+        assertEquals(expected, actual);
+        mockMvc.perform(get(BASE_ENDPOINT).param("size", "10"))
+                .andExpect(jsonPath("$.length()").value(4));
+    }
+
+    @WithMockUser(username = "manager", authorities = {"MANAGER"})
+    @Test
+    void importCarsFromJson_NotAnArray_ReturnsBadRequestStatus() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(createTestCarRequestDto());
+
+        mockMvc.perform(post(BASE_ENDPOINT + "/import")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void searchCars_QueryAndTypeFilter_ReturnsCarSearchResultDto() throws Exception {
+        carSearchIndex.rebuild();
+
+        MvcResult result = mockMvc.perform(get(BASE_ENDPOINT + "/search")
+                        .param("q", "opel ast")
+                        .param("type", "hatchback")
+                        .param("daily_fee", "0-50")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarSearchResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(),
+                CarSearchResultDto.class);
+
+        assertEquals(1, actual.total());
+        assertIterableEquals(List.of(createTestCarDto(1L)), actual.cars());
+        assertEquals(new FacetCountDto("HATCHBACK", 1), actual.types().get(2));
+    }
+
+    @Test
+    void suggestSearchWords_Prefix_ReturnsMatchingWords() throws Exception {
+        carSearchIndex.rebuild();
+
+        mockMvc.perform(get(BASE_ENDPOINT + "/search/suggest")
+                        .param("prefix", "Hy")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("hyundai"));
+    }
+
+    @Test
+    void getAvailableCars_ValidRange_ReturnsListOfAvailableCarDto() throws Exception {
+        carAvailabilityIndex.rebuild();
+        LocalDate from = LocalDate.now().plusDays(1);
+        List<CarDto> expected = List.of(createTestCarDto(1L), createSecondTestCarDto(2L));
+
+        MvcResult result = mockMvc.perform(get(BASE_ENDPOINT + "/available")
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(6).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        CarDto[] actual = objectMapper.readValue(
+                result.getResponse().getContentAsByteArray(),
+                CarDto[].class);
+
+        assertIterableEquals(expected, Arrays.stream(actual).toList());
+    }
+
+    @Test
+    void getAvailableCars_EndBeforeStart_ReturnsBadRequestStatus() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(1);
+
+        mockMvc.perform(get(BASE_ENDPOINT + "/available")
+                        .param("from", from.toString())
+                        .param("to", from.minusDays(1).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+    }
+
     private CreateCarRequestDto createTestCarRequestDto() {
         return new CreateCarRequestDto(
                 "X7",
@@ -31,6 +31,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -183,6 +184,31 @@ public class RentalControllerTest {
         assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
     }
 
+    @WithMockUser(username = "manager", authorities = {"MANAGER"})
+    @Test
+    void exportRentals_ManagerRequestingCsv_StreamsAllRentals() throws Exception {
+        String expected = """
+                id,rental_date,return_date,actual_return_date,car_id,user_id
+                1,2021-01-11,2021-02-08,,1,2
+                2,2024-01-06,2024-01-09,,1,1
+                """;
+
+        MvcResult result = mockMvc.perform(get(BASE_ENDPOINT + "/export")
+                        .param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("text/csv", result.getResponse().getContentType());
+        assertEquals(expected, result.getResponse().getContentAsString());
+    }
+
+    @WithUserDetails(SAMPLE_USER_EMAIL)
+    @Test
+    void exportRentals_Customer_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get(BASE_ENDPOINT + "/export"))
+                .andExpect(status().isForbidden());
+    }
+
     private BasicRentalDto createTestBasicRentalDto(Long rentalId, Long carId) {
         return new BasicRentalDto(
                 rentalId,
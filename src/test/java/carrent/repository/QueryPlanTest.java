@@ -0,0 +1,361 @@
+package carrent.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import carrent.model.Payment;
+import carrent.model.Role;
+import carrent.repository.car.CarRepository;
+import carrent.repository.outbox.OutboxEventRepository;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.payment.StripeEventRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.repository.role.RoleRepository;
+import carrent.repository.user.UserRepository;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import lombok.SneakyThrows;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs every custom repository query against a seeded MySQL database, replays the exact
+ * SQL and bind parameters Hibernate sent with {@code EXPLAIN} and fails when any table is
+ * accessed with a full scan ({@code type = ALL}).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(QueryPlanTest.QueryRecorderConfig.class)
+public class QueryPlanTest {
+    private static final String ADD_QUERY_PLAN_DATA_PATH =
+            "database/query-plan/add-query-plan-data.sql";
+    private static final String REMOVE_QUERY_PLAN_DATA_PATH =
+            "database/query-plan/remove-query-plan-data.sql";
+    private static final String FULL_TABLE_SCAN = "ALL";
+    private static final QueryRecorder QUERY_RECORDER = new QueryRecorder();
+    private static final Long SAMPLE_ID = 42L;
+    private static final Long FIRST_PAGE_CURSOR = 0L;
+    private static final Limit SAMPLE_LIMIT = Limit.of(20);
+    private static final LocalDateTime SAMPLE_FROM = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime SAMPLE_TO = LocalDateTime.of(2024, 4, 1, 0, 0);
+    private static final int MAX_OUTBOX_ATTEMPTS = 10;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private CarRepository carRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private StripeEventRepository stripeEventRepository;
+
+    @BeforeAll
+    static void beforeAll(@Autowired DataSource dataSource) throws SQLException {
+        executeScript(dataSource, REMOVE_QUERY_PLAN_DATA_PATH);
+        executeScript(dataSource, ADD_QUERY_PLAN_DATA_PATH);
+    }
+
+    @AfterAll
+    static void afterAll(@Autowired DataSource dataSource) throws SQLException {
+        executeScript(dataSource, REMOVE_QUERY_PLAN_DATA_PATH);
+    }
+
+    @BeforeEach
+    void clearRecordedQueries() {
+        QUERY_RECORDER.clear();
+    }
+
+    @Test
+    @DisplayName("Keyset pages of all Rentals - Use an index")
+    void rentalPages_AllUsers_UseIndex() {
+        rentalRepository.findAllByIdGreaterThanOrderById(FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        rentalRepository.findAllByActualReturnDateIsNullAndIdGreaterThanOrderById(
+                FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        rentalRepository.findAllByActualReturnDateIsNotNullAndIdGreaterThanOrderById(
+                FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Keyset pages of one User's Rentals - Use an index")
+    void rentalPages_SingleUser_UseIndex() {
+        rentalRepository.findAllByUserIdAndIdGreaterThanOrderById(
+                SAMPLE_ID, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        rentalRepository.findAllByUserIdAndActualReturnDateIsNullAndIdGreaterThanOrderById(
+                SAMPLE_ID, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        rentalRepository.findAllByUserIdAndActualReturnDateIsNotNullAndIdGreaterThanOrderById(
+                SAMPLE_ID, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Stream overdue Rentals - Uses an index")
+    void streamOverdueRentals_UsesIndex() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                rentalRepository.streamOverdueRentals(LocalDate.of(2024, 2, 1)).close());
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Find Rental by ID - Uses an index")
+    void findRentalById_UsesIndex() {
+        rentalRepository.findById(SAMPLE_ID);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Find Rental with Car, User and Payments by ID - Uses an index")
+    void findRentalWithCarUserAndPayments_UsesIndex() {
+        rentalRepository.findByIdWithCarUserAndPayments(SAMPLE_ID);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Filtered keyset pages of all Payments - Use an index")
+    void paymentPages_AllUsers_UseIndex() {
+        paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                null, null, null, null, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                Payment.Status.PAID, Payment.Type.PAYMENT, SAMPLE_FROM, SAMPLE_TO,
+                FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Filtered keyset pages of one User's Payments - Use an index")
+    void paymentPages_SingleUser_UseIndex() {
+        paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                SAMPLE_ID, null, null, null, null, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                SAMPLE_ID, Payment.Status.PAID, Payment.Type.PAYMENT, SAMPLE_FROM, SAMPLE_TO,
+                FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Find Payment by Rental ID and type - Uses an index")
+    void findPaymentByRentalIdAndType_UsesIndex() {
+        paymentRepository.findByRentalIdAndType(SAMPLE_ID, Payment.Type.PAYMENT);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Lock Payment by Stripe session ID - Uses an index")
+    void lockPaymentBySessionId_UsesIndex() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                paymentRepository.lockBySessionId("sessionId42"));
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Keyset pages of pending Payments and their status updates - Use an index")
+    void pendingPaymentQueries_UseIndex() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            paymentRepository.findAllByStatusAndIdGreaterThanOrderById(
+                    Payment.Status.PENDING, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+            paymentRepository.findAllByIdInAndStatus(
+                    List.of(SAMPLE_ID), Payment.Status.PENDING);
+            paymentRepository.updateStatusByIdInAndStatus(
+                    List.of(SAMPLE_ID), Payment.Status.PENDING, Payment.Status.EXPIRED);
+            status.setRollbackOnly();
+        });
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Find User by email - Uses an index")
+    void findUserByEmail_UsesIndex() {
+        userRepository.findByEmail("user42@customer.com");
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Find Role by name - Uses an index")
+    void findRoleByName_UsesIndex() {
+        roleRepository.findByName(Role.RoleName.CUSTOMER);
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Find Car by ID and update its inventory - Use an index")
+    void carQueries_UseIndex() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            carRepository.findById(SAMPLE_ID);
+            carRepository.decreaseInventoryIfAvailable(SAMPLE_ID);
+            carRepository.increaseInventory(SAMPLE_ID);
+            status.setRollbackOnly();
+        });
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Lock and purge outbox events - Use an index")
+    void outboxQueries_UseIndex() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.lockPendingBatch(
+                    MAX_OUTBOX_ATTEMPTS, LocalDateTime.now(), (int) SAMPLE_LIMIT.max());
+            outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(7));
+            status.setRollbackOnly();
+        });
+
+        assertNoFullTableScan();
+    }
+
+    @Test
+    @DisplayName("Lock pending Stripe events - Uses an index")
+    void lockPendingStripeEvents_UsesIndex() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                stripeEventRepository.lockPendingBatch(
+                        MAX_OUTBOX_ATTEMPTS, LocalDateTime.now(), (int) SAMPLE_LIMIT.max()));
+
+        assertNoFullTableScan();
+    }
+
+    private void assertNoFullTableScan() {
+        List<RecordedQuery> queries = QUERY_RECORDER.drain();
+        assertFalse(queries.isEmpty(), "No repository query was recorded");
+        List<String> fullScans = new ArrayList<>();
+        for (RecordedQuery query : queries) {
+            for (String table : explainFullScans(query)) {
+                fullScans.add(table + " <- " + query.sql());
+            }
+        }
+        QUERY_RECORDER.clear();
+        assertTrue(fullScans.isEmpty(), "Full table scans found: " + fullScans);
+    }
+
+    @SneakyThrows
+    private List<String> explainFullScans(RecordedQuery query) {
+        List<String> fullScans = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement explain = connection.prepareStatement(
+                        "EXPLAIN " + query.sql())) {
+            for (ParameterSetOperation parameter : query.parameters()) {
+                parameter.getMethod().invoke(explain, parameter.getArgs());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    if (FULL_TABLE_SCAN.equals(plan.getString("type"))) {
+                        fullScans.add(plan.getString("table"));
+                    }
+                }
+            }
+        }
+        return fullScans;
+    }
+
+    private static void executeScript(DataSource dataSource, String path) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(path));
+        }
+    }
+
+    @TestConfiguration
+    static class QueryRecorderConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .listener(QUERY_RECORDER)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    private record RecordedQuery(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    private static class QueryRecorder implements QueryExecutionListener {
+        private final List<RecordedQuery> queries = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                String sql = queryInfo.getQuery().strip();
+                if (sql.regionMatches(true, 0, "EXPLAIN", 0, "EXPLAIN".length())) {
+                    continue;
+                }
+                List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+                queries.add(new RecordedQuery(sql, parametersList.isEmpty()
+                        ? List.of() : List.copyOf(parametersList.get(0))));
+            }
+        }
+
+        List<RecordedQuery> drain() {
+            List<RecordedQuery> drained = List.copyOf(queries);
+            queries.clear();
+            return drained;
+        }
+
+        void clear() {
+            queries.clear();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package carrent.repository.car;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CarRepositoryTest {
+    private static final String ADD_TWO_CARS_PATH = "classpath:database/car/add-two-cars.sql";
+    private static final String REMOVE_ALL_CARS_PATH = "classpath:database/car/remove-all-cars.sql";
+    private static final Long VALID_CAR_ID = 1L;
+    private static final int AVAILABLE_INVENTORY = 50;
+    private static final int PARALLEL_RENTALS = 500;
+    private static final int THREADS = 32;
+    private static final long MAX_STRESS_DURATION_SECONDS = 30;
+    @Autowired
+    private CarRepository carRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Decrease inventory of out of stock Car - Returns zero updated rows")
+    @Sql(scripts = {REMOVE_ALL_CARS_PATH, ADD_TWO_CARS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_CARS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void decreaseInventoryIfAvailable_OutOfStockCar_ReturnsZero() {
+        setInventory(0);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Integer actual = transactionTemplate.execute(
+                status -> carRepository.decreaseInventoryIfAvailable(VALID_CAR_ID));
+
+        assertEquals(0, actual);
+        assertEquals(0, getInventory());
+    }
+
+    @Test
+    @DisplayName("Decrease inventory by hundreds of parallel rentals - Never oversells the Car")
+    @Sql(scripts = {REMOVE_ALL_CARS_PATH, ADD_TWO_CARS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_CARS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void decreaseInventoryIfAvailable_ParallelRentals_NeverOversells() throws Exception {
+        setInventory(AVAILABLE_INVENTORY);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < PARALLEL_RENTALS; i++) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                return transactionTemplate.execute(
+                        status -> carRepository.decreaseInventoryIfAvailable(VALID_CAR_ID));
+            }));
+        }
+
+        startSignal.countDown();
+        executor.shutdown();
+        boolean finished = executor.awaitTermination(
+                MAX_STRESS_DURATION_SECONDS, TimeUnit.SECONDS);
+        int successfulRentals = 0;
+        for (Future<Integer> result : results) {
+            successfulRentals += result.get();
+        }
+
+        assertTrue(finished);
+        assertEquals(AVAILABLE_INVENTORY, successfulRentals);
+        assertEquals(0, getInventory());
+    }
+
+    private void setInventory(int inventory) {
+        jdbcTemplate.update("UPDATE cars SET inventory = ? WHERE id = ?", inventory, VALID_CAR_ID);
+    }
+
+    private int getInventory() {
+        return jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE id = ?", Integer.class, VALID_CAR_ID);
+    }
+}
@@ -1,27 +1,26 @@
 package carrent.repository.payment;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-import carrent.model.Car;
+import carrent.dto.payment.PaymentDto;
 import carrent.model.Payment;
-import carrent.model.Rental;
-import carrent.model.Role;
-import carrent.model.User;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.jdbc.Sql;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 public class PaymentRepositoryTest {
     private static final String ADD_TWO_PAYMENTS_PATH =
@@ -30,63 +29,107 @@ public class PaymentRepositoryTest {
             "classpath:database/payment/remove-all-payments-with-necessities.sql";
     private static final Long VALID_USER_ID = 1L;
     private static final Long INVALID_USER_ID = 222L;
+    private static final Long FIRST_PAGE_CURSOR = 0L;
+    private static final Limit SAMPLE_LIMIT = Limit.of(20);
     @Autowired
     private PaymentRepository paymentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
-    @DisplayName("Find a List of all Payments by valid User ID - Returns list with correct Payment")
+    @DisplayName("Find a page of Payments by valid User ID - Returns list with correct Payment")
     @Sql(scripts = {REMOVE_ALL_PAYMENTS_PATH, ADD_TWO_PAYMENTS_PATH},
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
-    void findAllByUserId_ValidUserId_ReturnsListWithOnePayment() {
-        Payment expected = getValidPayment();
-        List<Payment> actual = paymentRepository.findAllByUserId(VALID_USER_ID);
-        assertEquals(1, actual.size());
-        assertThat(actual.get(0)).usingRecursiveComparison().isEqualTo(expected);
+    void findAllByUserIdAndFilter_ValidUserId_ReturnsListWithOnePayment() {
+        List<PaymentDto> expected = List.of(getValidPaymentDto());
+        List<PaymentDto> actual =
+                paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                        VALID_USER_ID, null, null, null, null, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        assertEquals(expected, actual);
     }
 
     @Test
-    @DisplayName("Find a List of all Payments by invalid User ID - Returns empty list")
+    @DisplayName("Find a page of Payments by invalid User ID - Returns empty list")
     @Sql(scripts = {REMOVE_ALL_PAYMENTS_PATH, ADD_TWO_PAYMENTS_PATH},
             executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
-    void findAllByUserId_InvalidUserId_ReturnsEmptyList() {
-        List<Payment> expected = new ArrayList<>();
-        List<Payment> actual = paymentRepository.findAllByUserId(INVALID_USER_ID);
+    void findAllByUserIdAndFilter_InvalidUserId_ReturnsEmptyList() {
+        List<PaymentDto> expected = new ArrayList<>();
+        List<PaymentDto> actual =
+                paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                        INVALID_USER_ID, null, null, null, null, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
         assertEquals(0, actual.size());
         assertEquals(expected, actual);
     }
 
-    private Payment getValidPayment() {
-        Role expectedRole = new Role();
-        expectedRole.setId(2L);
-        expectedRole.setName(Role.RoleName.MANAGER);
-        User expectedUser = new User();
-        expectedUser.setId(1L);
-        expectedUser.setEmail("john@manager.com");
-        expectedUser.setFirstName("John");
-        expectedUser.setLastName("Jackson");
-        expectedUser.setPassword("$2a$10$2UWH5EMjHJGwl1JbzyXd1uG1OS7W1pmOhWQXcF9nFByYM7aGUhlS6");
-        expectedUser.setRoles(Set.of(expectedRole));
-        Car expectedCar = new Car();
-        expectedCar.setId(10L);
-        expectedCar.setBrand("Opel");
-        expectedCar.setModel("Astra");
-        expectedCar.setType(Car.Type.HATCHBACK);
-        expectedCar.setInventory(3);
-        expectedCar.setDailyFee(BigDecimal.valueOf(40.99));
-        Rental expectedRental = new Rental();
-        expectedRental.setId(2L);
-        expectedRental.setUser(expectedUser);
-        expectedRental.setCar(expectedCar);
-        expectedRental.setRentalDate(LocalDate.of(2024, 1, 6));
-        expectedRental.setReturnDate(LocalDate.of(2024, 1, 9));
-        Payment expected = new Payment();
-        expected.setId(2L);
-        expected.setStatus(Payment.Status.PENDING);
-        expected.setType(Payment.Type.PAYMENT);
-        expected.setRental(expectedRental);
-        expected.setAmountToPay(BigDecimal.valueOf(100).setScale(2, RoundingMode.UNNECESSARY));
-        expected.setSessionId("sessionId2");
-        expected.setSessionUrl("sessionUrl2");
-        return expected;
+    @Test
+    @DisplayName("Find a page of Payments by status, type and date range "
+            + "- Returns only matching Payments")
+    @Sql(scripts = {REMOVE_ALL_PAYMENTS_PATH, ADD_TWO_PAYMENTS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void findAllByFilter_StatusTypeAndDateRange_ReturnsMatchingPayments() {
+        List<PaymentDto> expected = List.of(getValidPaymentDto());
+
+        List<PaymentDto> actual = paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                Payment.Status.PENDING, Payment.Type.PAYMENT,
+                LocalDateTime.of(2024, 1, 6, 0, 0), LocalDateTime.of(2024, 1, 7, 0, 0),
+                FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+        List<PaymentDto> paid = paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                Payment.Status.PAID, null, null, null, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+
+        assertEquals(expected, actual);
+        assertEquals(0, paid.size());
+    }
+
+    @Test
+    @DisplayName("Find the next page of Payments - Returns Payments after the cursor")
+    @Sql(scripts = {REMOVE_ALL_PAYMENTS_PATH, ADD_TWO_PAYMENTS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void findAllByFilter_CursorAndLimit_ReturnsNextPage() {
+        List<PaymentDto> firstPage = paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                null, null, null, null, FIRST_PAGE_CURSOR, Limit.of(1));
+        List<PaymentDto> secondPage = paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                null, null, null, null, firstPage.get(0).getId(), Limit.of(1));
+
+        assertEquals(1L, firstPage.get(0).getId());
+        assertEquals(List.of(getValidPaymentDto()), secondPage);
+    }
+
+    @Test
+    @DisplayName("Find a page of Payments as DTOs - Executes one statement without loading Rentals")
+    @Sql(scripts = {REMOVE_ALL_PAYMENTS_PATH, ADD_TWO_PAYMENTS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_PAYMENTS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findAllByFilter_PaymentsOfDifferentRentals_ExecutesOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<PaymentDto> actual = paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                null, null, null, null, FIRST_PAGE_CURSOR, SAMPLE_LIMIT);
+
+        assertEquals(2, actual.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Settle Payments one of which was already paid - Updates only pending ones")
+    @Sql(scripts = {REMOVE_ALL_PAYMENTS_PATH, ADD_TWO_PAYMENTS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void updateStatusByIdInAndStatus_PaymentAlreadyPaid_SkipsIt() {
+        paymentRepository.updateStatusByIdInAndStatus(
+                List.of(1L), Payment.Status.PENDING, Payment.Status.PAID);
+
+        int updated = paymentRepository.updateStatusByIdInAndStatus(
+                List.of(1L, 2L), Payment.Status.PENDING, Payment.Status.EXPIRED);
+
+        assertEquals(1, updated);
+    }
+
+    private PaymentDto getValidPaymentDto() {
+        return new PaymentDto(2L, Payment.Status.PENDING, Payment.Type.PAYMENT, 2L,
+                BigDecimal.valueOf(100).setScale(2, RoundingMode.UNNECESSARY),
+                "sessionUrl2", "sessionId2", LocalDateTime.of(2024, 1, 6, 10, 0));
     }
 }
@@ -0,0 +1,181 @@
+package carrent.repository.rental;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import carrent.dto.rental.BasicRentalDto;
+import carrent.dto.rental.OverdueRentalDto;
+import carrent.model.Rental;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.jdbc.Sql;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class RentalRepositoryTest {
+    private static final String REMOVE_ALL_RENTALS_PATH =
+            "classpath:database/rental/remove-all-rentals-with-necessities.sql";
+    private static final String ADD_TWO_USERS_WITH_ROLES_PATH =
+            "classpath:database/user/add-two-users-with-roles.sql";
+    private static final String ADD_TWO_RENTALS_PATH =
+            "classpath:database/rental/add-two-rentals-with-necessities.sql";
+    private static final String ADD_TWO_PAYMENTS_PATH =
+            "classpath:database/payment/add-two-payments-with-necessities.sql";
+    private static final String REMOVE_ALL_PAYMENTS_PATH =
+            "classpath:database/payment/remove-all-payments-with-necessities.sql";
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Stream overdue Rentals - Returns projections of overdue Rentals only")
+    @Sql(scripts = {REMOVE_ALL_RENTALS_PATH, ADD_TWO_USERS_WITH_ROLES_PATH,
+            ADD_TWO_RENTALS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_RENTALS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void streamOverdueRentals_OneOverdueRental_ReturnsOneProjection() {
+        List<OverdueRentalDto> expected = List.of(
+                new OverdueRentalDto(1L, 2L, 1L, LocalDate.of(2021, 2, 8)));
+
+        List<OverdueRentalDto> actual;
+        try (Stream<OverdueRentalDto> overdueRentals =
+                     rentalRepository.streamOverdueRentals(LocalDate.of(2024, 1, 9))) {
+            actual = overdueRentals.toList();
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Stream overdue Rentals - Returns projections ordered by return date")
+    @Sql(scripts = {REMOVE_ALL_RENTALS_PATH, ADD_TWO_USERS_WITH_ROLES_PATH,
+            ADD_TWO_RENTALS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_RENTALS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void streamOverdueRentals_TwoOverdueRentals_ReturnsProjectionsInOrder() {
+        List<OverdueRentalDto> expected = List.of(
+                new OverdueRentalDto(1L, 2L, 1L, LocalDate.of(2021, 2, 8)),
+                new OverdueRentalDto(2L, 1L, 1L, LocalDate.of(2024, 1, 9)));
+
+        List<OverdueRentalDto> actual;
+        try (Stream<OverdueRentalDto> overdueRentals =
+                     rentalRepository.streamOverdueRentals(LocalDate.of(2024, 2, 1))) {
+            actual = overdueRentals.toList();
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Find Rental with Car, User and Payments - Loads them in a single statement")
+    @Sql(scripts = {REMOVE_ALL_PAYMENTS_PATH, ADD_TWO_PAYMENTS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_PAYMENTS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findByIdWithCarUserAndPayments_ExistingRental_ExecutesOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        Rental actual = rentalRepository.findByIdWithCarUserAndPayments(1L).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(actual.getCar()));
+        assertTrue(Hibernate.isInitialized(actual.getUser()));
+        assertTrue(Hibernate.isInitialized(actual.getPayments()));
+        assertEquals(1, actual.getPayments().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Find Rental by ID - Loads its Car but not its User")
+    @Sql(scripts = {REMOVE_ALL_RENTALS_PATH, ADD_TWO_USERS_WITH_ROLES_PATH,
+            ADD_TWO_RENTALS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_RENTALS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findById_ExistingRental_FetchesCarInOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        Rental actual = rentalRepository.findById(1L).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(actual.getCar()));
+        assertFalse(Hibernate.isInitialized(actual.getUser()));
+        assertEquals(2L, actual.getUser().getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Find pages of Rentals - Executes one statement per page regardless of its size")
+    @Sql(scripts = {REMOVE_ALL_RENTALS_PATH, ADD_TWO_USERS_WITH_ROLES_PATH,
+            ADD_TWO_RENTALS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_RENTALS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findAllByIdGreaterThanOrderById_RentalsOfDifferentUsers_ExecutesOneStatementPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        List<BasicRentalDto> expected = List.of(
+                new BasicRentalDto(1L, LocalDate.of(2021, 1, 11), LocalDate.of(2021, 2, 8),
+                        null, 1L, 2L),
+                new BasicRentalDto(2L, LocalDate.of(2024, 1, 6), LocalDate.of(2024, 1, 9),
+                        null, 1L, 1L));
+        statistics.clear();
+
+        List<BasicRentalDto> firstPage = rentalRepository.findAllByIdGreaterThanOrderById(
+                0L, Limit.of(1));
+        final long firstPageStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        List<BasicRentalDto> fullPage = rentalRepository.findAllByIdGreaterThanOrderById(
+                0L, Limit.of(10));
+
+        assertEquals(expected.subList(0, 1), firstPage);
+        assertEquals(expected, fullPage);
+        assertEquals(1, firstPageStatements);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Stream all Rentals - Returns projections in ID order without loading entities")
+    @Sql(scripts = {REMOVE_ALL_RENTALS_PATH, ADD_TWO_USERS_WITH_ROLES_PATH,
+            ADD_TWO_RENTALS_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = REMOVE_ALL_RENTALS_PATH,
+            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void streamAllBasicRentals_TwoRentals_ReturnsProjectionsInIdOrder() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        List<BasicRentalDto> expected = List.of(
+                new BasicRentalDto(1L, LocalDate.of(2021, 1, 11), LocalDate.of(2021, 2, 8),
+                        null, 1L, 2L),
+                new BasicRentalDto(2L, LocalDate.of(2024, 1, 6), LocalDate.of(2024, 1, 9),
+                        null, 1L, 1L));
+        statistics.clear();
+
+        List<BasicRentalDto> actual;
+        try (Stream<BasicRentalDto> rentals = rentalRepository.streamAllBasicRentals()) {
+            actual = rentals.toList();
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
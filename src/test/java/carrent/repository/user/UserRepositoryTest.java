@@ -38,6 +38,17 @@ public class UserRepositoryTest {
         assertThat(actual.get()).usingRecursiveComparison().isEqualTo(expected);
     }
 
+    @Test
+    @DisplayName("Find a User by valid email in different case - Returns Optional with User")
+    @Sql(scripts = {REMOVE_ALL_USERS_WITH_ROLES_PATH, ADD_TWO_USERS_WITH_ROLES_PATH},
+            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    void findByEmail_ValidEmailInUpperCase_ReturnsOptionalWithCorrectUser() {
+        User expected = getValidManagerUser();
+        Optional<User> actual = userRepository.findByEmail(VALID_EMAIL.toUpperCase());
+        assertFalse(actual.isEmpty());
+        assertThat(actual.get()).usingRecursiveComparison().isEqualTo(expected);
+    }
+
     @Test
     @DisplayName("Find a User by invalid email - Returns empty Optional")
     @Sql(scripts = {REMOVE_ALL_USERS_WITH_ROLES_PATH, ADD_TWO_USERS_WITH_ROLES_PATH},
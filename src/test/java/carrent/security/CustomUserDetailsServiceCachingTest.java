@@ -0,0 +1,95 @@
+package carrent.security;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import carrent.config.CacheConfig;
+import carrent.dto.user.UserUpdateRequestDto;
+import carrent.mapper.UserMapper;
+import carrent.model.User;
+import carrent.repository.role.RoleRepository;
+import carrent.repository.user.UserRepository;
+import carrent.service.user.UserService;
+import carrent.service.user.impl.UserServiceImpl;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig({CacheConfig.class, CustomUserDetailsService.class, UserServiceImpl.class})
+@TestPropertySource(properties = {
+        "cache.cars.spec=maximumSize=10,recordStats",
+        "cache.car-pages.spec=maximumSize=10,recordStats",
+        "cache.user-details.spec=maximumSize=10,recordStats"
+})
+public class CustomUserDetailsServiceCachingTest {
+    private static final String VALID_EMAIL = "john@customer.com";
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private RoleRepository roleRepository;
+    @MockBean
+    private UserMapper userMapper;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private UserDetailsService userDetailsService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("Load user twice with different email case - Reads the database once")
+    void loadUserByUsername_CalledTwice_ReadsRepositoryOnce() {
+        User modelUser = createTestUser();
+        when(userRepository.findByEmail(any())).thenReturn(Optional.of(modelUser));
+
+        userDetailsService.loadUserByUsername(VALID_EMAIL);
+        UserDetails actual = userDetailsService.loadUserByUsername(VALID_EMAIL.toUpperCase());
+
+        assertSame(modelUser, actual);
+        verify(userRepository, times(1)).findByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Update profile of cached user - Next load goes to the database")
+    void updateProfileInfo_CachedUser_EvictsUser() {
+        User modelUser = createTestUser();
+        when(userRepository.findByEmail(VALID_EMAIL)).thenReturn(Optional.of(modelUser));
+        when(userRepository.findById(modelUser.getId())).thenReturn(Optional.of(modelUser));
+        when(userRepository.save(modelUser)).thenReturn(modelUser);
+        userDetailsService.loadUserByUsername(VALID_EMAIL);
+
+        userService.updateProfileInfo(modelUser, new UserUpdateRequestDto("Jack", "Smith"));
+        userDetailsService.loadUserByUsername(VALID_EMAIL);
+
+        verify(userRepository, times(2)).findByEmail(VALID_EMAIL);
+    }
+
+    private User createTestUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(VALID_EMAIL);
+        user.setFirstName("John");
+        user.setLastName("Smith");
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,196 @@
+package carrent.service.car;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.car.CarInventoryDto;
+import carrent.dto.rental.RentalPeriodDto;
+import carrent.repository.car.CarRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class CarAvailabilityIndexTest {
+    private static final Long FIRST_CAR_ID = 1L;
+    private static final Long SECOND_CAR_ID = 2L;
+    private static final Long THIRD_CAR_ID = 3L;
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate PAST = TODAY.minusDays(30);
+    @Mock
+    private CarRepository carRepository;
+    @Mock
+    private RentalRepository rentalRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private CarAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CarAvailabilityIndex(carRepository, rentalRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Find available Cars - Units in open rentals count towards the fleet")
+    void findAvailableCarIds_OpenRentals_CountsRentedUnitsAsOccupied() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 0),
+                        new CarInventoryDto(SECOND_CAR_ID, 1)),
+                List.of(openRental(1L, FIRST_CAR_ID, TODAY.minusDays(2), TODAY.plusDays(3)),
+                        openRental(2L, SECOND_CAR_ID, TODAY, TODAY.plusDays(3))));
+
+        assertEquals(List.of(SECOND_CAR_ID),
+                findAvailable(TODAY.plusDays(1), TODAY.plusDays(2)));
+        assertEquals(List.of(FIRST_CAR_ID, SECOND_CAR_ID),
+                findAvailable(TODAY.plusDays(3), TODAY.plusDays(4)));
+    }
+
+    @Test
+    @DisplayName("Find available Cars - Overdue rental occupies its Car until tomorrow")
+    void findAvailableCarIds_OverdueRental_OccupiesCarUntilTomorrow() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 0)),
+                List.of(openRental(1L, FIRST_CAR_ID, TODAY.minusDays(5), TODAY.minusDays(1))));
+
+        assertEquals(List.of(), findAvailable(TODAY, TODAY));
+        assertEquals(List.of(FIRST_CAR_ID), findAvailable(TODAY.plusDays(1), TODAY.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Find available Cars - Checks peak occupancy, not the number of overlaps")
+    void findAvailableCarIds_OverlapsAboveCapacity_ChecksPeakOccupancy() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 2),
+                        new CarInventoryDto(SECOND_CAR_ID, 2)),
+                List.of(finishedRental(1L, FIRST_CAR_ID, PAST, PAST.plusDays(2)),
+                        finishedRental(2L, FIRST_CAR_ID, PAST.plusDays(3), PAST.plusDays(5)),
+                        finishedRental(3L, SECOND_CAR_ID, PAST, PAST.plusDays(2)),
+                        finishedRental(4L, SECOND_CAR_ID, PAST.plusDays(1), PAST.plusDays(4)),
+                        finishedRental(5L, SECOND_CAR_ID, PAST.plusDays(3), PAST.plusDays(5))));
+
+        assertEquals(List.of(FIRST_CAR_ID), findAvailable(PAST, PAST.plusDays(5)));
+        assertEquals(List.of(FIRST_CAR_ID, SECOND_CAR_ID),
+                findAvailable(PAST.plusDays(2), PAST.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("Return rental - Frees the Car from the actual return date")
+    void rentalReturned_OpenRental_FreesCarFromActualReturnDate() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 1)), List.of());
+
+        index.rentalCreated(1L, FIRST_CAR_ID, TODAY, TODAY.plusDays(3));
+        index.carSaved(FIRST_CAR_ID, 0);
+        assertEquals(List.of(), findAvailable(TODAY.plusDays(1), TODAY.plusDays(2)));
+
+        index.rentalReturned(1L, FIRST_CAR_ID, TODAY, TODAY);
+        assertEquals(List.of(FIRST_CAR_ID), findAvailable(TODAY.plusDays(1), TODAY.plusDays(2)));
+        assertEquals(List.of(), findAvailable(TODAY, TODAY));
+    }
+
+    @Test
+    @DisplayName("Save and delete Car - Adds, resizes and removes its calendar")
+    void carSavedAndDeleted_ChangedFleet_UpdatesCalendars() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 1)),
+                List.of(finishedRental(1L, FIRST_CAR_ID, PAST, PAST.plusDays(3))));
+
+        index.carSaved(SECOND_CAR_ID, 1);
+        index.carSaved(FIRST_CAR_ID, 0);
+        assertEquals(List.of(SECOND_CAR_ID), findAvailable(PAST, PAST));
+
+        index.carSaved(FIRST_CAR_ID, 2);
+        index.carDeleted(SECOND_CAR_ID);
+        assertEquals(List.of(FIRST_CAR_ID), findAvailable(PAST, PAST));
+    }
+
+    @Test
+    @DisplayName("Find available Cars with offset and limit - Returns requested page in ID order")
+    void findAvailableCarIds_OffsetAndLimit_ReturnsPageInIdOrder() {
+        rebuild(List.of(new CarInventoryDto(THIRD_CAR_ID, 1),
+                        new CarInventoryDto(FIRST_CAR_ID, 1),
+                        new CarInventoryDto(SECOND_CAR_ID, 1)),
+                List.of());
+
+        assertEquals(List.of(SECOND_CAR_ID, THIRD_CAR_ID),
+                index.findAvailableCarIds(TODAY, TODAY, 1, 2));
+        assertEquals(List.of(FIRST_CAR_ID), index.findAvailableCarIds(TODAY, TODAY, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Rebuild while a rental is created - Keeps the rental in the new calendars")
+    void rebuild_RentalCreatedDuringRebuild_ReplaysRental() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 1)), List.of());
+        when(carRepository.findAllInventories()).thenAnswer(invocation -> {
+            index.rentalCreated(1L, FIRST_CAR_ID, TODAY, TODAY.plusDays(3));
+            index.carSaved(FIRST_CAR_ID, 0);
+            return List.of(new CarInventoryDto(FIRST_CAR_ID, 1));
+        });
+        when(rentalRepository.streamAllRentalPeriods()).thenReturn(Stream.empty());
+
+        index.rebuild();
+
+        assertEquals(List.of(), findAvailable(TODAY.plusDays(1), TODAY.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("Rebuild whose snapshot already has the new rental - Doesn't count it twice")
+    void rebuild_RentalCreatedAndReadDuringRebuild_CountsRentalOnce() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 2)), List.of());
+        when(carRepository.findAllInventories()).thenAnswer(invocation -> {
+            index.rentalCreated(1L, FIRST_CAR_ID, TODAY, TODAY.plusDays(3));
+            return List.of(new CarInventoryDto(FIRST_CAR_ID, 1));
+        });
+        when(rentalRepository.streamAllRentalPeriods()).thenAnswer(invocation ->
+                Stream.of(openRental(1L, FIRST_CAR_ID, TODAY, TODAY.plusDays(3))));
+
+        index.rebuild();
+
+        assertEquals(List.of(FIRST_CAR_ID), findAvailable(TODAY.plusDays(1), TODAY.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("Rebuild whose snapshot already has the return - Doesn't reopen the rental")
+    void rebuild_RentalReturnedAndReadDuringRebuild_KeepsRentalFinished() {
+        rebuild(List.of(new CarInventoryDto(FIRST_CAR_ID, 1)),
+                List.of(openRental(1L, FIRST_CAR_ID, PAST, TODAY.plusDays(3))));
+        when(carRepository.findAllInventories()).thenAnswer(invocation -> {
+            index.rentalReturned(1L, FIRST_CAR_ID, PAST, PAST.plusDays(2));
+            return List.of(new CarInventoryDto(FIRST_CAR_ID, 2));
+        });
+        when(rentalRepository.streamAllRentalPeriods()).thenAnswer(invocation ->
+                Stream.of(finishedRental(1L, FIRST_CAR_ID, PAST, PAST.plusDays(2))));
+
+        index.rebuild();
+        index.rentalReturned(1L, FIRST_CAR_ID, PAST, PAST.plusDays(2));
+
+        assertEquals(List.of(FIRST_CAR_ID), findAvailable(PAST, PAST.plusDays(1)));
+        assertEquals(List.of(FIRST_CAR_ID), findAvailable(TODAY, TODAY.plusDays(2)));
+    }
+
+    private void rebuild(List<CarInventoryDto> cars, List<RentalPeriodDto> rentals) {
+        when(carRepository.findAllInventories()).thenReturn(cars);
+        when(rentalRepository.streamAllRentalPeriods()).thenReturn(rentals.stream());
+        index.rebuild();
+    }
+
+    private List<Long> findAvailable(LocalDate from, LocalDate to) {
+        return index.findAvailableCarIds(from, to, 0, UNLIMITED);
+    }
+
+    private RentalPeriodDto openRental(Long rentalId, Long carId, LocalDate rentalDate,
+            LocalDate returnDate) {
+        return new RentalPeriodDto(rentalId, carId, rentalDate, returnDate, null);
+    }
+
+    private RentalPeriodDto finishedRental(Long rentalId, Long carId, LocalDate rentalDate,
+            LocalDate actualReturnDate) {
+        return new RentalPeriodDto(
+                rentalId, carId, rentalDate, actualReturnDate, actualReturnDate);
+    }
+}
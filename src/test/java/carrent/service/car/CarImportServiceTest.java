@@ -0,0 +1,188 @@
+package carrent.service.car;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.car.CarDto;
+import carrent.dto.car.CarImportErrorDto;
+import carrent.dto.car.CarImportResultDto;
+import carrent.exception.InvalidImportFileException;
+import carrent.model.Car;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import carrent.service.car.impl.CarImportServiceImpl;
+import carrent.service.car.impl.CarSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class CarImportServiceTest {
+    private static final int BATCH_SIZE = 2;
+    private static final String INVALID_TYPE_MESSAGE = "Invalid car type, must be one of "
+            + "the following: [SEDAN, SUV, HATCHBACK, UNIVERSAL]";
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private CarAvailabilityIndex carAvailabilityIndex;
+    @Mock
+    private CarSearchIndex carSearchIndex;
+    private CarImportService carImportService;
+
+    @BeforeEach
+    void setUp() {
+        carImportService = new CarImportServiceImpl(jdbcTemplate, transactionManager,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                carAvailabilityIndex, carSearchIndex, BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Import Cars from CSV - Inserts valid rows in batches and reports invalid ones")
+    void importCars_CsvWithInvalidRows_InsertsValidRowsAndReportsErrors() throws IOException {
+        String csv = """
+                brand,model,type,inventory,daily_fee
+                BMW,X7,suv,2,139.99
+                Opel,Astra,TRUCK,3,40.99
+                Audi,"A4, ""Avant"" quattro",UNIVERSAL,1,89.99
+
+                Kia,Ceed,HATCHBACK,-1,39.99
+                Ford,Focus,HATCHBACK,many,39.99
+                Fiat,500,HATCHBACK
+                Skoda,Octavia,SEDAN,4,59.99
+                """;
+        when(jdbcTemplate.execute(anyConnectionCallback()))
+                .thenReturn(new long[] {10L, 11L}, new long[] {12L});
+
+        CarImportResultDto actual = carImportService.importCars(
+                CarImportService.Format.CSV, toInputStream(csv));
+
+        assertEquals(new CarImportResultDto(3, 4, List.of(
+                new CarImportErrorDto(2, INVALID_TYPE_MESSAGE),
+                new CarImportErrorDto(4, "inventory must be greater than or equal to 0"),
+                new CarImportErrorDto(5, "inventory and daily_fee must be numbers"),
+                new CarImportErrorDto(6, "Expected 5 values but found 3"))), actual);
+        verify(jdbcTemplate, times(2)).execute(anyConnectionCallback());
+        verify(carAvailabilityIndex).carSaved(10L, 2);
+        verify(carAvailabilityIndex).carSaved(11L, 1);
+        verify(carAvailabilityIndex).carSaved(12L, 4);
+        verify(carSearchIndex).carSaved(new CarDto(
+                10L, "X7", "BMW", Car.Type.SUV, 2, new BigDecimal("139.99")));
+        verify(carSearchIndex).carSaved(new CarDto(
+                11L, "A4, \"Avant\" quattro", "Audi", Car.Type.UNIVERSAL, 1,
+                new BigDecimal("89.99")));
+        verify(carSearchIndex).carSaved(new CarDto(
+                12L, "Octavia", "Skoda", Car.Type.SEDAN, 4, new BigDecimal("59.99")));
+        verifyNoMoreInteractions(jdbcTemplate, carAvailabilityIndex, carSearchIndex);
+    }
+
+    @Test
+    @DisplayName("Import Cars from JSON - Reports rows that can't be read or are invalid")
+    void importCars_JsonWithInvalidRows_InsertsValidRowsAndReportsErrors() throws IOException {
+        String json = """
+                [{"model": "X7", "brand": "BMW", "type": "SUV", "inventory": 2,
+                  "dailyFee": 139.99},
+                 {"model": "Astra", "brand": "Opel", "type": "HATCHBACK", "inventory": "many",
+                  "dailyFee": 40.99},
+                 {"model": "", "brand": "Audi", "inventory": 1}]""";
+        when(jdbcTemplate.execute(anyConnectionCallback())).thenReturn(new long[] {10L});
+
+        CarImportResultDto actual = carImportService.importCars(
+                CarImportService.Format.JSON, toInputStream(json));
+
+        assertEquals(1, actual.imported());
+        assertEquals(2, actual.failed());
+        assertEquals(List.of(2L, 3L), actual.errors().stream()
+                .map(CarImportErrorDto::row)
+                .toList());
+        assertEquals("dailyFee must not be null, model must not be blank, "
+                + "type must not be blank", actual.errors().get(1).message());
+        verify(carAvailabilityIndex).carSaved(10L, 2);
+    }
+
+    @Test
+    @DisplayName("Import Cars from truncated JSON - Keeps rows read before the error")
+    void importCars_TruncatedJson_ImportsRowsBeforeTheError() throws IOException {
+        String json = """
+                [{"model": "X7", "brand": "BMW", "type": "SUV", "inventory": 2,
+                  "dailyFee": 139.99},
+                 {"model": "Astra", "brand\"""";
+        when(jdbcTemplate.execute(anyConnectionCallback())).thenReturn(new long[] {10L});
+
+        CarImportResultDto actual = carImportService.importCars(
+                CarImportService.Format.JSON, toInputStream(json));
+
+        assertEquals(1, actual.imported());
+        assertEquals(1, actual.failed());
+        assertEquals(2, actual.errors().get(0).row());
+    }
+
+    @Test
+    @DisplayName("Import Cars rejected by the database - Retries the batch row by row")
+    void importCars_BatchRejected_RetriesRowByRow() throws IOException {
+        String csv = """
+                model,brand,type,inventory,daily_fee
+                X7,BMW,SUV,2,139.99
+                Astra,Opel,HATCHBACK,3,99999999999.99
+                """;
+        when(jdbcTemplate.execute(anyConnectionCallback()))
+                .thenThrow(new DataIntegrityViolationException("Out of range"))
+                .thenReturn(new long[] {10L})
+                .thenThrow(new DataIntegrityViolationException("Out of range"));
+
+        CarImportResultDto actual = carImportService.importCars(
+                CarImportService.Format.CSV, toInputStream(csv));
+
+        assertEquals(new CarImportResultDto(1, 1,
+                List.of(new CarImportErrorDto(2, "Out of range"))), actual);
+        verify(jdbcTemplate, times(3)).execute(anyConnectionCallback());
+        verify(carAvailabilityIndex).carSaved(10L, 2);
+        verifyNoMoreInteractions(carAvailabilityIndex);
+    }
+
+    @Test
+    @DisplayName("Import Cars from a file without rows - Throws InvalidImportFileException")
+    void importCars_InvalidFile_ThrowsInvalidImportFileException() {
+        InvalidImportFileException notAnArray = assertThrows(InvalidImportFileException.class,
+                () -> carImportService.importCars(CarImportService.Format.JSON,
+                        toInputStream("{\"model\": \"X7\"}")));
+        InvalidImportFileException missingColumn = assertThrows(
+                InvalidImportFileException.class,
+                () -> carImportService.importCars(CarImportService.Format.CSV,
+                        toInputStream("model,brand,type,inventory\nX7,BMW,SUV,2\n")));
+
+        assertEquals("The JSON import must be an array of cars", notAnArray.getMessage());
+        assertEquals("The CSV header must contain the columns "
+                + "[model, brand, type, inventory, daily_fee]", missingColumn.getMessage());
+        verifyNoInteractions(jdbcTemplate, carAvailabilityIndex, carSearchIndex);
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ConnectionCallback<long[]> anyConnectionCallback() {
+        return any();
+    }
+}
@@ -0,0 +1,155 @@
+package carrent.service.car;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.car.CarDto;
+import carrent.dto.car.CarSearchResultDto;
+import carrent.dto.car.FacetCountDto;
+import carrent.exception.InvalidSearchFilterException;
+import carrent.model.Car;
+import carrent.repository.car.CarRepository;
+import carrent.service.car.impl.CarSearchIndex;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class CarSearchIndexTest {
+    private static final BigDecimal[] FEE_BOUNDS = {
+            BigDecimal.valueOf(100), BigDecimal.valueOf(50)};
+    private static final int PAGE_SIZE = 20;
+    private static final CarDto BMW_X5 = createCar(1L, "X5", "BMW", Car.Type.SUV, 120);
+    private static final CarDto BMW_X7 = createCar(2L, "X7", "BMW", Car.Type.SUV, 140);
+    private static final CarDto BMW_SERIES = createCar(3L, "3 Series", "BMW", Car.Type.SEDAN, 90);
+    private static final CarDto OPEL_ASTRA =
+            createCar(4L, "Astra", "Opel", Car.Type.HATCHBACK, 40);
+    @Mock
+    private CarRepository carRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private CarSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CarSearchIndex(carRepository, transactionManager, FEE_BOUNDS);
+        when(carRepository.findAllCarDtos())
+                .thenReturn(List.of(BMW_X5, BMW_X7, BMW_SERIES, OPEL_ASTRA));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Search Cars - Matches every word, the last one as a prefix, and counts facets")
+    void search_QueryWithPrefix_ReturnsMatchesAndFacets() {
+        CarSearchResultDto actual = index.search("bmw x", List.of(), List.of(), 0, PAGE_SIZE);
+
+        assertEquals(new CarSearchResultDto(2, List.of(BMW_X5, BMW_X7),
+                List.of(new FacetCountDto("SEDAN", 0), new FacetCountDto("SUV", 2),
+                        new FacetCountDto("HATCHBACK", 0), new FacetCountDto("UNIVERSAL", 0)),
+                List.of(new FacetCountDto("0-50", 0), new FacetCountDto("50-100", 0),
+                        new FacetCountDto("100+", 2))), actual);
+    }
+
+    @Test
+    @DisplayName("Search Cars with filters - Counts each facet without its own filter")
+    void search_TypeAndFeeFilters_CountsFacetsAcrossOtherFilters() {
+        CarSearchResultDto actual = index.search(
+                "BMW", List.of(Car.Type.SEDAN), List.of("50-100", "100+"), 0, PAGE_SIZE);
+
+        assertEquals(1, actual.total());
+        assertEquals(List.of(BMW_SERIES), actual.cars());
+        assertEquals(List.of(new FacetCountDto("SEDAN", 1), new FacetCountDto("SUV", 2),
+                new FacetCountDto("HATCHBACK", 0), new FacetCountDto("UNIVERSAL", 0)),
+                actual.types());
+        assertEquals(List.of(new FacetCountDto("0-50", 0), new FacetCountDto("50-100", 1),
+                new FacetCountDto("100+", 0)), actual.dailyFees());
+    }
+
+    @Test
+    @DisplayName("Search Cars without a query - Pages through every car in ID order")
+    void search_EmptyQueryWithOffset_ReturnsPageInIdOrder() {
+        CarSearchResultDto actual = index.search(" ", List.of(), List.of(), 1, 2);
+
+        assertEquals(4, actual.total());
+        assertEquals(List.of(BMW_X7, BMW_SERIES), actual.cars());
+    }
+
+    @Test
+    @DisplayName("Search Cars with an unknown fee range - Throws InvalidSearchFilterException")
+    void search_UnknownFeeRange_ThrowsInvalidSearchFilterException() {
+        InvalidSearchFilterException exception = assertThrows(
+                InvalidSearchFilterException.class,
+                () -> index.search(null, List.of(), List.of("10-20"), 0, PAGE_SIZE));
+
+        assertEquals("Invalid daily fee range, must be one of the following: "
+                + "[0-50, 50-100, 100+]", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Save, delete and rent Cars - Updates terms, facets and inventory")
+    void carSavedDeletedAndRented_ChangedCars_UpdatesIndex() {
+        CarDto renamedAstra = createCar(4L, "Corsa", "Opel", Car.Type.HATCHBACK, 60);
+        index.carSaved(renamedAstra);
+        index.carDeleted(BMW_X7.getId());
+        index.inventoryChanged(BMW_X5.getId(), 1);
+
+        assertEquals(0, index.search("astra", List.of(), List.of(), 0, PAGE_SIZE).total());
+        assertEquals(List.of(renamedAstra),
+                index.search("cor", List.of(), List.of("50-100"), 0, PAGE_SIZE).cars());
+        CarSearchResultDto bmws = index.search("bmw", List.of(), List.of(), 0, PAGE_SIZE);
+        assertEquals(List.of(new CarDto(1L, "X5", "BMW", Car.Type.SUV, 1,
+                BigDecimal.valueOf(120)), BMW_SERIES), bmws.cars());
+        assertEquals(Map.of(1L, 1, 3L, 2, 4L, 2), index.inventories());
+    }
+
+    @Test
+    @DisplayName("Rebuild while a Car is rented - Keeps the inventory change in the new index")
+    void rebuild_InventoryChangedDuringRebuild_ReplaysChange() {
+        when(carRepository.findAllCarDtos()).thenAnswer(invocation -> {
+            index.inventoryChanged(BMW_X5.getId(), 1);
+            return List.of(BMW_X5, BMW_X7, BMW_SERIES, OPEL_ASTRA);
+        });
+
+        index.rebuild();
+
+        assertEquals(Map.of(1L, 1, 2L, 2, 3L, 2, 4L, 2), index.inventories());
+    }
+
+    @Test
+    @DisplayName("Rebuild that already read a rental - Doesn't apply the inventory change twice")
+    void rebuild_InventoryChangeAlreadyRead_KeepsInventory() {
+        CarDto rentedX5 = new CarDto(1L, "X5", "BMW", Car.Type.SUV, 1, BigDecimal.valueOf(120));
+        when(carRepository.findAllCarDtos()).thenAnswer(invocation -> {
+            index.inventoryChanged(BMW_X5.getId(), 1);
+            return List.of(rentedX5, BMW_X7, BMW_SERIES, OPEL_ASTRA);
+        });
+
+        index.rebuild();
+
+        assertEquals(Map.of(1L, 1, 2L, 2, 3L, 2, 4L, 2), index.inventories());
+    }
+
+    @Test
+    @DisplayName("Suggest search words - Returns words with the prefix, most common first")
+    void suggest_Prefix_ReturnsMostCommonWordsFirst() {
+        index.carSaved(createCar(5L, "Xceed", "Kia", Car.Type.SUV, 70));
+
+        assertEquals(List.of("x5", "x7", "xceed"), index.suggest("X", 10));
+        assertEquals(List.of("bmw"), index.suggest("opel b", 10));
+        assertEquals(List.of("x5"), index.suggest("x", 1));
+        assertEquals(List.of(), index.suggest("", 10));
+    }
+
+    private static CarDto createCar(Long id, String model, String brand, Car.Type type,
+            int dailyFee) {
+        return new CarDto(id, model, brand, type, 2, BigDecimal.valueOf(dailyFee));
+    }
+}
@@ -0,0 +1,128 @@
+package carrent.service.car;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import carrent.config.CacheConfig;
+import carrent.dto.car.CarDto;
+import carrent.dto.car.CreateCarRequestDto;
+import carrent.mapper.CarMapper;
+import carrent.model.Car;
+import carrent.repository.car.CarRepository;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import carrent.service.car.impl.CarSearchIndex;
+import carrent.service.car.impl.CarServiceImpl;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig({CacheConfig.class, CarServiceImpl.class})
+@TestPropertySource(properties = {
+        "cache.cars.spec=maximumSize=10,recordStats",
+        "cache.car-pages.spec=maximumSize=10,recordStats",
+        "cache.user-details.spec=maximumSize=10,recordStats"
+})
+public class CarServiceCachingTest {
+    private static final Long VALID_CAR_ID = 1L;
+    private static final Pageable SAMPLE_PAGEABLE = PageRequest.of(0, 10);
+    @MockBean
+    private CarRepository carRepository;
+    @MockBean
+    private CarMapper carMapper;
+    @MockBean
+    private CarAvailabilityIndex carAvailabilityIndex;
+    @MockBean
+    private CarSearchIndex carSearchIndex;
+    @Autowired
+    private CarService carService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("Find Car by ID twice - Reads the database once")
+    void findById_CalledTwice_ReadsRepositoryOnce() {
+        Car modelCar = createTestCar();
+        CarDto expected = createTestCarDto();
+        when(carRepository.findById(VALID_CAR_ID)).thenReturn(Optional.of(modelCar));
+        when(carMapper.toDtoFromModel(modelCar)).thenReturn(expected);
+
+        carService.findById(VALID_CAR_ID);
+        CarDto actual = carService.findById(VALID_CAR_ID);
+
+        assertEquals(expected, actual);
+        verify(carRepository, times(1)).findById(VALID_CAR_ID);
+    }
+
+    @Test
+    @DisplayName("Update cached Car - Next read goes to the database")
+    void updateById_CachedCar_EvictsCar() {
+        Car modelCar = createTestCar();
+        when(carRepository.findById(VALID_CAR_ID)).thenReturn(Optional.of(modelCar));
+        when(carRepository.save(any())).thenReturn(modelCar);
+        when(carMapper.toModelFromCreate(any())).thenReturn(modelCar);
+        when(carMapper.toDtoFromModel(modelCar)).thenReturn(createTestCarDto());
+        carService.findById(VALID_CAR_ID);
+
+        carService.updateById(VALID_CAR_ID, createTestRequestDto());
+        carService.findById(VALID_CAR_ID);
+
+        verify(carRepository, times(2)).findById(VALID_CAR_ID);
+    }
+
+    @Test
+    @DisplayName("Save a new Car after listing Cars - Next listing goes to the database")
+    void save_CachedPage_EvictsPages() {
+        Car modelCar = createTestCar();
+        when(carRepository.findAll(SAMPLE_PAGEABLE)).thenReturn(new PageImpl<>(List.of(modelCar)));
+        when(carRepository.save(any())).thenReturn(modelCar);
+        when(carMapper.toModelFromCreate(any())).thenReturn(modelCar);
+        when(carMapper.toDtoFromModel(modelCar)).thenReturn(createTestCarDto());
+        carService.findAll(SAMPLE_PAGEABLE);
+        carService.findAll(SAMPLE_PAGEABLE);
+
+        carService.save(createTestRequestDto());
+        carService.findAll(SAMPLE_PAGEABLE);
+
+        verify(carRepository, times(2)).findAll(SAMPLE_PAGEABLE);
+    }
+
+    private Car createTestCar() {
+        Car car = new Car();
+        car.setId(VALID_CAR_ID);
+        car.setBrand("BMW");
+        car.setModel("X7");
+        car.setType(Car.Type.SUV);
+        car.setInventory(2);
+        car.setDailyFee(BigDecimal.valueOf(199.99));
+        return car;
+    }
+
+    private CarDto createTestCarDto() {
+        return new CarDto(
+                VALID_CAR_ID, "X7", "BMW", Car.Type.SUV, 2, BigDecimal.valueOf(199.99));
+    }
+
+    private CreateCarRequestDto createTestRequestDto() {
+        return new CreateCarRequestDto(
+                "X7", "BMW", Car.Type.SUV.name(), 2, BigDecimal.valueOf(199.99));
+    }
+}
@@ -11,13 +11,18 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import carrent.dto.car.CarDto;
+import carrent.dto.car.CarSearchResultDto;
 import carrent.dto.car.CreateCarRequestDto;
+import carrent.exception.InvalidDateRangeException;
 import carrent.mapper.CarMapper;
 import carrent.model.Car;
 import carrent.repository.car.CarRepository;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import carrent.service.car.impl.CarSearchIndex;
 import carrent.service.car.impl.CarServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -41,10 +46,16 @@ public class CarServiceTest {
     private static final String SAMPLE_BRAND = "BMW";
     private static final String SAMPLE_MODEL = "X7";
     private static final String SAMPLE_INVALID_TYPE_NAME = "RANDOM TYPE";
+    private static final LocalDate SAMPLE_FROM = LocalDate.of(2024, 5, 1);
+    private static final LocalDate SAMPLE_TO = LocalDate.of(2024, 5, 7);
     @Mock
     private CarRepository carRepository;
     @Mock
     private CarMapper carMapper;
+    @Mock
+    private CarAvailabilityIndex carAvailabilityIndex;
+    @Mock
+    private CarSearchIndex carSearchIndex;
     @InjectMocks
     private CarServiceImpl carService;
 
@@ -61,6 +72,8 @@ public class CarServiceTest {
         CarDto actual = carService.save(validRequest);
 
         assertEquals(expected, actual);
+        verify(carAvailabilityIndex, times(1)).carSaved(VALID_CAR_ID, SAMPLE_INVENTORY);
+        verify(carSearchIndex, times(1)).carSaved(expected);
         verify(carRepository, times(1)).save(any());
         verify(carMapper, times(1)).toDtoFromModel(any());
         verify(carMapper, times(1)).toModelFromCreate(any());
@@ -155,12 +168,74 @@ public class CarServiceTest {
         CarDto actual = carService.updateById(VALID_CAR_ID, requestDto);
 
         assertEquals(expected, actual);
+        verify(carAvailabilityIndex, times(1)).carSaved(VALID_CAR_ID, SAMPLE_INVENTORY);
+        verify(carSearchIndex, times(1)).carSaved(expected);
         verify(carRepository, times(1)).save(modelCar);
         verify(carMapper, times(1)).toModelFromCreate(requestDto);
         verify(carMapper, times(1)).toDtoFromModel(modelCar);
         verifyNoMoreInteractions(carRepository, carMapper);
     }
 
+    @Test
+    @DisplayName("Find available Cars in a date range - Returns Car DTOs in index order")
+    void findAvailable_ValidRange_ReturnsCarDtosInIndexOrder() {
+        Car firstModelCar = createTestCar(VALID_CAR_ID);
+        Car secondModelCar = createTestCar(2L);
+        CarDto firstCarDto = createTestCarDto(firstModelCar);
+        CarDto secondCarDto = createTestCarDto(secondModelCar);
+        Pageable pageable = PageRequest.of(1, 2);
+        List<Long> carIds = List.of(secondModelCar.getId(), firstModelCar.getId());
+        when(carAvailabilityIndex.findAvailableCarIds(SAMPLE_FROM, SAMPLE_TO, 2, 2))
+                .thenReturn(carIds);
+        when(carRepository.findAllById(carIds))
+                .thenReturn(List.of(firstModelCar, secondModelCar));
+        when(carMapper.toDtoFromModel(firstModelCar)).thenReturn(firstCarDto);
+        when(carMapper.toDtoFromModel(secondModelCar)).thenReturn(secondCarDto);
+
+        List<CarDto> actual = carService.findAvailable(SAMPLE_FROM, SAMPLE_TO, pageable);
+
+        assertIterableEquals(List.of(secondCarDto, firstCarDto), actual);
+    }
+
+    @Test
+    @DisplayName("Find available Cars with end before start - Throws InvalidDateRangeException")
+    void findAvailable_EndBeforeStart_ThrowsInvalidDateRangeException() {
+        String expected = "The end date can't be before the start date";
+
+        InvalidDateRangeException exception = assertThrows(InvalidDateRangeException.class,
+                () -> carService.findAvailable(SAMPLE_TO, SAMPLE_FROM, PageRequest.of(0, 10)));
+        String actual = exception.getMessage();
+
+        assertEquals(expected, actual);
+        verifyNoMoreInteractions(carRepository, carMapper, carAvailabilityIndex);
+    }
+
+    @Test
+    @DisplayName("Search Cars - Delegates to the search index with the page bounds")
+    void search_QueryFiltersAndPage_ReturnsIndexResult() {
+        Pageable pageable = PageRequest.of(2, 10);
+        CarSearchResultDto expected = new CarSearchResultDto(0, List.of(), List.of(), List.of());
+        when(carSearchIndex.search("bmw x", List.of(Car.Type.SUV), List.of("50-100"), 20, 10))
+                .thenReturn(expected);
+
+        CarSearchResultDto actual = carService.search(
+                "bmw x", List.of(Car.Type.SUV), List.of("50-100"), pageable);
+
+        assertEquals(expected, actual);
+        verifyNoMoreInteractions(carRepository, carMapper);
+    }
+
+    @Test
+    @DisplayName("Suggest search words with a too large limit - Caps the number of suggestions")
+    void suggest_TooLargeLimit_CapsLimit() {
+        List<String> expected = List.of("bmw", "buick");
+        when(carSearchIndex.suggest("b", 20)).thenReturn(expected);
+
+        List<String> actual = carService.suggest("b", 1000);
+
+        assertEquals(expected, actual);
+    }
+
     private CreateCarRequestDto createTestRequestDto(String type) {
         return new CreateCarRequestDto(
                 SAMPLE_MODEL,
@@ -0,0 +1,108 @@
+package carrent.service.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.BasicRentalDto;
+import carrent.model.Payment;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.service.export.impl.ExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTest {
+    private static final LocalDateTime SAMPLE_CREATED_AT = LocalDateTime.of(2024, 1, 6, 10, 0);
+    @Mock
+    private RentalRepository rentalRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    @InjectMocks
+    private ExportServiceImpl exportService;
+
+    @Test
+    @DisplayName("Export Rentals as CSV - Writes header and one row per Rental, closes stream")
+    void exportRentals_Csv_WritesHeaderAndRows() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(rentalRepository.streamAllBasicRentals()).thenReturn(Stream.of(
+                        new BasicRentalDto(1L, LocalDate.of(2021, 1, 11),
+                                LocalDate.of(2021, 2, 8), null, 1L, 2L),
+                        new BasicRentalDto(2L, LocalDate.of(2024, 1, 6),
+                                LocalDate.of(2024, 1, 9), LocalDate.of(2024, 1, 8), 1L, 1L))
+                .onClose(() -> closed.set(true)));
+        String expected = """
+                id,rental_date,return_date,actual_return_date,car_id,user_id
+                1,2021-01-11,2021-02-08,,1,2
+                2,2024-01-06,2024-01-09,2024-01-08,1,1
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportRentals(ExportService.Format.CSV, output);
+
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("Export Payments as NDJSON - Writes one JSON document per line")
+    void exportPayments_Ndjson_WritesOneDocumentPerLine() throws IOException {
+        List<PaymentDto> expected = List.of(createTestPaymentDto(1L, "https://stripe.com/1"),
+                createTestPaymentDto(2L, "https://stripe.com/2"));
+        when(paymentRepository.streamAllPaymentDtos()).thenReturn(expected.stream());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportPayments(ExportService.Format.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(expected.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(expected.get(i), objectMapper.readValue(lines[i], PaymentDto.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Export Payments as CSV - Quotes values containing delimiters or quotes")
+    void exportPayments_CsvValueWithDelimiter_QuotesValue() throws IOException {
+        when(paymentRepository.streamAllPaymentDtos()).thenReturn(Stream.of(
+                createTestPaymentDto(1L, "https://stripe.com/pay?a=1,b=\"2\"")));
+        String expected = """
+                id,status,type,rental_id,amount_to_pay,session_url,session_id,created_at
+                1,PAID,PAYMENT,1,81.98,"https://stripe.com/pay?a=1,b=""2""\",session_1,\
+                2024-01-06T10:00
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportPayments(ExportService.Format.CSV, output);
+
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+    }
+
+    private PaymentDto createTestPaymentDto(Long id, String sessionUrl) {
+        return new PaymentDto(id, Payment.Status.PAID, Payment.Type.PAYMENT, id,
+                BigDecimal.valueOf(81.98), sessionUrl, "session_" + id, SAMPLE_CREATED_AT);
+    }
+}
@@ -0,0 +1,61 @@
+package carrent.service.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import carrent.model.Payment;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.rental.RentalRepository;
+import carrent.service.car.impl.CarSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class BusinessGaugesTest {
+    private static final String CAR_INVENTORY_METRIC = "cars.inventory";
+    @Mock
+    private RentalRepository rentalRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private CarSearchIndex carSearchIndex;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BusinessGauges businessGauges;
+
+    @BeforeEach
+    void setUp() {
+        businessGauges = new BusinessGauges(
+                rentalRepository, paymentRepository, carSearchIndex, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Refresh gauges - Publishes rental, payment and per-car inventory values")
+    void refresh_CurrentState_UpdatesGauges() {
+        when(rentalRepository.countByActualReturnDateIsNull()).thenReturn(7L, 6L);
+        when(paymentRepository.countByStatus(Payment.Status.PENDING)).thenReturn(3L, 2L);
+        when(carSearchIndex.inventories())
+                .thenReturn(Map.of(1L, 2, 2L, 0))
+                .thenReturn(Map.of(1L, 1));
+
+        businessGauges.refresh();
+
+        assertEquals(7, meterRegistry.get("rentals.active").gauge().value());
+        assertEquals(3, meterRegistry.get("payments.pending").gauge().value());
+        assertEquals(2, meterRegistry.get(CAR_INVENTORY_METRIC).tag("car_id", "1")
+                .gauge().value());
+        assertEquals(0, meterRegistry.get(CAR_INVENTORY_METRIC).tag("car_id", "2")
+                .gauge().value());
+
+        businessGauges.refresh();
+
+        assertEquals(6, meterRegistry.get("rentals.active").gauge().value());
+        assertEquals(2, meterRegistry.get("payments.pending").gauge().value());
+        assertEquals(1, meterRegistry.get(CAR_INVENTORY_METRIC).gauges().size());
+    }
+}
@@ -0,0 +1,153 @@
+package carrent.service.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import carrent.exception.NotificationDeliveryException;
+import carrent.exception.TelegramExecutionException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class NotificationDispatcherTest {
+    private static final Duration COALESCE_WINDOW = Duration.ofMillis(200);
+    private static final Duration BACKOFF = Duration.ofMillis(10);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long AWAIT_SECONDS = 5;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void stopDispatcher() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Dispatch a burst of notifications - Sends one coalesced message")
+    void dispatch_BurstWithinWindow_SendsSingleMessage() throws InterruptedException {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        dispatcher = startDispatcher(text -> {
+            sent.add(text);
+            delivered.countDown();
+        }, 10);
+
+        dispatcher.dispatch("first");
+        dispatcher.dispatch("second");
+        dispatcher.dispatch("third");
+
+        assertTrue(delivered.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).contains("first"));
+        assertTrue(sent.get(0).contains("third"));
+    }
+
+    @Test
+    @DisplayName("Dispatch an oversized notification - Splits it into Telegram sized messages")
+    void dispatch_OversizedMessage_SplitsMessage() throws InterruptedException {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        dispatcher = startDispatcher(text -> {
+            sent.add(text);
+            delivered.countDown();
+        }, 10);
+
+        dispatcher.dispatch("x".repeat(NotificationDispatcher.MAX_MESSAGE_LENGTH + 1));
+
+        assertTrue(delivered.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(NotificationDispatcher.MAX_MESSAGE_LENGTH, sent.get(0).length());
+        assertEquals(1, sent.get(1).length());
+    }
+
+    @Test
+    @DisplayName("Dispatch with failing sender - Retries until the message is sent")
+    void dispatch_TransientFailure_RetriesWithBackoff() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(1);
+        dispatcher = startDispatcher(text -> {
+            if (attempts.incrementAndGet() < MAX_ATTEMPTS) {
+                throw new TelegramExecutionException("Telegram is unavailable");
+            }
+            delivered.countDown();
+        }, 10);
+
+        CompletableFuture<Void> delivery = dispatcher.dispatch("retried");
+
+        assertTrue(delivered.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+        delivery.get(AWAIT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(MAX_ATTEMPTS, attempts.get());
+        assertEquals(MAX_ATTEMPTS - 1, meterRegistry.get("notifications.send")
+                .tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Dispatch with sender failing every attempt - Fails the delivery future")
+    void dispatch_PermanentFailure_CompletesFutureExceptionally() {
+        dispatcher = startDispatcher(text -> {
+            throw new TelegramExecutionException("Telegram is unavailable");
+        }, 10);
+
+        CompletableFuture<Void> delivery = dispatcher.dispatch("lost?");
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> delivery.get(AWAIT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(NotificationDeliveryException.class, exception.getCause());
+        assertEquals(MAX_ATTEMPTS, meterRegistry.get("notifications.send")
+                .tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Dispatch an oversized notification - Retries only the failing chunk")
+    void dispatch_SecondChunkFailsOnce_DoesNotResendFirstChunk() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        dispatcher = startDispatcher(text -> {
+            if (attempts.incrementAndGet() == 2) {
+                throw new TelegramExecutionException("Telegram is unavailable");
+            }
+            sent.add(text);
+        }, 10);
+
+        dispatcher.dispatch("x".repeat(NotificationDispatcher.MAX_MESSAGE_LENGTH + 1))
+                .get(AWAIT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(3, attempts.get());
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    @DisplayName("Dispatch to a full queue - Drops the notification without blocking")
+    void dispatch_FullQueue_FailsFuture() {
+        dispatcher = new NotificationDispatcher(text -> { }, 1, 1,
+                COALESCE_WINDOW, MAX_ATTEMPTS, BACKOFF, BACKOFF, meterRegistry, Tracer.NOOP);
+
+        assertFalse(dispatcher.dispatch("queued").isDone());
+        assertTrue(dispatcher.dispatch("dropped").isCompletedExceptionally());
+        assertEquals(1, meterRegistry.get("notifications.queue.size").gauge().value());
+        assertEquals(1, meterRegistry.get("notifications.dropped").counter().count());
+        dispatcher.start();
+    }
+
+    private NotificationDispatcher startDispatcher(NotificationSender sender, int capacity) {
+        NotificationDispatcher notificationDispatcher = new NotificationDispatcher(
+                sender, capacity, 1, COALESCE_WINDOW, MAX_ATTEMPTS, BACKOFF, BACKOFF,
+                meterRegistry, Tracer.NOOP);
+        notificationDispatcher.start();
+        return notificationDispatcher;
+    }
+}
@@ -0,0 +1,65 @@
+package carrent.service.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.rental.OverdueRentalDto;
+import carrent.repository.rental.RentalRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class QueuedNotificationServiceTest {
+    private static final int OVERDUE_RENTALS_COUNT = 1000;
+    private static final LocalDate SAMPLE_RETURN_DATE = LocalDate.of(2024, 1, 9);
+    @Mock
+    private RentalRepository rentalRepository;
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+    @InjectMocks
+    private QueuedNotificationService notificationService;
+
+    @Test
+    @DisplayName("Send overdue digest for many Rentals - Dispatches chunks within Telegram limit")
+    void sendOverdueRentalsNotification_ManyOverdueRentals_DispatchesChunks() {
+        Stream<OverdueRentalDto> overdueRentals = LongStream.rangeClosed(1, OVERDUE_RENTALS_COUNT)
+                .mapToObj(id -> new OverdueRentalDto(id, id, id, SAMPLE_RETURN_DATE));
+        when(rentalRepository.streamOverdueRentals(LocalDate.now())).thenReturn(overdueRentals);
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+
+        notificationService.sendOverdueRentalsNotification();
+
+        verify(notificationDispatcher, atLeast(2)).dispatch(messages.capture());
+        List<String> dispatched = messages.getAllValues();
+        long rentalEntries = dispatched.stream()
+                .peek(message -> assertTrue(
+                        message.length() <= NotificationDispatcher.MAX_MESSAGE_LENGTH))
+                .mapToLong(message -> message.split("Rental ID: ").length - 1)
+                .sum();
+        assertEquals(OVERDUE_RENTALS_COUNT, rentalEntries);
+    }
+
+    @Test
+    @DisplayName("Send overdue digest without overdue Rentals - Dispatches a single message")
+    void sendOverdueRentalsNotification_NoOverdueRentals_DispatchesNoOverdueMessage() {
+        when(rentalRepository.streamOverdueRentals(LocalDate.now())).thenReturn(Stream.empty());
+
+        notificationService.sendOverdueRentalsNotification();
+
+        verify(notificationDispatcher, times(1)).dispatch(anyString());
+    }
+}
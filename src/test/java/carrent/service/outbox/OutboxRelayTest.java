@@ -0,0 +1,178 @@
+package carrent.service.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import carrent.config.CustomMySqlContainer;
+import carrent.dto.car.CarDto;
+import carrent.dto.payment.PaymentDto;
+import carrent.dto.rental.RentalDto;
+import carrent.exception.NotificationDeliveryException;
+import carrent.model.Car;
+import carrent.model.Payment;
+import carrent.service.notification.NotificationService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+public class OutboxRelayTest {
+    private static final int EVENTS_COUNT = 250;
+    private static final int POLLERS = 4;
+    private static final long MAX_RELAY_DURATION_SECONDS = 30;
+    private static final String COUNT_PENDING_EVENTS_QUERY =
+            "SELECT COUNT(*) FROM outbox_events WHERE processed_at IS NULL";
+    @MockBean
+    private NotificationService notificationService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+        container.start();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    @BeforeEach
+    void deliverNotifications() {
+        when(notificationService.sendRentalCreationNotification(any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(notificationService.sendSuccessfulPaymentNotification(any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @AfterEach
+    void cleanOutbox() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+    }
+
+    @Test
+    @DisplayName("Relay events written in a transaction - Emits them through NotificationService")
+    void relayPendingEvents_CommittedEvents_EmitsNotifications() {
+        RentalDto rental = createTestRentalDto(1L);
+        PaymentDto payment = new PaymentDto(1L, Payment.Status.PAID, Payment.Type.PAYMENT,
+                rental.id(), BigDecimal.valueOf(81.98), "https://stripe.com/url", "session_id",
+                LocalDateTime.now());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxService.publishRentalCreated(rental);
+            outboxService.publishPaymentSucceeded(payment);
+        });
+
+        outboxRelay.relayPendingEvents();
+
+        verify(notificationService, times(1)).sendRentalCreationNotification(rental);
+        verify(notificationService, times(1)).sendSuccessfulPaymentNotification(payment);
+        assertEquals(0, jdbcTemplate.queryForObject(COUNT_PENDING_EVENTS_QUERY, Integer.class));
+    }
+
+    @Test
+    @DisplayName("Relay events from several pollers at once - Emits every event exactly once")
+    void relayPendingEvents_ConcurrentPollers_EmitsEachEventOnce() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long i = 1; i <= EVENTS_COUNT; i++) {
+                outboxService.publishRentalCreated(createTestRentalDto(i));
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(POLLERS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> pollers = new ArrayList<>();
+        for (int i = 0; i < POLLERS; i++) {
+            pollers.add(executor.submit(() -> {
+                startSignal.await();
+                outboxRelay.relayPendingEvents();
+                return null;
+            }));
+        }
+
+        startSignal.countDown();
+        executor.shutdown();
+        boolean finished = executor.awaitTermination(
+                MAX_RELAY_DURATION_SECONDS, TimeUnit.SECONDS);
+        for (Future<?> poller : pollers) {
+            poller.get();
+        }
+
+        assertTrue(finished);
+        verify(notificationService, times(EVENTS_COUNT)).sendRentalCreationNotification(any());
+        assertEquals(0, jdbcTemplate.queryForObject(COUNT_PENDING_EVENTS_QUERY, Integer.class));
+    }
+
+    @Test
+    @DisplayName("Relay an event whose delivery fails - Keeps it pending and counts the attempt")
+    void relayPendingEvents_DeliveryFails_KeepsEventPending() {
+        RentalDto rental = createTestRentalDto(1L);
+        when(notificationService.sendRentalCreationNotification(rental))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new NotificationDeliveryException("Telegram is unavailable")));
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> outboxService.publishRentalCreated(rental));
+
+        outboxRelay.relayPendingEvents();
+
+        assertEquals(1, jdbcTemplate.queryForObject(COUNT_PENDING_EVENTS_QUERY, Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT attempts FROM outbox_events", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Poll again right after a failed delivery - Waits for the backoff to pass")
+    void relayPendingEvents_DeliveryFailed_BacksOffBeforeRetrying() {
+        RentalDto rental = createTestRentalDto(1L);
+        when(notificationService.sendRentalCreationNotification(rental))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new NotificationDeliveryException("Telegram is unavailable")));
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> outboxService.publishRentalCreated(rental));
+
+        outboxRelay.relayPendingEvents();
+        outboxRelay.relayPendingEvents();
+
+        verify(notificationService, times(1)).sendRentalCreationNotification(rental);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT attempts FROM outbox_events", Integer.class));
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT next_attempt_at > CURRENT_TIMESTAMP(6) FROM outbox_events",
+                Boolean.class));
+    }
+
+    private RentalDto createTestRentalDto(Long id) {
+        CarDto car = new CarDto(1L, "Astra", "Opel", Car.Type.HATCHBACK, 3,
+                BigDecimal.valueOf(40.99));
+        return new RentalDto(id, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 3),
+                null, car, 2L);
+    }
+}
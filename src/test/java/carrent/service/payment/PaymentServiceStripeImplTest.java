@@ -5,9 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -15,35 +13,50 @@ import static org.mockito.Mockito.when;
 
 import carrent.dto.payment.CreatePaymentRequestDto;
 import carrent.dto.payment.PaymentDto;
+import carrent.dto.payment.PaymentFilterDto;
 import carrent.dto.payment.PaymentPausedDto;
+import carrent.exception.PaymentAlreadyPaidException;
+import carrent.exception.StripeSessionCreationException;
 import carrent.exception.TooManyPaymentsException;
 import carrent.mapper.PaymentMapper;
 import carrent.model.Car;
 import carrent.model.Payment;
+import carrent.model.PaymentSessionClaim;
 import carrent.model.Rental;
 import carrent.model.Role;
 import carrent.model.User;
 import carrent.repository.payment.PaymentRepository;
+import carrent.repository.payment.PaymentSessionClaimRepository;
 import carrent.repository.rental.RentalRepository;
-import carrent.service.notification.NotificationService;
+import carrent.service.outbox.OutboxService;
 import carrent.service.payment.impl.PaymentServiceStripeImpl;
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.checkout.SessionCreateParams;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 public class PaymentServiceStripeImplTest {
@@ -52,11 +65,8 @@ public class PaymentServiceStripeImplTest {
     private static final Payment.Status SAMPLE_PENDING_STATUS = Payment.Status.PENDING;
     private static final BigDecimal SAMPLE_PAYMENT_AMOUNT = BigDecimal.valueOf(99.99);
     private static final BigDecimal SAMPLE_DAILY_FREE = BigDecimal.valueOf(49.99);
-    private static final String SAMPLE_STRIPE_API_KEY = "Sample_Key";
     private static final String SAMPLE_SESSION_URL = "http://test-session-url";
     private static final String SAMPLE_SESSION_ID = "test-session-id";
-    private static final String STRIPE_PAYMENT_STATUS_PAID = "paid";
-    private static final String STRIPE_PAYMENT_STATUS_PENDING = "pending";
     private static final Role.RoleName SAMPLE_DEFAULT_ROLE = Role.RoleName.CUSTOMER;
     private static final Role.RoleName SAMPLE_MANAGER_ROLE = Role.RoleName.MANAGER;
     private static final Long VALID_PAYMENT_ID = 1L;
@@ -64,14 +74,24 @@ public class PaymentServiceStripeImplTest {
     private static final Long VALID_USER_ID = 1L;
     private static final Long INVALID_USER_ID = 1000L;
     private static final Long INVALID_RENTAL_ID = 1000L;
+    private static final Long FIRST_PAGE_CURSOR = 0L;
+    private static final int SAMPLE_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
     @Mock
     private PaymentRepository paymentRepository;
     @Mock
+    private PaymentSessionClaimRepository paymentSessionClaimRepository;
+    @Mock
     private PaymentMapper paymentMapper;
     @Mock
     private RentalRepository rentalRepository;
     @Mock
-    private NotificationService notificationService;
+    private OutboxService outboxService;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private StripeClient stripeClient;
+    @Spy
+    private TransactionTemplate transactionTemplate =
+            new TransactionTemplate(mock(PlatformTransactionManager.class));
     @InjectMocks
     private PaymentServiceStripeImpl paymentService;
 
@@ -84,30 +104,29 @@ public class PaymentServiceStripeImplTest {
         modelRental.getCar().setDailyFee(SAMPLE_DAILY_FREE);
         Payment modelPayment = createTestPayment(modelRental, SAMPLE_PENDING_STATUS);
         PaymentDto expected = createTestPaymentDto(modelPayment);
-        when(paymentRepository.findByRentalIdAndType(requestDto.rentalId(), requestDto.type()))
-                .thenReturn(Optional.empty());
-        when(rentalRepository.findById(requestDto.rentalId()))
+        when(rentalRepository.findByIdWithCarUserAndPayments(requestDto.rentalId()))
                 .thenReturn(Optional.of(modelRental));
         when(paymentRepository.save(any(Payment.class))).thenReturn(modelPayment);
         when(paymentMapper.toDtoFromModel(modelPayment)).thenReturn(expected);
 
-        try (MockedStatic<Session> ignored = mockStatic(Session.class)) {
-            Session session = mock(Session.class);
-            when(Session.create(any(SessionCreateParams.class))).thenReturn(session);
-            when(session.getUrl()).thenReturn(SAMPLE_SESSION_URL);
-            when(session.getId()).thenReturn(SAMPLE_SESSION_ID);
-
-            PaymentDto actual =
-                    paymentService.createPaymentSession(SAMPLE_STRIPE_API_KEY, requestDto);
-
-            assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
-            verify(paymentRepository, times(2)).findByRentalIdAndType(any(), any());
-            verify(rentalRepository, times(2)).findById(any());
-            verify(paymentRepository, times(1)).save(any());
-            verify(paymentMapper, times(1)).toDtoFromModel(any());
-            verifyNoMoreInteractions(
-                    paymentMapper, paymentRepository, rentalRepository, notificationService);
-        }
+        Session session = mock(Session.class);
+        when(stripeClient.checkout().sessions()
+                .create(any(SessionCreateParams.class), any(RequestOptions.class)))
+                .thenReturn(session);
+        when(session.getUrl()).thenReturn(SAMPLE_SESSION_URL);
+        when(session.getId()).thenReturn(SAMPLE_SESSION_ID);
+
+        PaymentDto actual = paymentService.createPaymentSession(requestDto);
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        verify(rentalRepository, times(1)).findByIdWithCarUserAndPayments(any());
+        verify(rentalRepository, times(1)).getReferenceById(VALID_RENTAL_ID);
+        verify(paymentSessionClaimRepository, times(1)).saveAndFlush(any());
+        verify(paymentRepository, times(1)).save(any());
+        verify(paymentMapper, times(1)).toDtoFromModel(any());
+        verify(transactionTemplate, times(2)).execute(any());
+        verifyNoMoreInteractions(paymentMapper, paymentRepository,
+                paymentSessionClaimRepository, rentalRepository, outboxService);
     }
 
     @Test
@@ -117,22 +136,136 @@ public class PaymentServiceStripeImplTest {
         CreatePaymentRequestDto requestDto = new CreatePaymentRequestDto(
                 VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
         Rental modelRental = createTestRental();
-        Payment modelPayment = createTestPayment(modelRental, SAMPLE_PENDING_STATUS);
-        when(paymentRepository.findByRentalIdAndType(requestDto.rentalId(), requestDto.type()))
-                .thenReturn(Optional.of(modelPayment));
+        modelRental.getPayments().add(createTestPayment(modelRental, SAMPLE_PENDING_STATUS));
+        when(rentalRepository.findByIdWithCarUserAndPayments(requestDto.rentalId()))
+                .thenReturn(Optional.of(modelRental));
         String expected = "Too many payment records for the given rental ID: "
                 + requestDto.rentalId()
                 + ". Finish previous payment instead of creating a new one!";
 
         TooManyPaymentsException exception = assertThrows(
                 TooManyPaymentsException.class,
-                () -> paymentService.createPaymentSession(SAMPLE_STRIPE_API_KEY, requestDto));
+                () -> paymentService.createPaymentSession(requestDto));
         String actual = exception.getMessage();
 
         assertEquals(expected, actual);
-        verify(paymentRepository, times(1)).findByRentalIdAndType(any(), any());
+        verify(rentalRepository, times(1)).findByIdWithCarUserAndPayments(any());
+        verifyNoMoreInteractions(
+                paymentMapper, paymentRepository, rentalRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Create payment session (session claimed by a concurrent request)"
+            + " - Throws TooManyPaymentsException")
+    void createPaymentSession_SessionAlreadyClaimed_ThrowsTooManyPaymentsException() {
+        CreatePaymentRequestDto requestDto = new CreatePaymentRequestDto(
+                VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
+        when(rentalRepository.findByIdWithCarUserAndPayments(requestDto.rentalId()))
+                .thenReturn(Optional.of(createTestRental()));
+        when(paymentSessionClaimRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        String expected = "Payment session for the given rental ID: "
+                + requestDto.rentalId()
+                + " is already being created!";
+
+        TooManyPaymentsException exception = assertThrows(
+                TooManyPaymentsException.class,
+                () -> paymentService.createPaymentSession(requestDto));
+        String actual = exception.getMessage();
+
+        assertEquals(expected, actual);
+        verify(rentalRepository, times(1)).findByIdWithCarUserAndPayments(any());
+        verify(paymentSessionClaimRepository, times(1)).saveAndFlush(any());
+        verifyNoMoreInteractions(paymentMapper, paymentRepository,
+                paymentSessionClaimRepository, rentalRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Create payment session (previous session expired)"
+            + " - Replaces expired payment and returns PaymentDto")
+    void createPaymentSession_PreviousSessionExpired_ReplacesExpiredPayment()
+            throws StripeException {
+        CreatePaymentRequestDto requestDto = new CreatePaymentRequestDto(
+                VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
+        Rental modelRental = createTestRental();
+        modelRental.getCar().setDailyFee(SAMPLE_DAILY_FREE);
+        Payment expiredPayment = createTestPayment(modelRental, Payment.Status.EXPIRED);
+        modelRental.getPayments().add(expiredPayment);
+        Payment modelPayment = createTestPayment(modelRental, SAMPLE_PENDING_STATUS);
+        PaymentDto expected = createTestPaymentDto(modelPayment);
+        when(rentalRepository.findByIdWithCarUserAndPayments(requestDto.rentalId()))
+                .thenReturn(Optional.of(modelRental));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(modelPayment);
+        when(paymentMapper.toDtoFromModel(modelPayment)).thenReturn(expected);
+        Session session = mock(Session.class);
+        when(stripeClient.checkout().sessions()
+                .create(any(SessionCreateParams.class), any(RequestOptions.class)))
+                .thenReturn(session);
+        when(session.getUrl()).thenReturn(SAMPLE_SESSION_URL);
+        when(session.getId()).thenReturn(SAMPLE_SESSION_ID);
+
+        PaymentDto actual = paymentService.createPaymentSession(requestDto);
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        ArgumentCaptor<PaymentSessionClaim> claim =
+                ArgumentCaptor.forClass(PaymentSessionClaim.class);
+        verify(paymentRepository, times(1)).deleteById(VALID_PAYMENT_ID);
+        verify(paymentRepository, times(1)).flush();
+        verify(paymentSessionClaimRepository, times(1)).saveAndFlush(claim.capture());
+        String expectedKey = "payment-session-" + VALID_RENTAL_ID + "-" + SAMPLE_PAYMENT_TYPE
+                + "-" + VALID_PAYMENT_ID;
+        assertEquals(expectedKey, claim.getValue().getIdempotencyKey());
+        verify(paymentSessionClaimRepository, times(1))
+                .deleteByRentalIdAndTypeAndIdempotencyKeyNot(
+                        VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE, expectedKey);
+    }
+
+    @Test
+    @DisplayName("Create payment session (Stripe unavailable)"
+            + " - Releases the claim and throws StripeSessionCreationException")
+    void createPaymentSession_StripeUnavailable_ReleasesClaim() throws StripeException {
+        CreatePaymentRequestDto requestDto = new CreatePaymentRequestDto(
+                VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
+        Rental modelRental = createTestRental();
+        modelRental.getCar().setDailyFee(SAMPLE_DAILY_FREE);
+        when(rentalRepository.findByIdWithCarUserAndPayments(requestDto.rentalId()))
+                .thenReturn(Optional.of(modelRental));
+        when(stripeClient.checkout().sessions()
+                .create(any(SessionCreateParams.class), any(RequestOptions.class)))
+                .thenThrow(new ApiConnectionException("Connection refused"));
+
+        assertThrows(StripeSessionCreationException.class,
+                () -> paymentService.createPaymentSession(requestDto));
+
+        verify(paymentSessionClaimRepository, times(1)).saveAndFlush(any());
+        verify(paymentSessionClaimRepository, times(1))
+                .deleteByRentalIdAndType(VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verifyNoMoreInteractions(paymentMapper, paymentRepository,
+                paymentSessionClaimRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Create payment session (payment for this rental ID and type already paid)"
+            + " - Throws PaymentAlreadyPaidException")
+    void createPaymentSession_PaymentAlreadyPaid_ThrowsPaymentAlreadyPaidException() {
+        CreatePaymentRequestDto requestDto = new CreatePaymentRequestDto(
+                VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
+        Rental modelRental = createTestRental();
+        modelRental.getPayments().add(createTestPayment(modelRental, SAMPLE_PAID_STATUS));
+        when(rentalRepository.findByIdWithCarUserAndPayments(requestDto.rentalId()))
+                .thenReturn(Optional.of(modelRental));
+        String expected = "This payment has been already paid!";
+
+        PaymentAlreadyPaidException exception = assertThrows(
+                PaymentAlreadyPaidException.class,
+                () -> paymentService.createPaymentSession(requestDto));
+        String actual = exception.getMessage();
+
+        assertEquals(expected, actual);
+        verify(rentalRepository, times(1)).findByIdWithCarUserAndPayments(any());
         verifyNoMoreInteractions(
-                paymentMapper, paymentRepository, rentalRepository, notificationService);
+                paymentMapper, paymentRepository, rentalRepository, outboxService);
     }
 
     @Test
@@ -148,38 +281,27 @@ public class PaymentServiceStripeImplTest {
 
         assertEquals(expected, actual);
         verifyNoMoreInteractions(
-                paymentMapper, paymentRepository, rentalRepository, notificationService);
+                paymentMapper, paymentRepository, rentalRepository, outboxService);
     }
 
     @Test
-    @DisplayName("Check Successful Payment (payment successfully paid) - Returns PaymentDto")
-    void checkSuccessfulPayment_PaymentSuccessfullyPaid_ReturnsPaymentDto()
-            throws StripeException {
+    @DisplayName("Check Successful Payment (payment confirmed by webhook) - Returns PaymentDto")
+    void checkSuccessfulPayment_PaymentConfirmed_ReturnsPaidPaymentDto() {
         Rental rental = createTestRental();
         Payment modelPayment = createTestPayment(rental, SAMPLE_PAID_STATUS);
         PaymentDto expected = createTestPaymentDto(modelPayment);
         when(paymentRepository.findByRentalIdAndType(VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE))
                 .thenReturn(Optional.of(modelPayment));
-        when(paymentRepository.save(modelPayment)).thenReturn(modelPayment);
         when(paymentMapper.toDtoFromModel(modelPayment)).thenReturn(expected);
-        doNothing().when(notificationService).sendSuccessfulPaymentNotification(expected);
-
-        try (MockedStatic<Session> ignored = mockStatic(Session.class)) {
-            Session session = mock(Session.class);
-            when(session.getPaymentStatus()).thenReturn(STRIPE_PAYMENT_STATUS_PAID);
-            when(Session.retrieve(modelPayment.getSessionId())).thenReturn(session);
-
-            PaymentDto actual = paymentService.checkSuccessfulPayment(
-                    SAMPLE_STRIPE_API_KEY, VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
-
-            assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
-            verify(paymentRepository, times(1)).findByRentalIdAndType(any(), any());
-            verify(paymentRepository, times(1)).save(any());
-            verify(paymentMapper, times(1)).toDtoFromModel(any());
-            verify(notificationService).sendSuccessfulPaymentNotification(expected);
-            verifyNoMoreInteractions(
-                    paymentMapper, paymentRepository, rentalRepository, notificationService);
-        }
+
+        PaymentDto actual = paymentService.checkSuccessfulPayment(
+                VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        verify(paymentRepository, times(1)).findByRentalIdAndType(any(), any());
+        verify(paymentMapper, times(1)).toDtoFromModel(any());
+        verifyNoMoreInteractions(paymentMapper, paymentRepository, rentalRepository,
+                outboxService, stripeClient);
     }
 
     @Test
@@ -193,41 +315,34 @@ public class PaymentServiceStripeImplTest {
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
                 () -> paymentService.checkSuccessfulPayment(
-                        SAMPLE_STRIPE_API_KEY, INVALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE));
+                        INVALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE));
         String actual = exception.getMessage();
 
         assertEquals(expected, actual);
         verify(paymentRepository, times(1)).findByRentalIdAndType(any(), any());
         verifyNoMoreInteractions(
-                paymentMapper, paymentRepository, rentalRepository, notificationService);
+                paymentMapper, paymentRepository, rentalRepository, outboxService);
     }
 
     @Test
-    @DisplayName("Check Successful Payment (payment is not paid) - Throws AccessDeniedException")
-    void checkSuccessfulPayment_PaymentIsNotPaid_ThrowsAccessDeniedException()
-            throws StripeException {
+    @DisplayName("Check Successful Payment (webhook not processed yet) "
+            + "- Returns pending PaymentDto")
+    void checkSuccessfulPayment_PaymentNotConfirmedYet_ReturnsPendingPaymentDto() {
         Rental rental = createTestRental();
         Payment modelPayment = createTestPayment(rental, SAMPLE_PENDING_STATUS);
+        PaymentDto expected = createTestPaymentDto(modelPayment);
         when(paymentRepository.findByRentalIdAndType(VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE))
                 .thenReturn(Optional.of(modelPayment));
-        String expected = "Can't access this endpoint - The payment is not paid!";
-
-        try (MockedStatic<Session> ignored = mockStatic(Session.class)) {
-            Session session = mock(Session.class);
-            when(session.getPaymentStatus()).thenReturn(STRIPE_PAYMENT_STATUS_PENDING);
-            when(Session.retrieve(modelPayment.getSessionId())).thenReturn(session);
-
-            AccessDeniedException exception = assertThrows(
-                    AccessDeniedException.class,
-                    () -> paymentService.checkSuccessfulPayment(
-                            SAMPLE_STRIPE_API_KEY, VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE));
-            String actual = exception.getMessage();
-
-            assertEquals(expected, actual);
-            verify(paymentRepository, times(1)).findByRentalIdAndType(any(), any());
-            verifyNoMoreInteractions(
-                    paymentMapper, paymentRepository, rentalRepository, notificationService);
-        }
+        when(paymentMapper.toDtoFromModel(modelPayment)).thenReturn(expected);
+
+        PaymentDto actual = paymentService.checkSuccessfulPayment(
+                VALID_RENTAL_ID, SAMPLE_PAYMENT_TYPE);
+
+        assertEquals(SAMPLE_PENDING_STATUS, actual.getStatus());
+        verify(paymentRepository, times(1)).findByRentalIdAndType(any(), any());
+        verify(paymentMapper, times(1)).toDtoFromModel(any());
+        verifyNoMoreInteractions(paymentMapper, paymentRepository, rentalRepository,
+                outboxService, stripeClient);
     }
 
     @Test
@@ -237,20 +352,35 @@ public class PaymentServiceStripeImplTest {
         User modelUser = createTestUser(SAMPLE_DEFAULT_ROLE);
         Rental rental = createTestRental();
         Payment modelPayment = createTestPayment(rental, SAMPLE_PENDING_STATUS);
-        List<Payment> modelPaymentList = List.of(modelPayment);
-        PaymentDto paymentDto = createTestPaymentDto(modelPayment);
-        List<PaymentDto> expected = List.of(paymentDto);
-        when(paymentRepository.findAllByUserId(modelUser.getId())).thenReturn(modelPaymentList);
-        when(paymentMapper.toDtoFromModel(modelPayment)).thenReturn(paymentDto);
+        List<PaymentDto> expected = List.of(createTestPaymentDto(modelPayment));
+        when(paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                modelUser.getId(), null, null, null, null, FIRST_PAGE_CURSOR,
+                Limit.of(SAMPLE_PAGE_SIZE))).thenReturn(expected);
 
-        List<PaymentDto> actual = paymentService.getAllPaymentsByUserId(
-                modelUser, modelUser.getId());
+        List<PaymentDto> actual = paymentService.getAllPaymentsByUserId(modelUser,
+                createTestFilter(modelUser.getId()), null, SAMPLE_PAGE_SIZE);
 
         assertIterableEquals(expected, actual);
-        verify(paymentRepository, times(1)).findAllByUserId(any());
-        verify(paymentMapper, times(1)).toDtoFromModel(any());
+        verify(paymentRepository, times(1)).findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                any(), any(), any(), any(), any(), any(), any());
         verifyNoMoreInteractions(
-                paymentMapper, paymentRepository, rentalRepository, notificationService);
+                paymentMapper, paymentRepository, rentalRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Find all payments (Customer without user ID) - Returns own payments")
+    void getAllPaymentsByUserId_CustomerWithoutUserId_ReturnsOwnPayments() {
+        User modelUser = createTestUser(SAMPLE_DEFAULT_ROLE);
+        List<PaymentDto> expected = List.of(
+                createTestPaymentDto(createTestPayment(createTestRental(), SAMPLE_PAID_STATUS)));
+        when(paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                modelUser.getId(), null, null, null, null, FIRST_PAGE_CURSOR,
+                Limit.of(SAMPLE_PAGE_SIZE))).thenReturn(expected);
+
+        List<PaymentDto> actual = paymentService.getAllPaymentsByUserId(
+                modelUser, createTestFilter(null), null, SAMPLE_PAGE_SIZE);
+
+        assertIterableEquals(expected, actual);
     }
 
     @Test
@@ -262,21 +392,39 @@ public class PaymentServiceStripeImplTest {
         Rental secondRental = createTestRental();
         Payment firstPayment = createTestPayment(firstRental, SAMPLE_PENDING_STATUS);
         Payment secondPayment = createTestPayment(secondRental, SAMPLE_PENDING_STATUS);
-        List<Payment> paymentList = List.of(firstPayment, secondPayment);
-        PaymentDto firstPaymentDto = createTestPaymentDto(firstPayment);
-        PaymentDto secondPaymentDto = createTestPaymentDto(secondPayment);
-        when(paymentRepository.findAll()).thenReturn(paymentList);
-        when(paymentMapper.toDtoFromModel(firstPayment)).thenReturn(firstPaymentDto);
-        when(paymentMapper.toDtoFromModel(secondPayment)).thenReturn(secondPaymentDto);
-        List<PaymentDto> expected = List.of(firstPaymentDto, secondPaymentDto);
+        List<PaymentDto> expected = List.of(
+                createTestPaymentDto(firstPayment), createTestPaymentDto(secondPayment));
+        when(paymentRepository.findAllByFilterAndIdGreaterThanOrderById(
+                null, null, null, null, FIRST_PAGE_CURSOR, Limit.of(SAMPLE_PAGE_SIZE)))
+                .thenReturn(expected);
 
-        List<PaymentDto> actual = paymentService.getAllPaymentsByUserId(modelUser, null);
+        List<PaymentDto> actual = paymentService.getAllPaymentsByUserId(
+                modelUser, createTestFilter(null), null, SAMPLE_PAGE_SIZE);
 
         assertIterableEquals(expected, actual);
-        verify(paymentRepository, times(1)).findAll();
-        verify(paymentMapper, times(2)).toDtoFromModel(any());
+        verify(paymentRepository, times(1)).findAllByFilterAndIdGreaterThanOrderById(
+                any(), any(), any(), any(), any(), any());
         verifyNoMoreInteractions(
-                paymentMapper, paymentRepository, rentalRepository, notificationService);
+                paymentMapper, paymentRepository, rentalRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Find all payments (Manager with filters and oversized limit) "
+            + "- Passes filters, whole-day bounds and clamped limit to repository")
+    void getAllPaymentsByUserId_ManagerWithFilters_PassesFiltersToRepository() {
+        User modelUser = createTestUser(SAMPLE_MANAGER_ROLE);
+        PaymentFilterDto filter = new PaymentFilterDto(INVALID_USER_ID, SAMPLE_PAID_STATUS,
+                SAMPLE_PAYMENT_TYPE, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        List<PaymentDto> expected = List.of();
+        when(paymentRepository.findAllByUserIdAndFilterAndIdGreaterThanOrderById(
+                INVALID_USER_ID, SAMPLE_PAID_STATUS, SAMPLE_PAYMENT_TYPE,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0),
+                VALID_PAYMENT_ID, Limit.of(MAX_PAGE_SIZE))).thenReturn(expected);
+
+        List<PaymentDto> actual = paymentService.getAllPaymentsByUserId(
+                modelUser, filter, VALID_PAYMENT_ID, MAX_PAGE_SIZE + 1);
+
+        assertIterableEquals(expected, actual);
     }
 
     @Test
@@ -289,12 +437,16 @@ public class PaymentServiceStripeImplTest {
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
                 () -> paymentService.getAllPaymentsByUserId(
-                        modelUser, INVALID_USER_ID));
+                        modelUser, createTestFilter(INVALID_USER_ID), null, SAMPLE_PAGE_SIZE));
         String actual = exception.getMessage();
 
         assertEquals(expected, actual);
         verifyNoMoreInteractions(
-                paymentMapper, paymentRepository, rentalRepository, notificationService);
+                paymentMapper, paymentRepository, rentalRepository, outboxService);
+    }
+
+    private PaymentFilterDto createTestFilter(Long userId) {
+        return new PaymentFilterDto(userId, null, null, null, null);
     }
 
     private PaymentDto createTestPaymentDto(Payment modelPayment) {
@@ -305,7 +457,8 @@ public class PaymentServiceStripeImplTest {
                 modelPayment.getRental().getId(),
                 modelPayment.getAmountToPay(),
                 modelPayment.getSessionUrl(),
-                modelPayment.getSessionId());
+                modelPayment.getSessionId(),
+                modelPayment.getCreatedAt());
     }
 
     private Payment createTestPayment(Rental rental, Payment.Status status) {
@@ -0,0 +1,199 @@
+package carrent.service.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.mapper.PaymentMapper;
+import carrent.model.Payment;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.payment.PaymentSessionClaimRepository;
+import carrent.service.outbox.OutboxService;
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class PendingPaymentReconcilerTest {
+    private static final int PAGE_SIZE = 100;
+    private static final int CONCURRENCY = 4;
+    private static final double REQUESTS_PER_SECOND = 1000;
+    private static final Duration SESSION_CLAIM_TIMEOUT = Duration.ofMinutes(5);
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private PaymentSessionClaimRepository paymentSessionClaimRepository;
+    @Mock
+    private PaymentMapper paymentMapper;
+    @Mock
+    private OutboxService outboxService;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private StripeClient stripeClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Captor
+    private ArgumentCaptor<Collection<Payment.Status>> liveStatuses;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PendingPaymentReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new PendingPaymentReconciler(paymentRepository,
+                paymentSessionClaimRepository, paymentMapper, outboxService, stripeClient,
+                transactionManager, meterRegistry, PAGE_SIZE, CONCURRENCY, REQUESTS_PER_SECOND,
+                SESSION_CLAIM_TIMEOUT, true);
+    }
+
+    @AfterEach
+    void stopReconciler() {
+        reconciler.stop();
+    }
+
+    @Test
+    @DisplayName("Reconcile pending Payments - Flips paid and expired sessions in batches")
+    void reconcilePendingPayments_PaidExpiredAndOpenSessions_UpdatesSettledOnes()
+            throws StripeException {
+        Payment paid = createTestPayment(1L);
+        Payment expired = createTestPayment(2L);
+        Payment open = createTestPayment(3L);
+        when(paymentRepository.countByStatus(Payment.Status.PENDING)).thenReturn(3L);
+        when(paymentRepository.findAllByStatusAndIdGreaterThanOrderById(
+                Payment.Status.PENDING, 0L, Limit.of(PAGE_SIZE)))
+                .thenReturn(List.of(paid, expired, open));
+        mockSession(paid, "complete", "paid");
+        mockSession(expired, "expired", "unpaid");
+        mockSession(open, "open", "unpaid");
+        when(paymentRepository.findAllByIdInAndStatus(List.of(1L), Payment.Status.PENDING))
+                .thenReturn(List.of(paid));
+        when(paymentRepository.findAllByIdInAndStatus(List.of(2L), Payment.Status.PENDING))
+                .thenReturn(List.of(expired));
+        when(paymentMapper.toDtoFromModel(paid)).thenReturn(createTestPaymentDto(paid));
+
+        reconciler.reconcilePendingPayments();
+
+        ArgumentCaptor<PaymentDto> published = ArgumentCaptor.forClass(PaymentDto.class);
+        verify(paymentRepository).updateStatusByIdInAndStatus(
+                List.of(1L), Payment.Status.PENDING, Payment.Status.PAID);
+        verify(paymentRepository).updateStatusByIdInAndStatus(
+                List.of(2L), Payment.Status.PENDING, Payment.Status.EXPIRED);
+        verify(outboxService, times(1)).publishPaymentSucceeded(published.capture());
+        assertEquals(Payment.Status.PAID, published.getValue().getStatus());
+        assertEquals(3.0, meterRegistry.get("payments.reconciler.backlog").gauge().value());
+        assertEquals(1, meterRegistry.get("payments.reconciler.sweep").timer().count());
+    }
+
+    @Test
+    @DisplayName("Reconcile Payment already confirmed by its webhook - Doesn't publish it again")
+    void reconcilePendingPayments_PaidByWebhookMeanwhile_SkipsPublishing()
+            throws StripeException {
+        Payment payment = createTestPayment(1L);
+        when(paymentRepository.findAllByStatusAndIdGreaterThanOrderById(
+                Payment.Status.PENDING, 0L, Limit.of(PAGE_SIZE)))
+                .thenReturn(List.of(payment));
+        mockSession(payment, "complete", "paid");
+        when(paymentRepository.findAllByIdInAndStatus(List.of(1L), Payment.Status.PENDING))
+                .thenReturn(List.of());
+
+        reconciler.reconcilePendingPayments();
+
+        verify(paymentRepository, times(0)).updateStatusByIdInAndStatus(any(), any(), any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    @DisplayName("Reconcile pending Payments - Releases claims older than the claim timeout")
+    void reconcilePendingPayments_AbandonedClaims_DeletesClaimsOlderThanTimeout() {
+        LocalDateTime before = LocalDateTime.now().minus(SESSION_CLAIM_TIMEOUT);
+
+        reconciler.reconcilePendingPayments();
+
+        ArgumentCaptor<LocalDateTime> createdBefore =
+                ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentSessionClaimRepository)
+                .deleteAbandonedClaims(createdBefore.capture(), any());
+        assertFalse(createdBefore.getValue().isBefore(before));
+        assertTrue(createdBefore.getValue().isBefore(LocalDateTime.now().minusMinutes(4)));
+    }
+
+    @Test
+    @DisplayName("Reconcile pending Payments - Releases old claims replacing an expired Payment")
+    void reconcilePendingPayments_ClaimReplacingExpiredPayment_ReleasesClaim() {
+        reconciler.reconcilePendingPayments();
+
+        verify(paymentSessionClaimRepository)
+                .deleteAbandonedClaims(any(), liveStatuses.capture());
+        assertTrue(liveStatuses.getValue().contains(Payment.Status.PENDING));
+        assertTrue(liveStatuses.getValue().contains(Payment.Status.PAID));
+        assertFalse(liveStatuses.getValue().contains(Payment.Status.EXPIRED));
+    }
+
+    @Test
+    @DisplayName("Reconcile Payment when Stripe fails - Leaves it pending for the next sweep")
+    void reconcilePendingPayments_StripeUnavailable_LeavesPaymentPending()
+            throws StripeException {
+        Payment payment = createTestPayment(1L);
+        when(paymentRepository.findAllByStatusAndIdGreaterThanOrderById(
+                Payment.Status.PENDING, 0L, Limit.of(PAGE_SIZE)))
+                .thenReturn(List.of(payment));
+        when(stripeClient.checkout().sessions().retrieve(payment.getSessionId()))
+                .thenThrow(new ApiConnectionException("Stripe is unavailable"));
+
+        reconciler.reconcilePendingPayments();
+
+        verify(paymentRepository, times(0)).updateStatusByIdInAndStatus(any(), any(), any());
+        verifyNoInteractions(outboxService);
+        assertEquals(1.0, meterRegistry.get("payments.reconciler.failed").counter().count());
+    }
+
+    private void mockSession(Payment payment, String status, String paymentStatus)
+            throws StripeException {
+        Session session = new Session();
+        session.setId(payment.getSessionId());
+        session.setStatus(status);
+        session.setPaymentStatus(paymentStatus);
+        when(stripeClient.checkout().sessions().retrieve(payment.getSessionId()))
+                .thenReturn(session);
+    }
+
+    private Payment createTestPayment(Long id) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setStatus(Payment.Status.PENDING);
+        payment.setType(Payment.Type.PAYMENT);
+        payment.setAmountToPay(BigDecimal.valueOf(99.99));
+        payment.setSessionUrl("http://test-session-url/" + id);
+        payment.setSessionId("cs_test_" + id);
+        return payment;
+    }
+
+    private PaymentDto createTestPaymentDto(Payment payment) {
+        return new PaymentDto(payment.getId(), payment.getStatus(), payment.getType(), 1L,
+                payment.getAmountToPay(), payment.getSessionUrl(), payment.getSessionId(),
+                payment.getCreatedAt());
+    }
+}
@@ -0,0 +1,37 @@
+package carrent.service.payment;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import carrent.service.payment.impl.RateLimiter;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+    private static final double PERMITS_PER_SECOND = 50;
+    private static final int CALLS = 6;
+
+    @Test
+    @DisplayName("Acquire more permits than allowed per second - Spaces the calls out")
+    void acquire_BurstOfCalls_SpacesCallsEvenly() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(PERMITS_PER_SECOND);
+        Duration minimumDuration = Duration.ofMillis(
+                (long) ((CALLS - 1) * 1000 / PERMITS_PER_SECOND));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            rateLimiter.acquire();
+        }
+        Duration actual = Duration.ofNanos(System.nanoTime() - start);
+
+        assertTrue(actual.compareTo(minimumDuration) >= 0,
+                "Expected at least " + minimumDuration + " but took " + actual);
+    }
+
+    @Test
+    @DisplayName("Create rate limiter without permits - Throws IllegalArgumentException")
+    void constructor_NonPositiveRate_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0));
+    }
+}
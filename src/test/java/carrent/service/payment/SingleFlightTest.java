@@ -0,0 +1,148 @@
+package carrent.service.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import carrent.exception.StripeSessionCreationException;
+import carrent.service.payment.impl.SingleFlight;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+    private static final String SAMPLE_KEY = "payment-session-1-PAYMENT";
+    private static final int CALLERS = 8;
+    private static final long AWAIT_SECONDS = 5;
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Execute concurrent calls for the same key - Runs the supplier once")
+    void execute_ConcurrentCallsForSameKey_RunsSupplierOnce() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = submitCallers(() -> {
+            invocations.incrementAndGet();
+            awaitRelease(release);
+            return "session";
+        });
+
+        awaitAllCallersWaiting();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("session", result.get(AWAIT_SECONDS, TimeUnit.SECONDS));
+        }
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    @DisplayName("Execute concurrent calls with failing supplier - Rethrows the same exception")
+    void execute_SupplierFails_RethrowsToEveryCaller() throws Exception {
+        StripeSessionCreationException failure =
+                new StripeSessionCreationException("Can't create Stripe session!", null);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = submitCallers(() -> {
+            awaitRelease(release);
+            throw failure;
+        });
+
+        awaitAllCallersWaiting();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> result.get(AWAIT_SECONDS, TimeUnit.SECONDS));
+            assertSame(failure, exception.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Execute concurrent calls with supplier throwing an Error - Releases every caller")
+    void execute_SupplierThrowsError_RethrowsToEveryCallerAndReleasesKey() throws Exception {
+        AssertionError failure = new AssertionError("Out of stack");
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = submitCallers(() -> {
+            awaitRelease(release);
+            throw failure;
+        });
+
+        awaitAllCallersWaiting();
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> result.get(AWAIT_SECONDS, TimeUnit.SECONDS));
+            assertSame(failure, exception.getCause());
+        }
+        assertEquals("next", singleFlight.execute(SAMPLE_KEY, () -> "next"));
+    }
+
+    @Test
+    @DisplayName("Execute sequential calls for the same key - Runs the supplier each time")
+    void execute_SequentialCalls_RunsSupplierEachTime() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        singleFlight.execute(SAMPLE_KEY, () -> "first" + invocations.incrementAndGet());
+        String actual = singleFlight.execute(
+                SAMPLE_KEY, () -> "second" + invocations.incrementAndGet());
+
+        assertEquals("second2", actual);
+    }
+
+    private List<Future<String>> submitCallers(Supplier<String> supplier) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(SAMPLE_KEY, supplier)));
+        }
+        return results;
+    }
+
+    private void awaitAllCallersWaiting() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(AWAIT_SECONDS);
+        while (countWaitingCallers() < CALLERS && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private long countWaitingCallers() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getState() == Thread.State.WAITING)
+                .filter(thread -> isInsideSingleFlight(thread.getStackTrace()))
+                .count();
+    }
+
+    private boolean isInsideSingleFlight(StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            if (element.getClassName().equals(SingleFlight.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void awaitRelease(CountDownLatch release) {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package carrent.service.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import carrent.dto.payment.PaymentDto;
+import carrent.mapper.PaymentMapper;
+import carrent.model.Payment;
+import carrent.model.StripeEvent;
+import carrent.repository.payment.PaymentRepository;
+import carrent.repository.payment.StripeEventRepository;
+import carrent.service.outbox.OutboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeEventProcessorTest {
+    private static final String SAMPLE_EVENT_ID = "evt_test_1";
+    private static final String SAMPLE_SESSION_ID = "cs_test_1";
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(5);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(15);
+    @Mock
+    private StripeEventRepository stripeEventRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private PaymentMapper paymentMapper;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private StripeEventProcessor stripeEventProcessor;
+
+    @BeforeEach
+    void setUp() {
+        stripeEventProcessor = new StripeEventProcessor(stripeEventRepository,
+                paymentRepository, paymentMapper, outboxService, new ObjectMapper(),
+                transactionManager, new SimpleMeterRegistry(),
+                BATCH_SIZE, MAX_ATTEMPTS, INITIAL_BACKOFF, MAX_BACKOFF);
+    }
+
+    @Test
+    @DisplayName("Process paid checkout session event - Marks Payment as paid and publishes it")
+    void processPendingEvents_PaidSession_MarksPaymentPaid() {
+        StripeEvent event = createTestEvent("paid");
+        Payment payment = createTestPayment(Payment.Status.PENDING);
+        PaymentDto paymentDto = new PaymentDto(1L, Payment.Status.PAID, Payment.Type.PAYMENT,
+                1L, payment.getAmountToPay(), payment.getSessionUrl(), SAMPLE_SESSION_ID,
+                payment.getCreatedAt());
+        when(stripeEventRepository.lockPendingBatch(eq(MAX_ATTEMPTS), any(), eq(BATCH_SIZE)))
+                .thenReturn(List.of(event));
+        when(paymentRepository.lockBySessionId(SAMPLE_SESSION_ID))
+                .thenReturn(Optional.of(payment));
+        when(paymentRepository.save(payment)).thenReturn(payment);
+        when(paymentMapper.toDtoFromModel(payment)).thenReturn(paymentDto);
+
+        stripeEventProcessor.processPendingEvents();
+
+        assertEquals(Payment.Status.PAID, payment.getStatus());
+        assertNotNull(event.getProcessedAt());
+        verify(outboxService).publishPaymentSucceeded(paymentDto);
+    }
+
+    @Test
+    @DisplayName("Process event for already paid Payment - Doesn't publish it again")
+    void processPendingEvents_PaymentAlreadyPaid_SkipsPublishing() {
+        StripeEvent event = createTestEvent("paid");
+        when(stripeEventRepository.lockPendingBatch(eq(MAX_ATTEMPTS), any(), eq(BATCH_SIZE)))
+                .thenReturn(List.of(event));
+        when(paymentRepository.lockBySessionId(SAMPLE_SESSION_ID))
+                .thenReturn(Optional.of(createTestPayment(Payment.Status.PAID)));
+
+        stripeEventProcessor.processPendingEvents();
+
+        assertNotNull(event.getProcessedAt());
+        verify(paymentRepository, never()).save(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    @DisplayName("Process event for unpaid checkout session - Leaves Payment pending")
+    void processPendingEvents_UnpaidSession_LeavesPaymentPending() {
+        StripeEvent event = createTestEvent("unpaid");
+        when(stripeEventRepository.lockPendingBatch(anyInt(), any(), anyInt()))
+                .thenReturn(List.of(event));
+
+        stripeEventProcessor.processPendingEvents();
+
+        assertNotNull(event.getProcessedAt());
+        verifyNoInteractions(paymentRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Process event before its Payment is committed - Keeps it for a retry")
+    void processPendingEvents_PaymentNotFound_IncrementsAttempts() {
+        StripeEvent event = createTestEvent("paid");
+        when(stripeEventRepository.lockPendingBatch(eq(MAX_ATTEMPTS), any(), eq(BATCH_SIZE)))
+                .thenReturn(List.of(event));
+        when(paymentRepository.lockBySessionId(SAMPLE_SESSION_ID)).thenReturn(Optional.empty());
+
+        stripeEventProcessor.processPendingEvents();
+
+        assertNull(event.getProcessedAt());
+        assertEquals(1, event.getAttempts());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    @DisplayName("Process an event that failed before - Backs off exponentially")
+    void processPendingEvents_RepeatedFailure_BacksOffExponentially() {
+        StripeEvent event = createTestEvent("paid");
+        event.setAttempts(2);
+        when(stripeEventRepository.lockPendingBatch(eq(MAX_ATTEMPTS), any(), eq(BATCH_SIZE)))
+                .thenReturn(List.of(event));
+        when(paymentRepository.lockBySessionId(SAMPLE_SESSION_ID)).thenReturn(Optional.empty());
+        final Duration expectedBackoff = INITIAL_BACKOFF.multipliedBy(4);
+        LocalDateTime before = LocalDateTime.now();
+
+        stripeEventProcessor.processPendingEvents();
+
+        assertEquals(3, event.getAttempts());
+        assertFalse(event.getNextAttemptAt().isBefore(before.plus(expectedBackoff)));
+        assertFalse(event.getNextAttemptAt().isAfter(LocalDateTime.now().plus(expectedBackoff)));
+    }
+
+    @Test
+    @DisplayName("Process a full batch where every event fails - Doesn't lock another batch")
+    void processPendingEvents_WholeBatchFails_StopsPolling() {
+        List<StripeEvent> events = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(createTestEvent("evt_test_" + i, "paid"));
+        }
+        when(stripeEventRepository.lockPendingBatch(eq(MAX_ATTEMPTS), any(), eq(BATCH_SIZE)))
+                .thenReturn(events);
+        when(paymentRepository.lockBySessionId(SAMPLE_SESSION_ID)).thenReturn(Optional.empty());
+
+        stripeEventProcessor.processPendingEvents();
+
+        verify(stripeEventRepository, times(1))
+                .lockPendingBatch(eq(MAX_ATTEMPTS), any(), eq(BATCH_SIZE));
+        events.forEach(event -> assertEquals(1, event.getAttempts()));
+    }
+
+    @Test
+    @DisplayName("Process a failing event in a batch - Rolls back only its own transaction")
+    void processPendingEvents_FailingEvent_RollsBackOnlyItsTransaction() {
+        StripeEvent failing = createTestEvent(SAMPLE_EVENT_ID, "paid");
+        StripeEvent unpaid = createTestEvent("evt_test_2", "unpaid");
+        when(stripeEventRepository.lockPendingBatch(eq(MAX_ATTEMPTS), any(), eq(BATCH_SIZE)))
+                .thenReturn(List.of(failing, unpaid));
+        when(paymentRepository.lockBySessionId(SAMPLE_SESSION_ID)).thenReturn(Optional.empty());
+        TransactionStatus batchStatus = mock(TransactionStatus.class);
+        TransactionStatus eventStatus = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation ->
+                invocation.<TransactionDefinition>getArgument(0).getPropagationBehavior()
+                        == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                        ? eventStatus : batchStatus);
+
+        stripeEventProcessor.processPendingEvents();
+
+        assertEquals(1, failing.getAttempts());
+        assertNotNull(unpaid.getProcessedAt());
+        verify(transactionManager).rollback(eventStatus);
+        verify(transactionManager, never()).rollback(batchStatus);
+        verify(transactionManager).commit(batchStatus);
+    }
+
+    private StripeEvent createTestEvent(String paymentStatus) {
+        return createTestEvent(SAMPLE_EVENT_ID, paymentStatus);
+    }
+
+    private StripeEvent createTestEvent(String eventId, String paymentStatus) {
+        StripeEvent event = new StripeEvent();
+        event.setId(eventId);
+        event.setType(StripeEventProcessor.CHECKOUT_SESSION_COMPLETED);
+        event.setPayload(StripeWebhookPayloads.checkoutSessionCompleted(
+                eventId, SAMPLE_SESSION_ID, paymentStatus));
+        event.setReceivedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private Payment createTestPayment(Payment.Status status) {
+        Payment payment = new Payment();
+        payment.setId(1L);
+        payment.setStatus(status);
+        payment.setType(Payment.Type.PAYMENT);
+        payment.setAmountToPay(BigDecimal.valueOf(99.99));
+        payment.setSessionUrl("http://test-session-url");
+        payment.setSessionId(SAMPLE_SESSION_ID);
+        return payment;
+    }
+}
@@ -0,0 +1,39 @@
+package carrent.service.payment;
+
+import com.stripe.net.Webhook;
+import java.security.GeneralSecurityException;
+
+/**
+ * Builds Stripe webhook payloads and signs them the way Stripe does, so webhook handling can
+ * be tested without a Stripe account or the Stripe CLI.
+ */
+public final class StripeWebhookPayloads {
+    public static final String TEST_WEBHOOK_SECRET = "whsec_test_secret";
+
+    private StripeWebhookPayloads() {
+    }
+
+    public static String checkoutSessionCompleted(
+            String eventId, String sessionId, String paymentStatus) {
+        return """
+                {"id": "%s", "object": "event", "api_version": "2023-10-16",
+                 "type": "checkout.session.completed",
+                 "data": {"object": {"id": "%s", "object": "checkout.session",
+                 "payment_status": "%s"}}}"""
+                .formatted(eventId, sessionId, paymentStatus);
+    }
+
+    public static String signatureHeader(String payload, String secret, long timestamp) {
+        try {
+            String signature = Webhook.Util.computeHmacSha256(
+                    secret, timestamp + "." + payload);
+            return "t=" + timestamp + ",v1=" + signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Can't sign Stripe webhook payload", e);
+        }
+    }
+
+    public static String signatureHeader(String payload) {
+        return signatureHeader(payload, TEST_WEBHOOK_SECRET, Webhook.Util.getTimeNow());
+    }
+}
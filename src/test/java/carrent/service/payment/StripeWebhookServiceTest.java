@@ -0,0 +1,97 @@
+package carrent.service.payment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import carrent.exception.InvalidWebhookSignatureException;
+import carrent.repository.payment.StripeEventRepository;
+import carrent.service.payment.impl.StripeWebhookServiceImpl;
+import com.stripe.net.Webhook;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class StripeWebhookServiceTest {
+    private static final String SAMPLE_EVENT_ID = "evt_test_1";
+    private static final String SAMPLE_SESSION_ID = "cs_test_1";
+    private static final long SIGNATURE_TOLERANCE_SECONDS = 300;
+    @Mock
+    private StripeEventRepository stripeEventRepository;
+    @InjectMocks
+    private StripeWebhookServiceImpl stripeWebhookService;
+
+    @BeforeEach
+    void setWebhookSecret() {
+        ReflectionTestUtils.setField(stripeWebhookService, "webhookSecret",
+                StripeWebhookPayloads.TEST_WEBHOOK_SECRET);
+    }
+
+    @Test
+    @DisplayName("Receive event (valid signature) - Stores the event")
+    void receiveEvent_ValidSignature_StoresEvent() {
+        String payload = StripeWebhookPayloads.checkoutSessionCompleted(
+                SAMPLE_EVENT_ID, SAMPLE_SESSION_ID, "paid");
+
+        stripeWebhookService.receiveEvent(
+                payload, StripeWebhookPayloads.signatureHeader(payload));
+
+        verify(stripeEventRepository, times(1)).insertIfAbsent(eq(SAMPLE_EVENT_ID),
+                eq(StripeEventProcessor.CHECKOUT_SESSION_COMPLETED), eq(payload), any());
+    }
+
+    @Test
+    @DisplayName("Receive event (signed with another secret) "
+            + "- Throws InvalidWebhookSignatureException")
+    void receiveEvent_WrongSecret_ThrowsInvalidWebhookSignatureException() {
+        String payload = StripeWebhookPayloads.checkoutSessionCompleted(
+                SAMPLE_EVENT_ID, SAMPLE_SESSION_ID, "paid");
+        String signatureHeader = StripeWebhookPayloads.signatureHeader(
+                payload, "whsec_other_secret", Webhook.Util.getTimeNow());
+
+        assertThrows(InvalidWebhookSignatureException.class,
+                () -> stripeWebhookService.receiveEvent(payload, signatureHeader));
+
+        verifyNoInteractions(stripeEventRepository);
+    }
+
+    @Test
+    @DisplayName("Receive event (signature too old) - Throws InvalidWebhookSignatureException")
+    void receiveEvent_ExpiredSignature_ThrowsInvalidWebhookSignatureException() {
+        String payload = StripeWebhookPayloads.checkoutSessionCompleted(
+                SAMPLE_EVENT_ID, SAMPLE_SESSION_ID, "paid");
+        String signatureHeader = StripeWebhookPayloads.signatureHeader(
+                payload, StripeWebhookPayloads.TEST_WEBHOOK_SECRET,
+                Webhook.Util.getTimeNow() - 2 * SIGNATURE_TOLERANCE_SECONDS);
+
+        assertThrows(InvalidWebhookSignatureException.class,
+                () -> stripeWebhookService.receiveEvent(payload, signatureHeader));
+
+        verifyNoInteractions(stripeEventRepository);
+    }
+
+    @Test
+    @DisplayName("Replay event (unknown event ID) - Throws EntityNotFoundException")
+    void replayEvent_UnknownEvent_ThrowsEntityNotFoundException() {
+        when(stripeEventRepository.resetForReplay(anyString(), any())).thenReturn(0);
+        String expected = "Can't find Stripe event with id: " + SAMPLE_EVENT_ID;
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> stripeWebhookService.replayEvent(SAMPLE_EVENT_ID));
+
+        assertEquals(expected, exception.getMessage());
+    }
+}
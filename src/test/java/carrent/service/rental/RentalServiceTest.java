@@ -24,8 +24,11 @@ import carrent.model.Role;
 import carrent.model.User;
 import carrent.repository.car.CarRepository;
 import carrent.repository.rental.RentalRepository;
-import carrent.service.notification.NotificationService;
+import carrent.service.car.impl.CarAvailabilityIndex;
+import carrent.service.car.impl.CarSearchIndex;
+import carrent.service.outbox.OutboxService;
 import carrent.service.rental.impl.RentalServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -37,7 +40,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,6 +59,11 @@ public class RentalServiceTest {
     private static final String SAMPLE_MODEL = "X7";
     private static final Car.Type SAMPLE_TYPE = Car.Type.SUV;
     private static final int SAMPLE_INVENTORY = 1;
+    private static final int SAMPLE_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Long FIRST_PAGE_CURSOR = 0L;
+    private static final Long SAMPLE_CURSOR = 40L;
+    private static final String RENTAL_METRIC = "rentals.operations";
     @Mock
     private RentalRepository rentalRepository;
     @Mock
@@ -61,7 +71,13 @@ public class RentalServiceTest {
     @Mock
     private CarRepository carRepository;
     @Mock
-    private NotificationService notificationService;
+    private OutboxService outboxService;
+    @Mock
+    private CarAvailabilityIndex carAvailabilityIndex;
+    @Mock
+    private CarSearchIndex carSearchIndex;
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     @InjectMocks
     private RentalServiceImpl rentalService;
 
@@ -83,7 +99,7 @@ public class RentalServiceTest {
         verify(rentalRepository, times(1)).findById(any());
         verify(rentalMapper, times(1)).toDtoFromModel(any());
         verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+                rentalRepository, rentalMapper, carRepository, outboxService);
     }
 
     @Test
@@ -105,7 +121,7 @@ public class RentalServiceTest {
         assertEquals(expected, actual);
         verify(rentalRepository, times(1)).findById(any());
         verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+                rentalRepository, rentalMapper, carRepository, outboxService);
     }
 
     @Test
@@ -124,7 +140,7 @@ public class RentalServiceTest {
         assertEquals(expected, actual);
         verify(rentalRepository, times(1)).findById(any());
         verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+                rentalRepository, rentalMapper, carRepository, outboxService);
     }
 
     @Test
@@ -137,8 +153,8 @@ public class RentalServiceTest {
         Rental modelRental = createTestRental(modelCar, modelUser);
         RentalDto expected = createTestReturnedRentalDto(modelRental, carDto);
         when(rentalRepository.findById(modelRental.getId())).thenReturn(Optional.of(modelRental));
-        when(carRepository.findById(modelCar.getId())).thenReturn(Optional.of(modelCar));
-        when(carRepository.save(modelCar)).thenReturn(modelCar);
+        when(carRepository.increaseInventory(modelCar.getId())).thenReturn(1);
+        when(carRepository.findInventoryById(modelCar.getId())).thenReturn(SAMPLE_INVENTORY + 1);
         when(rentalRepository.save(modelRental)).thenReturn(modelRental);
         when(rentalMapper.toDtoFromModel(modelRental)).thenReturn(expected);
 
@@ -146,12 +162,15 @@ public class RentalServiceTest {
 
         assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
         verify(rentalRepository, times(1)).findById(any());
-        verify(carRepository, times(1)).findById(any());
-        verify(carRepository, times(1)).save(any());
+        verify(carRepository, times(1)).increaseInventory(any());
+        verify(carRepository, times(1)).findInventoryById(any());
         verify(rentalRepository, times(1)).save(any());
         verify(rentalMapper, times(1)).toDtoFromModel(any());
-        verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+        verify(carAvailabilityIndex, times(1)).rentalReturned(modelRental.getId(),
+                modelCar.getId(), modelRental.getRentalDate(), LocalDate.now());
+        verify(carSearchIndex, times(1)).inventoryChanged(modelCar.getId(), SAMPLE_INVENTORY + 1);
+        verifyNoMoreInteractions(rentalRepository, rentalMapper, carRepository,
+                outboxService, carAvailabilityIndex, carSearchIndex);
     }
 
     @Test
@@ -173,7 +192,7 @@ public class RentalServiceTest {
         assertEquals(expected, actual);
         verify(rentalRepository, times(1)).findById(any());
         verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+                rentalRepository, rentalMapper, carRepository, outboxService);
     }
 
     @Test
@@ -189,34 +208,40 @@ public class RentalServiceTest {
         modelRental.setReturnDate(LocalDate.now().plusDays(rentalRequest.daysOfRental()));
         RentalDto expected = createTestReturnedRentalDto(modelRental, carDto);
         expected.carInfo().setInventory(1);
+        when(carRepository.decreaseInventoryIfAvailable(modelCar.getId())).thenReturn(1);
         when(carRepository.findById(modelCar.getId())).thenReturn(Optional.of(modelCar));
-        when(carRepository.save(modelCar)).thenReturn(modelCar);
         when(rentalRepository.save(any())).thenReturn(modelRental);
         when(rentalMapper.toDtoFromModel(modelRental)).thenReturn(expected);
-        doNothing().when(notificationService).sendRentalCreationNotification(expected);
+        doNothing().when(outboxService).publishRentalCreated(expected);
 
         RentalDto actual = rentalService.createNewRental(modelUser, rentalRequest);
 
         assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        verify(carRepository, times(1)).decreaseInventoryIfAvailable(any());
         verify(carRepository, times(1)).findById(any());
-        verify(carRepository, times(1)).save(any());
         verify(rentalRepository, times(1)).save(any());
         verify(rentalMapper, times(1)).toDtoFromModel(any());
-        verify(notificationService, times(1)).sendRentalCreationNotification(any());
-        verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+        verify(outboxService, times(1)).publishRentalCreated(any());
+        verify(carAvailabilityIndex, times(1)).rentalCreated(expected.id(), modelCar.getId(),
+                LocalDate.now(), LocalDate.now().plusDays(rentalRequest.daysOfRental()));
+        verify(carSearchIndex, times(1)).inventoryChanged(modelCar.getId(), SAMPLE_INVENTORY);
+        verifyNoMoreInteractions(rentalRepository, rentalMapper, carRepository,
+                outboxService, carAvailabilityIndex, carSearchIndex);
+        assertEquals(1, meterRegistry.get(RENTAL_METRIC)
+                .tags("operation", "create", "exception", "none").timer().count());
     }
 
     @Test
     @DisplayName("Create new rental (car not available) - Throws CarNotAvailableException")
     void createNewRental_CarNotAvailable_ThrowsCarNotAvailableException() {
         Role modelRole = createTestRole();
-        User modelUser = createTestUser(modelRole, VALID_USER_ID);
+        final User modelUser = createTestUser(modelRole, VALID_USER_ID);
         RentalRequestDto rentalRequest = new RentalRequestDto(
                 10,
                 1L);
         Car modelCar = createTestCar(rentalRequest.carId());
         modelCar.setInventory(0);
+        when(carRepository.decreaseInventoryIfAvailable(modelCar.getId())).thenReturn(0);
         when(carRepository.findById(modelCar.getId())).thenReturn(Optional.of(modelCar));
         String expected = "Car is currently out of stock! Please choose another";
 
@@ -226,9 +251,13 @@ public class RentalServiceTest {
         String actual = exception.getMessage();
 
         assertEquals(expected, actual);
+        verify(carRepository, times(1)).decreaseInventoryIfAvailable(any());
         verify(carRepository, times(1)).findById(any());
         verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+                rentalRepository, rentalMapper, carRepository, outboxService);
+        assertEquals(1, meterRegistry.get(RENTAL_METRIC)
+                .tags("operation", "create", "exception", "CarNotAvailableException")
+                .timer().count());
     }
 
     @Test
@@ -239,20 +268,45 @@ public class RentalServiceTest {
         User modelUser = createTestUser(modelRole, VALID_USER_ID);
         Car modelCar = createTestCar(1L);
         Rental modelRental = createTestRental(modelCar, modelUser);
-        List<Rental> modelRentalsList = List.of(modelRental);
+        List<BasicRentalDto> expected = List.of(createTestBasicRentalDto(modelRental));
+        when(rentalRepository.findAllByUserIdAndActualReturnDateIsNullAndIdGreaterThanOrderById(
+                modelUser.getId(), FIRST_PAGE_CURSOR, Limit.of(SAMPLE_PAGE_SIZE)))
+                .thenReturn(expected);
+
+        List<BasicRentalDto> actual = rentalService.findAllRentalsByUserAndRentalStatus(
+                modelUser, SAMPLE_ACTIVITY_STATUS, modelUser.getId(), null, SAMPLE_PAGE_SIZE);
+
+        assertIterableEquals(expected, actual);
+        verify(rentalRepository, times(1))
+                .findAllByUserIdAndActualReturnDateIsNullAndIdGreaterThanOrderById(
+                        any(), any(), any());
+        verifyNoMoreInteractions(
+                rentalRepository, rentalMapper, carRepository, outboxService);
+    }
+
+    @Test
+    @DisplayName("Find all rentals (Manager accessing next page of all rentals) "
+            + "- Returns List of BasicRentalDto")
+    void findAllRentalsByUserAndRentalStatus_ManagerAccessingNextPage_ReturnsListBasicRentalDto() {
+        User modelCustomer = createTestUser(createTestRole(), INVALID_USER_ID);
+        Rental modelRental = createTestRental(createTestCar(1L), modelCustomer);
+        modelRental.setId(SAMPLE_CURSOR + 1);
         BasicRentalDto expectedRental = createTestBasicRentalDto(modelRental);
+        when(rentalRepository.findAllByIdGreaterThanOrderById(
+                SAMPLE_CURSOR, Limit.of(MAX_PAGE_SIZE)))
+                .thenReturn(List.of(expectedRental));
+        Role managerRole = createTestRole();
+        managerRole.setName(Role.RoleName.MANAGER);
+        User modelManager = createTestUser(managerRole, VALID_USER_ID);
         List<BasicRentalDto> expected = List.of(expectedRental);
-        when(rentalRepository.findAllByUser(modelUser)).thenReturn(modelRentalsList);
-        when(rentalMapper.toBasicDtoFromModel(modelRental)).thenReturn(expectedRental);
 
         List<BasicRentalDto> actual = rentalService.findAllRentalsByUserAndRentalStatus(
-                modelUser, SAMPLE_ACTIVITY_STATUS, modelUser.getId());
+                modelManager, null, null, SAMPLE_CURSOR, MAX_PAGE_SIZE + 1);
 
         assertIterableEquals(expected, actual);
-        verify(rentalRepository, times(1)).findAllByUser(any());
-        verify(rentalMapper, times(1)).toBasicDtoFromModel(any());
+        verify(rentalRepository, times(1)).findAllByIdGreaterThanOrderById(any(), any());
         verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+                rentalRepository, rentalMapper, carRepository, outboxService);
     }
 
     @Test
@@ -266,12 +320,13 @@ public class RentalServiceTest {
         AccessDeniedException exception = assertThrows(
                 AccessDeniedException.class,
                 () -> rentalService.findAllRentalsByUserAndRentalStatus(
-                        modelUser, SAMPLE_ACTIVITY_STATUS, INVALID_USER_ID));
+                        modelUser, SAMPLE_ACTIVITY_STATUS, INVALID_USER_ID,
+                        null, SAMPLE_PAGE_SIZE));
         String actual = exception.getMessage();
 
         assertEquals(expected, actual);
         verifyNoMoreInteractions(
-                rentalRepository, rentalMapper, carRepository, notificationService);
+                rentalRepository, rentalMapper, carRepository, outboxService);
     }
 
     private RentalDto createTestRentalDto(Rental modelRental, CarDto carDto) {
@@ -124,16 +124,20 @@ public class UserServiceTest {
     void updateProfileInfo_ValidUserAndRequest_ReturnsUserInfoResponseDto() {
         UserUpdateRequestDto validUpdateRequest = new UserUpdateRequestDto("Bob", "Smith");
         Role modelRole = createTestRole();
+        User principal = createTestUser(modelRole);
         User modelUser = createTestUser(modelRole);
         modelUser.setFirstName(validUpdateRequest.firstName());
         modelUser.setLastName(validUpdateRequest.lastName());
         UserInfoResponseDto expected = createTestUserInfoResponseDtoFromModel(modelUser);
+        when(userRepository.findById(principal.getId())).thenReturn(Optional.of(modelUser));
         when(userRepository.save(modelUser)).thenReturn(modelUser);
         when(userMapper.toUserInfoDtoFromModel(modelUser)).thenReturn(expected);
 
-        UserInfoResponseDto actual = userService.updateProfileInfo(modelUser, validUpdateRequest);
+        UserInfoResponseDto actual = userService.updateProfileInfo(principal, validUpdateRequest);
 
         assertEquals(expected, actual);
+        assertEquals(SAMPLE_FIRST_NAME, principal.getFirstName());
+        verify(userRepository, times(1)).findById(principal.getId());
         verify(userRepository, times(1)).save(any());
         verify(userMapper, times(1)).toUserInfoDtoFromModel(any());
         verifyNoMoreInteractions(userRepository, roleRepository, userMapper, passwordEncoder);
@@ -0,0 +1,17 @@
+INSERT INTO roles(id, name) VALUES (1, 'CUSTOMER');
+INSERT INTO roles(id, name) VALUES (2, 'MANAGER');
+
+INSERT INTO users(id, email, first_name, last_name, password, is_deleted)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 200)
+SELECT n, CONCAT('customer', n, '@load.test'), 'Load', CONCAT('Customer ', n),
+       '$2a$10$2UWH5EMjHJGwl1JbzyXd1uG1OS7W1pmOhWQXcF9nFByYM7aGUhlS6', 0
+FROM seq;
+
+INSERT INTO users_roles(user_id, role_id)
+SELECT id, 1 FROM users;
+
+INSERT INTO cars(id, model, brand, type, inventory, daily_fee, is_deleted)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 50)
+SELECT n, CONCAT('Model ', n), CONCAT('Brand ', n % 10),
+       ELT(n % 4 + 1, 'SEDAN', 'SUV', 'HATCHBACK', 'UNIVERSAL'), 1000000, 30 + n, 0
+FROM seq;
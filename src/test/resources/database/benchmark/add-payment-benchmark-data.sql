@@ -0,0 +1,16 @@
+INSERT INTO roles(id, name) VALUES (1, 'CUSTOMER');
+INSERT INTO roles(id, name) VALUES (2, 'MANAGER');
+
+INSERT INTO users(id, email, first_name, last_name, password, is_deleted)
+VALUES (2, 'paul@customer.com', 'Paul', 'Walker', '$2a$10$2UWH5EMjHJGwl1JbzyXd1uG1OS7W1pmOhWQXcF9nFByYM7aGUhlS6', 0);
+
+INSERT INTO users_roles(user_id, role_id) VALUES (2, 1);
+
+INSERT INTO cars(id, model, brand, type, inventory, daily_fee, is_deleted)
+VALUES (1, 'Astra', 'Opel', 'HATCHBACK', 3, 40.99, 0);
+
+INSERT INTO rentals(id, car_id, user_id, rental_date, return_date, actual_return_date)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n, 1, 2, DATE '2024-01-01' + INTERVAL n % 365 DAY,
+       DATE '2024-01-08' + INTERVAL n % 365 DAY, NULL
+FROM seq;
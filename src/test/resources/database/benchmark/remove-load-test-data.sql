@@ -0,0 +1,8 @@
+DELETE FROM outbox_events;
+DELETE FROM payment_session_claims;
+DELETE FROM payments;
+DELETE FROM rentals;
+DELETE FROM cars;
+DELETE FROM users_roles;
+DELETE FROM users;
+DELETE FROM roles;
@@ -17,8 +17,8 @@ VALUES (1, 10, 2, '2021-01-11', '2021-02-08', null);
 INSERT INTO rentals(id, car_id, user_id, rental_date, return_date, actual_return_date)
 VALUES (2, 10, 1, '2024-01-06', '2024-01-09', null);
 
-INSERT INTO payments(id, status, type, rental_id, amount_to_pay, session_id, session_url)
-VALUES (1, 'PENDING', 'PAYMENT', 1, 100, 'sessionId', 'sessionUrl');
+INSERT INTO payments(id, status, type, rental_id, amount_to_pay, session_id, session_url, created_at)
+VALUES (1, 'PENDING', 'PAYMENT', 1, 100, 'sessionId', 'sessionUrl', '2021-01-11 10:00:00');
 
-INSERT INTO payments(id, status, type, rental_id, amount_to_pay, session_id, session_url)
-VALUES (2, 'PENDING', 'PAYMENT', 2, 100, 'sessionId2', 'sessionUrl2');
+INSERT INTO payments(id, status, type, rental_id, amount_to_pay, session_id, session_url, created_at)
+VALUES (2, 'PENDING', 'PAYMENT', 2, 100, 'sessionId2', 'sessionUrl2', '2024-01-06 10:00:00');
@@ -1,3 +1,4 @@
+DELETE FROM payment_session_claims;
 DELETE FROM payments;
 DELETE FROM rentals;
 DELETE FROM cars;
@@ -0,0 +1,33 @@
+INSERT INTO roles(id, name) VALUES (1, 'CUSTOMER');
+INSERT INTO roles(id, name) VALUES (2, 'MANAGER');
+
+INSERT INTO users(id, email, first_name, last_name, password, is_deleted)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 200)
+SELECT n, CONCAT('user', n, '@customer.com'), 'Paul', 'Walker',
+       '$2a$10$2UWH5EMjHJGwl1JbzyXd1uG1OS7W1pmOhWQXcF9nFByYM7aGUhlS6', 0
+FROM seq;
+
+INSERT INTO users_roles(user_id, role_id)
+SELECT id, 1 FROM users;
+
+INSERT INTO cars(id, model, brand, type, inventory, daily_fee, is_deleted)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 50)
+SELECT n, 'Astra', 'Opel', 'HATCHBACK', 3, 40.99, 0
+FROM seq;
+
+INSERT INTO rentals(id, car_id, user_id, rental_date, return_date, actual_return_date)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n, 1 + n % 50, 1 + n % 200, DATE '2024-01-01' + INTERVAL n % 365 DAY,
+       DATE '2024-01-08' + INTERVAL n % 365 DAY,
+       IF(n % 10 = 0, NULL, DATE '2024-01-08' + INTERVAL n % 365 DAY)
+FROM seq;
+
+INSERT INTO payments(status, type, rental_id, amount_to_pay, session_id, session_url, created_at)
+SELECT IF(id % 20 = 0, 'PENDING', 'PAID'), 'PAYMENT', id, 100, CONCAT('sessionId', id), CONCAT('sessionUrl', id), rental_date
+FROM rentals;
+
+INSERT INTO outbox_events(type, payload, created_at, processed_at, attempts)
+SELECT 'RENTAL_CREATED', '{}', NOW(6), IF(id % 20 = 0, NULL, NOW(6)), 0
+FROM rentals;
+
+ANALYZE TABLE users, users_roles, roles, cars, rentals, payments, outbox_events;